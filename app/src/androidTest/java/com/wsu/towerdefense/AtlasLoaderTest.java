@@ -0,0 +1,92 @@
+package com.wsu.towerdefense;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.wsu.towerdefense.Model.Game;
+import com.wsu.towerdefense.Model.Projectile;
+import com.wsu.towerdefense.graphics.AtlasLoader;
+import com.wsu.towerdefense.graphics.SpriteAtlas;
+import com.wsu.towerdefense.graphics.SpriteCache;
+import java.lang.reflect.Field;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AtlasLoaderTest extends TestCase {
+
+    private final Context context =
+        InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Before
+    public void init() throws Exception {
+        AtlasLoader.init(context);
+        AtlasLoader.evictAll();
+        SpriteCache.evictAll();
+    }
+
+    private void assertSameSizeAsResource(int resourceID) {
+        Bitmap sprite = AtlasLoader.getSprite(context, resourceID);
+        Bitmap decoded = BitmapFactory.decodeResource(context.getResources(), resourceID);
+
+        assertNotNull(sprite);
+        assertEquals(decoded.getWidth(), sprite.getWidth());
+        assertEquals(decoded.getHeight(), sprite.getHeight());
+    }
+
+    @Test
+    public void spritesMatchResources() {
+        assertTrue(AtlasLoader.getSpriteCount() > 0);
+        assertSameSizeAsResource(R.mipmap.standard_slime_1);
+        assertSameSizeAsResource(R.mipmap.armored_slime_2);
+        assertSameSizeAsResource(R.mipmap.armor_3);
+        for (Projectile.Type type : Projectile.Type.values()) {
+            assertSameSizeAsResource(type.imageID);
+        }
+        assertSameSizeAsResource(R.mipmap.tower_basic_linear);
+    }
+
+    @Test
+    public void pagesAreDecodedOnce() {
+        int decodes = AtlasLoader.getDecodeCount();
+
+        AtlasLoader.getRegion(context, R.mipmap.standard_slime_1);
+        AtlasLoader.getRegion(context, R.mipmap.armor_1);
+        AtlasLoader.getRegion(context, R.mipmap.projectile_ball);
+
+        assertEquals(decodes + 1, AtlasLoader.getDecodeCount());
+    }
+
+    @Test
+    public void resourcesNotInAtlasAreNotFound() {
+        assertNull(AtlasLoader.getRegion(context, R.mipmap.map_1));
+        assertNull(AtlasLoader.getRegion(context, R.string.logcatKey));
+    }
+
+    @Test
+    public void gameAtlasUsesPackedPage() {
+        SpriteAtlas atlas = Game.buildAtlas(context);
+        AtlasLoader.Region region = AtlasLoader.getRegion(context, R.mipmap.standard_slime_1);
+
+        assertSame(region.page, atlas.getImage());
+        assertEquals(region.rect,
+            atlas.getRegion(SpriteCache.get(context, R.mipmap.standard_slime_1)));
+    }
+
+    @Test
+    public void pagesAreDroppedOnceEverySpriteIsCopied() throws IllegalAccessException {
+        for (Field field : R.mipmap.class.getFields()) {
+            AtlasLoader.getSprite(context, field.getInt(null));
+        }
+        assertEquals(0, AtlasLoader.getDecodedPageCount());
+
+        // pages that are drawn from are kept
+        AtlasLoader.getRegion(context, R.mipmap.standard_slime_1);
+        AtlasLoader.getSprite(context, R.mipmap.standard_slime_1);
+        assertEquals(1, AtlasLoader.getDecodedPageCount());
+    }
+}
@@ -0,0 +1,62 @@
+package com.wsu.towerdefense;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.wsu.towerdefense.Model.Game.Difficulty;
+import com.wsu.towerdefense.Model.Simulation;
+import com.wsu.towerdefense.Model.Waves;
+import com.wsu.towerdefense.graphics.BackgroundLayer;
+import com.wsu.towerdefense.map.Map;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BackgroundLayerTest extends TestCase {
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 360;
+    private static final String MAP = "map1";
+
+    private final Context context =
+        InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final Map map = new Map(MapReader.get(MAP), WIDTH, HEIGHT);
+    private final Simulation simulation = Simulation.headless(WIDTH, HEIGHT,
+        MapReader.get(MAP).getPath(), new Waves(context, Difficulty.EASY), Difficulty.EASY);
+    private final Canvas canvas =
+        new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+    private void render(BackgroundLayer layer) {
+        layer.render(canvas, map, simulation.getTowers());
+    }
+
+    @Test
+    public void rebuiltOnlyWhenInvalid() {
+        BackgroundLayer layer = new BackgroundLayer();
+        layer.setSize(WIDTH, HEIGHT);
+
+        render(layer);
+        render(layer);
+        assertEquals(1, layer.getRebuildCount());
+
+        layer.invalidate();
+        render(layer);
+        render(layer);
+        assertEquals(2, layer.getRebuildCount());
+    }
+
+    @Test
+    public void resizeInvalidates() {
+        BackgroundLayer layer = new BackgroundLayer();
+        layer.setSize(WIDTH, HEIGHT);
+        render(layer);
+
+        layer.setSize(WIDTH / 2, HEIGHT / 2);
+        render(layer);
+
+        assertEquals(2, layer.getRebuildCount());
+    }
+}
@@ -0,0 +1,183 @@
+package com.wsu.towerdefense;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.wsu.towerdefense.Model.Enemy;
+import com.wsu.towerdefense.Model.EnemyGrid;
+import com.wsu.towerdefense.Model.tower.Tower.TargetMode;
+import com.wsu.towerdefense.map.PathMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class EnemyGridTest extends TestCase {
+
+    private static final int WIDTH = 2560;
+    private static final int HEIGHT = 1440;
+    private static final int TOWERS = 40;
+    private static final int ITERATIONS = 200;
+
+    private final Context context =
+        InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final PathMetrics path = new PathMetrics(
+        new float[]{0, WIDTH}, new float[]{0, HEIGHT}
+    );
+
+    private List<Enemy> randomEnemies(Random random, int count) {
+        Enemy.Type[] types = Enemy.Type.values();
+        List<Enemy> enemies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Enemy e = new Enemy(types[random.nextInt(types.length)], path);
+            // move along the path to get a random progress, leaving some at the start so that
+            // progress ties are tested too
+            if (random.nextInt(4) != 0) {
+                e.update(null, random.nextDouble() * 5);
+            }
+            // include some enemies outside of the game area
+            e.setLocation(new Position(
+                random.nextFloat() * (WIDTH + 400) - 200,
+                random.nextFloat() * (HEIGHT + 400) - 200
+            ));
+            enemies.add(e);
+        }
+        return enemies;
+    }
+
+    private static Enemy linearBestInRange(List<Enemy> enemies, Position center, float range,
+        boolean seeInvisible, TargetMode mode) {
+        Enemy best = null;
+        double bestDistance = 0;
+        for (Enemy e : enemies) {
+            double distance = Math.hypot(
+                Math.abs(center.x - e.getLocation().x),
+                Math.abs(center.y - e.getLocation().y)
+            );
+            if (!e.isAlive() || (e.isInvisible() && !seeInvisible) || distance >= range) {
+                continue;
+            }
+
+            boolean better;
+            if (best == null) {
+                better = true;
+            } else {
+                switch (mode) {
+                    case FIRST:
+                        better = e.getProgress() > best.getProgress();
+                        break;
+                    case LAST:
+                        better = e.getProgress() < best.getProgress();
+                        break;
+                    case STRONGEST:
+                        better = e.getHp() > best.getHp() || (e.getHp() == best.getHp()
+                            && e.getProgress() > best.getProgress());
+                        break;
+                    default:
+                        better = distance < bestDistance;
+                        break;
+                }
+            }
+            if (better) {
+                best = e;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void targetModesMatchLinearScan() {
+        Random random = new Random(4);
+        EnemyGrid grid = new EnemyGrid(256);
+
+        for (int count : new int[]{0, 1, 10, 100, 500}) {
+            List<Enemy> enemies = randomEnemies(random, count);
+            grid.rebuild(enemies, WIDTH, HEIGHT);
+
+            for (int i = 0; i < 500; i++) {
+                Position center = new Position(random.nextFloat() * WIDTH,
+                    random.nextFloat() * HEIGHT);
+                // sometimes a range that covers the whole game area
+                float range = random.nextInt(10) == 0 ? 3000 : 50 + random.nextFloat() * 1000;
+                boolean seeInvisible = random.nextBoolean();
+
+                for (TargetMode mode : TargetMode.values()) {
+                    assertSame(
+                        linearBestInRange(enemies, center, range, seeInvisible, mode),
+                        grid.bestInRange(center, range, seeInvisible, mode)
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void collisionsMatchLinearScan() {
+        Random random = new Random(3);
+        EnemyGrid grid = new EnemyGrid(256);
+
+        for (int count : new int[]{0, 1, 10, 100, 500}) {
+            List<Enemy> enemies = randomEnemies(random, count);
+            grid.rebuild(enemies, WIDTH, HEIGHT);
+
+            for (int i = 0; i < 500; i++) {
+                float x = random.nextFloat() * (WIDTH + 200) - 100;
+                float y = random.nextFloat() * (HEIGHT + 200) - 100;
+                float width = 10 + random.nextFloat() * 100;
+                float height = 10 + random.nextFloat() * 100;
+
+                Enemy expected = null;
+                for (Enemy e : enemies) {
+                    if (e.collides(x, y, width, height)) {
+                        expected = e;
+                        break;
+                    }
+                }
+                assertSame(expected, grid.firstColliding(x, y, width, height));
+            }
+        }
+    }
+
+    @Test
+    public void benchmark() {
+        Random random = new Random(2);
+        EnemyGrid grid = new EnemyGrid(256);
+
+        Position[] towers = new Position[TOWERS];
+        for (int i = 0; i < TOWERS; i++) {
+            towers[i] = new Position(random.nextFloat() * WIDTH, random.nextFloat() * HEIGHT);
+        }
+        float range = 300;
+
+        for (int count : new int[]{50, 200, 800, 3200}) {
+            List<Enemy> enemies = randomEnemies(random, count);
+
+            long start = System.nanoTime();
+            for (int it = 0; it < ITERATIONS; it++) {
+                for (Position t : towers) {
+                    linearBestInRange(enemies, t, range, false, TargetMode.FIRST);
+                }
+            }
+            long linear = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int it = 0; it < ITERATIONS; it++) {
+                grid.rebuild(enemies, WIDTH, HEIGHT);
+                for (Position t : towers) {
+                    grid.bestInRange(t, range, false, TargetMode.FIRST);
+                }
+            }
+            long indexed = System.nanoTime() - start;
+
+            Log.i(context.getString(R.string.logcatKey), String.format(
+                "EnemyGrid benchmark: %d enemies, %d towers: linear %.1f us/tick, grid %.1f us/tick",
+                count, TOWERS, linear / 1000.0 / ITERATIONS, indexed / 1000.0 / ITERATIONS
+            ));
+        }
+    }
+}
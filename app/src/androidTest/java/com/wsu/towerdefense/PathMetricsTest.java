@@ -0,0 +1,63 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.map.PathMetrics;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PathMetricsTest extends TestCase {
+
+    // right 100, down 50, left 30
+    private final PathMetrics path = new PathMetrics(
+        new float[]{0, 100, 100, 70},
+        new float[]{0, 0, 50, 50}
+    );
+
+    @Test
+    public void length() {
+        assertEquals(180, path.getLength(), 1e-4);
+        assertEquals(3, path.getSegmentCount());
+    }
+
+    @Test
+    public void locationOnFirstSegment() {
+        int segment = path.segmentAt(40, 0);
+        Position out = new Position();
+        path.getLocation(40, segment, out);
+
+        assertEquals(0, segment);
+        assertEquals(40, out.x, 1e-4);
+        assertEquals(0, out.y, 1e-4);
+    }
+
+    @Test
+    public void locationAcrossCorner() {
+        int segment = path.segmentAt(120, 0);
+        Position out = new Position();
+        path.getLocation(120, segment, out);
+
+        assertEquals(1, segment);
+        assertEquals(100, out.x, 1e-4);
+        assertEquals(20, out.y, 1e-4);
+        assertEquals(0, path.getDirectionX(segment), 1e-4);
+        assertEquals(1, path.getDirectionY(segment), 1e-4);
+    }
+
+    @Test
+    public void locationAtEnd() {
+        int segment = path.segmentAt(path.getLength(), 1);
+        Position out = new Position();
+        path.getLocation(path.getLength(), segment, out);
+
+        assertEquals(2, segment);
+        assertEquals(70, out.x, 1e-4);
+        assertEquals(50, out.y, 1e-4);
+    }
+
+    @Test
+    public void hintAheadOfDistance() {
+        assertEquals(0, path.segmentAt(10, 2));
+    }
+}
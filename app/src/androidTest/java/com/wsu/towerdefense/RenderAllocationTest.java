@@ -0,0 +1,105 @@
+package com.wsu.towerdefense;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PointF;
+import android.os.Debug;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.wsu.towerdefense.Model.Game;
+import com.wsu.towerdefense.Model.Game.Difficulty;
+import com.wsu.towerdefense.Model.Scene;
+import com.wsu.towerdefense.Model.Simulation;
+import com.wsu.towerdefense.Model.Waves;
+import com.wsu.towerdefense.Model.tower.Tower;
+import com.wsu.towerdefense.graphics.SpriteBatch;
+import com.wsu.towerdefense.map.Map;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RenderAllocationTest extends TestCase {
+
+    private static final int WIDTH = 2560;
+    private static final int HEIGHT = 1440;
+    private static final String MAP = "map1";
+    private static final int TOWERS = 4;
+    private static final int WARMUP_TICKS = 60 * 10;
+    private static final int FRAMES = 30;
+
+    private final Context context =
+        InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    private Simulation newSimulation() {
+        Simulation simulation = Simulation.headless(WIDTH, HEIGHT, MapReader.get(MAP).getPath(),
+            new Waves(context, Difficulty.EASY), Difficulty.EASY);
+
+        int placed = 0;
+        for (float y = Tower.BASE_SIZE; y < HEIGHT && placed < TOWERS; y += Tower.BASE_SIZE) {
+            for (float x = Tower.BASE_SIZE; x < WIDTH && placed < TOWERS; x += Tower.BASE_SIZE) {
+                if (simulation.placeTower(x, y, Tower.Type.BASIC_LINEAR)) {
+                    placed++;
+                }
+            }
+        }
+        assertEquals(TOWERS, placed);
+        return simulation;
+    }
+
+    /**
+     * Checks that drawing and reporting the dirty region of frames doesn't allocate, with the
+     * same {@link Scene} code as {@link Game}, a selected tower and a dragged tower
+     */
+    private void assertFramesDoNotAllocate(boolean spriteBatching) {
+        Simulation simulation = newSimulation();
+        simulation.startNextWave();
+        simulation.runTicks(WARMUP_TICKS);
+        assertFalse(simulation.getEnemies().isEmpty());
+
+        Map map = new Map(MapReader.get(MAP), WIDTH, HEIGHT);
+        Scene scene = new Scene(context, simulation, map,
+            new SpriteBatch(Game.buildAtlas(context)));
+        scene.setSize(WIDTH, HEIGHT);
+        scene.setSpriteBatching(spriteBatching);
+        scene.setSelectedTower(simulation.getTowers().get(0));
+        scene.setDragType(Tower.Type.BASIC_LINEAR);
+        scene.setDragLocation(new PointF(WIDTH / 2f, HEIGHT / 2f));
+
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+        Paint paint = new Paint();
+        DirtyRegion region = new DirtyRegion();
+        region.setSize(WIDTH, HEIGHT);
+
+        // the first frame may build HUD text, draw the background layer and grow batch buffers
+        scene.reportDirty(0, region);
+        scene.render(0, canvas, paint);
+        region.finishFrame(true);
+
+        Debug.startAllocCounting();
+        try {
+            Debug.resetThreadAllocCount();
+            for (int i = 0; i < FRAMES; i++) {
+                double lerp = (double) i / FRAMES;
+                scene.reportDirty(lerp, region);
+                scene.render(lerp, canvas, paint);
+                region.finishFrame(true);
+            }
+            assertEquals(0, Debug.getThreadAllocCount());
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    @Test
+    public void steadyStateFrameDoesNotAllocate() {
+        assertFramesDoNotAllocate(true);
+    }
+
+    @Test
+    public void unbatchedFrameDoesNotAllocate() {
+        assertFramesDoNotAllocate(false);
+    }
+}
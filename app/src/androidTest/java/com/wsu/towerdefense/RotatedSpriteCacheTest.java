@@ -0,0 +1,61 @@
+package com.wsu.towerdefense;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import com.wsu.towerdefense.graphics.RotatedSpriteCache;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RotatedSpriteCacheTest extends TestCase {
+
+    private static final float DEGREES_PER_STEP = 360f / RotatedSpriteCache.STEPS;
+
+    @Before
+    public void reset() {
+        RotatedSpriteCache.setEnabled(true);
+        RotatedSpriteCache.evictAll();
+    }
+
+    @Test
+    public void stepRoundsToNearest() {
+        assertEquals(0, RotatedSpriteCache.stepOf(0));
+        assertEquals(1, RotatedSpriteCache.stepOf(DEGREES_PER_STEP * 0.6f));
+        assertEquals(0, RotatedSpriteCache.stepOf(DEGREES_PER_STEP * 0.4f));
+    }
+
+    @Test
+    public void stepWrapsAround() {
+        assertEquals(0, RotatedSpriteCache.stepOf(360));
+        assertEquals(RotatedSpriteCache.STEPS - 1, RotatedSpriteCache.stepOf(-DEGREES_PER_STEP));
+        assertEquals(RotatedSpriteCache.stepOf(90), RotatedSpriteCache.stepOf(90 + 720));
+    }
+
+    @Test
+    public void sameStepIsRenderedOnce() {
+        Bitmap sprite = Bitmap.createBitmap(30, 40, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+        int misses = RotatedSpriteCache.getMissCount();
+
+        assertTrue(RotatedSpriteCache.draw(canvas, sprite, 45, 50, 50));
+        assertTrue(RotatedSpriteCache.draw(canvas, sprite, 45, 20, 20));
+
+        assertEquals(misses + 1, RotatedSpriteCache.getMissCount());
+        // a square that fits the 30x40 sprite at any angle
+        assertEquals(50 * 50 * 4, RotatedSpriteCache.getSize());
+    }
+
+    @Test
+    public void disabledCacheDoesNotDraw() {
+        Bitmap sprite = Bitmap.createBitmap(30, 40, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+
+        RotatedSpriteCache.setEnabled(false);
+
+        assertFalse(RotatedSpriteCache.draw(canvas, sprite, 45, 50, 50));
+        assertEquals(0, RotatedSpriteCache.getSize());
+    }
+}
@@ -0,0 +1,66 @@
+package com.wsu.towerdefense;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import androidx.test.platform.app.InstrumentationRegistry;
+import junit.framework.TestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SettingsTest extends TestCase {
+
+    private final Context context =
+        InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    private SharedPreferences preferences;
+    private long musicVolume;
+    private long sfxVolume;
+
+    @Before
+    public void saveVolumes() {
+        preferences = context.getSharedPreferences(
+            context.getString(R.string.pref_file_key), Context.MODE_PRIVATE);
+        long defaultVolume = context.getResources().getInteger(R.integer.pref_def_volume);
+        musicVolume = preferences.getLong(
+            context.getString(R.string.pref_key_music_volume), defaultVolume);
+        sfxVolume = preferences.getLong(
+            context.getString(R.string.pref_key_sfx_volume), defaultVolume);
+    }
+
+    @After
+    public void restoreVolumes() {
+        write(R.string.pref_key_music_volume, musicVolume);
+        write(R.string.pref_key_sfx_volume, sfxVolume);
+    }
+
+    /**
+     * Writes a preference on the main thread, like the settings screen does
+     */
+    private void write(int keyID, long value) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+            preferences.edit().putLong(context.getString(keyID), value).apply());
+    }
+
+    @Test
+    public void settingsMatchPreferences() {
+        Settings.init(context);
+
+        assertEquals((float) musicVolume, Settings.getMusicVolume(context));
+        assertEquals((float) sfxVolume, Settings.getSFXVolume(context));
+    }
+
+    @Test
+    public void writesAreSeenImmediately() {
+        Settings.init(context);
+
+        write(R.string.pref_key_sfx_volume, 17);
+        assertEquals(17f, Settings.getSFXVolume(context));
+        write(R.string.pref_key_music_volume, 42);
+        assertEquals(42f, Settings.getMusicVolume(context));
+        assertEquals(17f, Settings.getSFXVolume(context));
+    }
+}
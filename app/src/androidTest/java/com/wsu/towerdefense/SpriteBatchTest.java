@@ -0,0 +1,91 @@
+package com.wsu.towerdefense;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import com.wsu.towerdefense.graphics.SpriteAtlas;
+import com.wsu.towerdefense.graphics.SpriteBatch;
+import java.util.Arrays;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SpriteBatchTest extends TestCase {
+
+    private final Bitmap a = Bitmap.createBitmap(40, 30, Bitmap.Config.ARGB_8888);
+    private final Bitmap b = Bitmap.createBitmap(20, 50, Bitmap.Config.ARGB_8888);
+    private final Bitmap notInAtlas = Bitmap.createBitmap(10, 10, Bitmap.Config.ARGB_8888);
+    private final Canvas canvas =
+        new Canvas(Bitmap.createBitmap(200, 200, Bitmap.Config.ARGB_8888));
+
+    @Test
+    public void atlasRegionsDontOverlap() {
+        SpriteAtlas atlas = SpriteAtlas.build(Arrays.asList(a, b, a));
+
+        Rect ra = atlas.getRegion(a);
+        Rect rb = atlas.getRegion(b);
+        assertEquals(2, atlas.getSpriteCount());
+        assertEquals(a.getWidth(), ra.width());
+        assertEquals(b.getHeight(), rb.height());
+        assertFalse(Rect.intersects(ra, rb));
+        assertNull(atlas.getRegion(notInAtlas));
+    }
+
+    @Test
+    public void oversizedSpriteIsLeftOut() {
+        Bitmap huge = Bitmap.createBitmap(SpriteAtlas.MAX_SIZE + 1, 1, Bitmap.Config.ARGB_8888);
+
+        SpriteAtlas atlas = SpriteAtlas.build(Arrays.asList(a, huge));
+
+        assertNotNull(atlas.getRegion(a));
+        assertNull(atlas.getRegion(huge));
+    }
+
+    @Test
+    public void atlasSpritesShareOneCall() {
+        SpriteBatch batch = new SpriteBatch(SpriteAtlas.build(Arrays.asList(a, b)));
+
+        batch.begin(canvas);
+        batch.draw(a, 0, 0);
+        batch.drawRotated(b, 45, 100, 100);
+        batch.draw(a, 50, 50);
+        batch.fillRect(0, 0, 10, 10, Color.RED);
+        batch.fillRect(0, 0, 5, 10, Color.GREEN);
+        batch.end();
+
+        assertEquals(5, batch.getDraws());
+        assertEquals(2, batch.getDrawCalls());
+    }
+
+    @Test
+    public void spriteOutsideAtlasFlushesBatch() {
+        SpriteBatch batch = new SpriteBatch(SpriteAtlas.build(Arrays.asList(a, b)));
+
+        batch.begin(canvas);
+        batch.draw(a, 0, 0);
+        batch.draw(notInAtlas, 0, 0);
+        batch.draw(b, 0, 0);
+        batch.end();
+
+        // the first sprite, the sprite outside the atlas, then the last sprite
+        assertEquals(3, batch.getDraws());
+        assertEquals(3, batch.getDrawCalls());
+    }
+
+    @Test
+    public void manySprites() {
+        SpriteBatch batch = new SpriteBatch(SpriteAtlas.build(Arrays.asList(a, b)));
+
+        batch.begin(canvas);
+        for (int i = 0; i < 1000; i++) {
+            batch.draw(a, i % 200, i / 5f);
+        }
+        batch.end();
+
+        assertEquals(1000, batch.getDraws());
+        assertEquals(1, batch.getDrawCalls());
+    }
+}
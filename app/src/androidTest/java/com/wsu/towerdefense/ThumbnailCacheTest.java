@@ -0,0 +1,77 @@
+package com.wsu.towerdefense;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.wsu.towerdefense.map.AbstractMap;
+import com.wsu.towerdefense.map.Map;
+import com.wsu.towerdefense.map.ThumbnailCache;
+import java.io.File;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ThumbnailCacheTest extends TestCase {
+
+    private static final String MAP = "map1";
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 250;
+
+    private final Context context =
+        InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Before
+    public void clearCache() {
+        File[] files = new File(context.getCacheDir(), "thumbnails").listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void mapImageIsDecodedWhenNeeded() {
+        AbstractMap baseMap = MapReader.get(MAP);
+        baseMap.releaseImage();
+
+        Map map = new Map(baseMap, 2560, 1440);
+        assertFalse(baseMap.isImageLoaded());
+
+        Bitmap image = map.getImage();
+        assertNotNull(image);
+        assertTrue(baseMap.isImageLoaded());
+        assertSame(image, baseMap.getImage());
+
+        map.releaseImage();
+        assertFalse(baseMap.isImageLoaded());
+    }
+
+    @Test
+    public void thumbnailIsGeneratedOnce() {
+        AbstractMap map = MapReader.get(MAP);
+        int generated = ThumbnailCache.getGeneratedCount();
+
+        Bitmap first = ThumbnailCache.get(context, map, WIDTH, HEIGHT);
+        Bitmap second = ThumbnailCache.get(context, map, WIDTH, HEIGHT);
+
+        assertEquals(generated + 1, ThumbnailCache.getGeneratedCount());
+        assertEquals(first.getWidth(), second.getWidth());
+        assertEquals(first.getHeight(), second.getHeight());
+        assertTrue(first.getWidth() >= WIDTH && first.getHeight() >= HEIGHT);
+        assertTrue(first.getWidth() < WIDTH * 2 && first.getHeight() < HEIGHT * 2);
+    }
+
+    @Test
+    public void thumbnailDoesNotLoadMapImage() {
+        AbstractMap map = MapReader.get(MAP);
+        map.releaseImage();
+
+        ThumbnailCache.get(context, map, WIDTH, HEIGHT);
+
+        assertFalse(map.isImageLoaded());
+    }
+}
@@ -97,4 +97,13 @@ public class WavesTest extends TestCase {
         Enemy.Type actual = w.next();
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void countEnemies() {
+        Waves w = new Waves(a1, d1, t1, 3);
+        assertEquals(3, w.countEnemies(1, Enemy.Type.S1));
+        assertEquals(4, w.countEnemies(2, Enemy.Type.S2));
+        assertEquals(0, w.countEnemies(1, Enemy.Type.S3));
+        assertEquals(0, w.countEnemies(4, Enemy.Type.S1));
+    }
 }
\ No newline at end of file
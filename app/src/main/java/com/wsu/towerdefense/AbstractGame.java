@@ -1,14 +1,23 @@
 package com.wsu.towerdefense;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
 import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.SurfaceHolder;
 import android.view.SurfaceHolder.Callback;
 import android.view.SurfaceView;
 import androidx.annotation.NonNull;
-import com.wsu.towerdefense.view.activity.PauseActivity;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Base class for the game. Manages the {@link SurfaceView}, game loop {@link Thread}, and {@link
@@ -17,6 +26,21 @@ import com.wsu.towerdefense.view.activity.PauseActivity;
  */
 public abstract class AbstractGame extends SurfaceView implements Callback {
 
+    /**
+     * Determines when the game is drawn
+     */
+    public enum RenderMode {
+        /**
+         * The game loop {@link #thread} draws the game after each batch of updates
+         */
+        LOOP,
+        /**
+         * A separate render thread draws the game once per display vsync, while the game loop
+         * {@link #thread} only updates the game state
+         */
+        VSYNC
+    }
+
     /**
      * Interval between game state updates. e.g.
      * <ul>
@@ -28,14 +52,99 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
      * <p>
      * See documentation for {@link #loop()} for more info.
      */
-    private static final double TIMESTEP = 1.0 / 60;
+    public static final double TIMESTEP = 1.0 / 60;
+    private static final long TIMESTEP_NANOS = (long) (TIMESTEP * TimeUnit.SECONDS.toNanos(1));
+    /**
+     * Maximum number of updates run back to back to catch up after the loop stalls. Any time past
+     * this limit is dropped, so that a long stall can't cause an even longer one.
+     */
+    private static final int MAX_CATCH_UP_STEPS = 5;
+    /**
+     * Maximum amount of time spent updating the game per frame, in nanoseconds. At high game
+     * speeds, steps that don't fit in the budget are dropped and the game runs slower than
+     * requested (see {@link FrameMetrics#getAchievedSpeed()}).
+     */
+    private static final long UPDATE_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /**
+     * Time that drawing a frame should take, in nanoseconds. When frames take longer on average,
+     * the game is drawn at a lower resolution (see {@link #setDynamicResolution(boolean)}).
+     */
+    private static final long RENDER_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+    private static final float MIN_RENDER_SCALE = 0.5f;
+    private static final float RENDER_SCALE_STEP = 0.125f;
+    public static final int MIN_SPEED = 1;
+    public static final int MAX_SPEED = 16;
+    /**
+     * Used when the refresh rate of the display can't be determined
+     */
+    private static final float DEFAULT_REFRESH_RATE = 60;
 
     /**
      * Whether the game state should update. Set to false when app is minimized.
      */
-    protected boolean running;
-    private boolean isPaused = false;
-    private boolean isDoubleSpeed = false;
+    protected volatile boolean running;
+    private volatile boolean isPaused = false;
+    /**
+     * Number of {@link #TIMESTEP} updates run per {@link #TIMESTEP} of real time
+     */
+    private volatile int speedMultiplier = MIN_SPEED;
+    /**
+     * Whether a single frame should be drawn while the game is paused
+     */
+    private boolean rerenderRequested = false;
+
+    /**
+     * Guards {@link #isPaused} and {@link #rerenderRequested}. The game loop waits on {@link
+     * #stateChanged} while paused and between updates, so that it doesn't keep a core busy.
+     */
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final Condition stateChanged = stateLock.newCondition();
+    private final FramePacer pacer = new FramePacer(TIMESTEP_NANOS, MAX_CATCH_UP_STEPS);
+
+    /**
+     * Held while the game state is updated or drawn, so that updates and rendering can happen on
+     * different threads in {@link RenderMode#VSYNC} mode
+     */
+    private final Object frameLock = new Object();
+    private RenderMode renderMode = RenderMode.LOOP;
+    private RenderMode activeRenderMode = RenderMode.LOOP;
+    /**
+     * Number of updates that have run so far
+     */
+    private volatile long stepCount = 0;
+    /**
+     * Time that the current game state corresponds to, in nanoseconds
+     */
+    private volatile long simulatedUntil = 0;
+    private long previousFrameStart = 0;
+    private final FrameMetrics metrics = new FrameMetrics();
+    /**
+     * Part of the screen to redraw in the next frame, see {@link #reportDirty(double,
+     * DirtyRegion)}
+     */
+    private final DirtyRegion dirtyRegion = new DirtyRegion();
+    private final Rect dirtyRect = new Rect();
+    private volatile boolean partialRedraw = true;
+
+    // dynamic resolution, only accessed from the thread that renders the game (except for setup)
+    private final ResolutionScaler scaler =
+        new ResolutionScaler(RENDER_BUDGET_NANOS, MIN_RENDER_SCALE, RENDER_SCALE_STEP);
+    private volatile boolean dynamicResolution = true;
+    private Bitmap scaledFrame;
+    private Canvas scaledCanvas;
+    private final Rect scaledSrc = new Rect();
+    private final Rect scaledDst = new Rect();
+    private final Paint scaledPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    // VSYNC render mode, only accessed from the render thread (except for setup)
+    private HandlerThread renderThread;
+    private Handler renderHandler;
+    private Choreographer choreographer;
+    private long vsyncPeriodNanos;
+    private boolean framePending = false;
+    private final Choreographer.FrameCallback frameCallback = this::doFrame;
+    private final Runnable postFrame = this::postFrame;
+
     private int gameWidth;
     private int gameHeight;
 
@@ -48,6 +157,7 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
         running = false;
         this.gameWidth = gameWidth;
         this.gameHeight = gameHeight;
+        dirtyRegion.setSize(gameWidth, gameHeight);
 
         surfaceHolder = getHolder();
         surfaceHolder.addCallback(this);
@@ -62,6 +172,12 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
      * opposed to <i>variable</i>) timestep, which means that there is a constant amount of time
      * ({@link #TIMESTEP}) between game updates.
      * <p>
+     * Time is kept by a {@link FramePacer}. Between frames, the loop {@link #thread} is parked
+     * until the next update is due, and while the game is paused it is blocked entirely.
+     * <p>
+     * In {@link RenderMode#VSYNC} mode this loop only updates the game; frames are drawn by {@link
+     * #doFrame(long)} instead.
+     * <p>
      * Further reading:
      * <p>
      * <a href="https://gameprogrammingpatterns.com/game-loop.html">Game Loop · Game Programming
@@ -71,38 +187,103 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
      * | Gaffer On Games</a>
      */
     public void loop() {
-        double timePrevious = (System.currentTimeMillis() / 1000.0);
-        // represents accumulated (unprocessed) time
-        double acc = 0;
+        pacer.reset(System.nanoTime());
+        previousFrameStart = System.nanoTime();
 
         while (running) {
-
-            double timeCurrent = (System.currentTimeMillis() / 1000.0);
-            // time difference between previous & current loop
-            double delta = timeCurrent - timePrevious;
-            timePrevious = timeCurrent;
-
-            acc += delta; // passed time accumulates in acc variable
+            // block until the game is resumed; time spent paused is not simulated
+            if (waitWhilePaused()) {
+                pacer.reset(System.nanoTime());
+                previousFrameStart = System.nanoTime();
+            }
+            if (!running) {
+                break;
+            }
 
             // when time passed is >= minimum time between updates (TIMESTEP), game is updated
-            while (acc >= TIMESTEP) {
-                if (!this.isPaused && this.isDoubleSpeed) {
-                    update(TIMESTEP * 2);
-                }
-                else if(!this.isPaused){
-                    update(TIMESTEP);
+            // faster game speeds run more updates of the same length, so results don't change
+            pacer.setSpeed(speedMultiplier);
+            long frameStart = System.nanoTime();
+            int steps = pacer.advance(frameStart);
+            int stepsRun = 0;
+            if (steps > 0) {
+                synchronized (frameLock) {
+                    while (stepsRun < steps) {
+                        update(TIMESTEP);
+                        stepsRun++;
+
+                        // drop remaining steps rather than fall further behind
+                        if (System.nanoTime() - frameStart > UPDATE_BUDGET_NANOS) {
+                            break;
+                        }
+                    }
                 }
-                acc -= TIMESTEP; // one interval was processed, so subtract it
+                stepCount += stepsRun;
             }
-            // keep updating the game until passed time < minimum
+            metrics.onUpdates(frameStart - previousFrameStart, stepsRun * TIMESTEP_NANOS);
+            previousFrameStart = frameStart;
+            simulatedUntil = pacer.simulatedUntil();
 
-            // when done updating, render the game, unless the game is paused
+            // when done updating, render the game (unless it is rendered on vsync)
             // remaining unprocessed time is used by render method to interpolate
-            if (!this.isPaused || PauseActivity.rerender) {
-                _render(acc / TIMESTEP);
-                PauseActivity.rerender = false;
+            if (activeRenderMode == RenderMode.LOOP) {
+                _render(pacer.alpha());
+                metrics.onLoopFrame();
+            }
+
+            // rendering follows each batch of updates, so the next update is also the next frame
+            parkUntil(pacer.nextStepDeadline());
+        }
+    }
+
+    /**
+     * Blocks the game loop {@link #thread} while the game is paused. A single frame is drawn for
+     * each call to {@link #requestRerender()} in the meantime.
+     *
+     * @return whether the loop was blocked
+     */
+    private boolean waitWhilePaused() {
+        boolean waited = false;
+
+        while (running) {
+            stateLock.lock();
+            try {
+                while (running && isPaused && !rerenderRequested) {
+                    stateChanged.awaitUninterruptibly();
+                    waited = true;
+                }
+                if (!running || !isPaused) {
+                    return waited;
+                }
+                rerenderRequested = false;
+            } finally {
+                stateLock.unlock();
             }
 
+            // draw outside of the lock so that the UI thread is never blocked by rendering
+            _render(0);
+            waited = true;
+        }
+        return waited;
+    }
+
+    /**
+     * Parks the game loop {@link #thread} until <code>deadline</code>, or until the game is
+     * paused or stopped.
+     *
+     * @param deadline time to wake up at, in nanoseconds (see {@link System#nanoTime()})
+     */
+    private void parkUntil(long deadline) {
+        stateLock.lock();
+        try {
+            long remaining = deadline - System.nanoTime();
+            while (running && !isPaused && remaining > 0) {
+                remaining = stateChanged.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stateLock.unlock();
         }
     }
 
@@ -116,10 +297,128 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
      *              interpolate between game updates
      */
     private void _render(double alpha) {
-        Canvas canvas = surfaceHolder.lockCanvas();
-        if (canvas != null) {
-            render(alpha * TIMESTEP, canvas, paint);
-            surfaceHolder.unlockCanvasAndPost(canvas);
+        synchronized (frameLock) {
+            double lerp = alpha * TIMESTEP;
+            boolean partial = partialRedraw;
+            if (!dynamicResolution && scaler.getScale() != 1) {
+                scaler.reset();
+            }
+            float scale = scaler.getScale();
+
+            Canvas canvas;
+            if (partial) {
+                reportDirty(lerp, dirtyRegion);
+                if (!dirtyRegion.prepare()) {
+                    // nothing changed since the previous frame
+                    dirtyRegion.finishFrame(true);
+                    metrics.onSkippedFrame();
+                    return;
+                }
+                // a scaled frame is upscaled to the whole screen
+                if (dirtyRegion.isFullRedraw() || scale < 1) {
+                    canvas = surfaceHolder.lockCanvas();
+                } else {
+                    dirtyRect.set(dirtyRegion.getLeft(), dirtyRegion.getTop(),
+                        dirtyRegion.getRight(), dirtyRegion.getBottom());
+                    // the surface may grow the rectangle, e.g. when its buffer has no content yet
+                    canvas = surfaceHolder.lockCanvas(dirtyRect);
+                }
+            } else {
+                canvas = surfaceHolder.lockCanvas();
+            }
+
+            if (canvas != null) {
+                long renderStart = System.nanoTime();
+                if (scale < 1) {
+                    renderScaled(lerp, canvas, scale);
+                } else {
+                    // everything is drawn, the canvas is clipped to the dirty rectangle
+                    render(lerp, canvas, paint);
+                }
+                long renderNanos = System.nanoTime() - renderStart;
+                surfaceHolder.unlockCanvasAndPost(canvas);
+
+                boolean full = !partial || dirtyRegion.isFullRedraw() || scale < 1;
+                metrics.onRedraw(full ? 1 : getCoverage(dirtyRect));
+
+                if (dynamicResolution && scaler.onFrame(renderNanos)) {
+                    // the whole screen changes when the resolution does
+                    dirtyRegion.invalidateAll();
+                }
+                metrics.onRenderTime(scaler.getAverageFrameNanos(), scale);
+            }
+            if (partial) {
+                dirtyRegion.finishFrame(canvas != null);
+            }
+        }
+    }
+
+    /**
+     * Draws the game into an offscreen bitmap at a fraction of the screen resolution, then
+     * upscales it to <code>canvas</code>. {@link #render(double, Canvas, Paint)} still draws in
+     * screen coordinates, so game and touch coordinates are the same at any scale.
+     *
+     * @param scale fraction of the screen resolution to draw at
+     */
+    private void renderScaled(double lerp, Canvas canvas, float scale) {
+        if (scaledFrame == null || scaledFrame.getWidth() != gameWidth
+            || scaledFrame.getHeight() != gameHeight) {
+            // sized for the whole screen, so the scale can change without a new bitmap
+            scaledFrame = Bitmap.createBitmap(gameWidth, gameHeight, Bitmap.Config.ARGB_8888);
+            scaledCanvas = new Canvas(scaledFrame);
+        }
+
+        scaledCanvas.save();
+        scaledCanvas.scale(scale, scale);
+        render(lerp, scaledCanvas, paint);
+        scaledCanvas.restore();
+
+        scaledSrc.set(0, 0, Math.round(gameWidth * scale), Math.round(gameHeight * scale));
+        scaledDst.set(0, 0, gameWidth, gameHeight);
+        canvas.drawBitmap(scaledFrame, scaledSrc, scaledDst, scaledPaint);
+    }
+
+    /**
+     * @return fraction of the screen covered by <code>rect</code>
+     */
+    private float getCoverage(Rect rect) {
+        if (gameWidth <= 0 || gameHeight <= 0) {
+            return 1;
+        }
+        return Math.min(1, (float) rect.width() * rect.height() / ((float) gameWidth * gameHeight));
+    }
+
+    /**
+     * Called by {@link Choreographer} on the render thread once per display vsync in {@link
+     * RenderMode#VSYNC} mode. Draws the game state extrapolated to the time of the vsync.
+     *
+     * @param frameTimeNanos time of the vsync, in nanoseconds (see {@link System#nanoTime()})
+     */
+    private void doFrame(long frameTimeNanos) {
+        framePending = false;
+
+        // stop requesting frames while paused; frames are requested again on resume
+        if (!running || isPaused) {
+            metrics.restart();
+            return;
+        }
+        postFrame();
+
+        long step = stepCount;
+        metrics.onVsyncFrame(frameTimeNanos, vsyncPeriodNanos, step);
+
+        double alpha = (double) (frameTimeNanos - simulatedUntil) * speedMultiplier / TIMESTEP_NANOS;
+        _render(Math.max(0, Math.min(1, alpha)));
+    }
+
+    /**
+     * Requests a {@link #doFrame(long)} callback for the next vsync. Must be called from the render
+     * thread.
+     */
+    private void postFrame() {
+        if (!framePending && choreographer != null) {
+            framePending = true;
+            choreographer.postFrameCallback(frameCallback);
         }
     }
 
@@ -142,13 +441,57 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
         }
     }
 
+    /**
+     * Starts the render thread used in {@link RenderMode#VSYNC} mode. {@link Choreographer} has to
+     * be obtained from the thread that receives its callbacks, so it is set up on the thread
+     * itself.
+     */
+    private void startRenderThread() {
+        Display display = getDisplay();
+        float refreshRate = display != null ? display.getRefreshRate() : DEFAULT_REFRESH_RATE;
+        vsyncPeriodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / refreshRate);
+
+        renderThread = new HandlerThread("GameRender", Process.THREAD_PRIORITY_DISPLAY);
+        renderThread.start();
+        renderHandler = new Handler(renderThread.getLooper());
+        renderHandler.post(() -> {
+            choreographer = Choreographer.getInstance();
+            postFrame();
+        });
+    }
+
+    /**
+     * Stops the render thread used in {@link RenderMode#VSYNC} mode.
+     */
+    private void stopRenderThread() {
+        renderHandler.post(() -> {
+            choreographer.removeFrameCallback(frameCallback);
+            framePending = false;
+        });
+        renderThread.quitSafely();
+        try {
+            renderThread.join();
+        } catch (InterruptedException e) {
+            Log.e(getContext().getString(R.string.logcatKey), Log.getStackTraceString(e));
+        }
+        renderThread = null;
+        renderHandler = null;
+    }
+
     /**
      * Starts/resume the game and starts the game loop {@link #thread}.
      */
     @Override
     public void surfaceCreated(@NonNull SurfaceHolder holder) {
         running = true;
+        dirtyRegion.invalidateAll();
+        // a new surface is blank, so draw it at least once even if the game is paused
+        requestRerender();
+        activeRenderMode = renderMode;
         startThread();
+        if (activeRenderMode == RenderMode.VSYNC) {
+            startRenderThread();
+        }
     }
 
     /**
@@ -157,7 +500,11 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
     @Override
     public void surfaceDestroyed(@NonNull SurfaceHolder holder) {
         running = false;
+        signalStateChanged();
         stopThread();
+        if (renderThread != null) {
+            stopRenderThread();
+        }
         holder.getSurface().release();
     }
 
@@ -169,6 +516,7 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
     public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
         gameWidth = width;
         gameHeight = height;
+        dirtyRegion.setSize(width, height);
     }
 
     public int getGameWidth() {
@@ -233,15 +581,129 @@ public abstract class AbstractGame extends SurfaceView implements Callback {
     protected abstract void render(double lerp, Canvas canvas, Paint paint);
 
     /**
-     * To pause the game when the pause button is pressed
+     * Called before each frame is drawn when partial redraws are enabled (see {@link
+     * #setPartialRedraw(boolean)}). Report the bounds of everything that looks different than in
+     * the previous frame to <code>region</code>; only the part of the screen covered by those
+     * bounds (and the bounds reported for the previous frame) is redrawn. If nothing is reported,
+     * the frame is skipped.
+     * <p>
+     * By default the whole screen is redrawn every frame.
+     *
+     * @param lerp   interpolation factor, the same as for the following call to {@link
+     *               #render(double, Canvas, Paint)}
+     * @param region region to report bounds to
+     */
+    protected void reportDirty(double lerp, DirtyRegion region) {
+        region.invalidateAll();
+    }
+
+    /**
+     * Redraws the whole screen in the next frame, e.g. after something changed that isn't
+     * reported by {@link #reportDirty(double, DirtyRegion)}
+     */
+    protected void invalidateFrame() {
+        dirtyRegion.invalidateAll();
+    }
+
+    /**
+     * Sets whether frames only redraw the part of the screen that changed, see {@link
+     * #reportDirty(double, DirtyRegion)}
+     *
+     * @param partialRedraw true to redraw only what changed, false to redraw the whole screen
+     */
+    public void setPartialRedraw(boolean partialRedraw) {
+        dirtyRegion.invalidateAll();
+        this.partialRedraw = partialRedraw;
+    }
+
+    /**
+     * Sets whether the game is drawn at a lower resolution while frames take too long to draw. The
+     * resolution goes back up once frames are fast enough again.
+     *
+     * @param dynamicResolution true to lower the resolution under load, false to always draw at
+     *                          full resolution
+     */
+    public void setDynamicResolution(boolean dynamicResolution) {
+        this.dynamicResolution = dynamicResolution;
+        dirtyRegion.invalidateAll();
+    }
+
+    /**
+     * To pause the game when the pause button is pressed. While paused, the game loop {@link
+     * #thread} is blocked until the game is resumed or {@link #requestRerender()} is called.
      *
      * @param paused
      */
     public void setPaused(boolean paused) {
-        isPaused = paused;
+        stateLock.lock();
+        try {
+            isPaused = paused;
+            stateChanged.signalAll();
+        } finally {
+            stateLock.unlock();
+        }
+
+        Handler handler = renderHandler;
+        if (!paused && handler != null) {
+            handler.post(postFrame);
+        }
+    }
+
+    /**
+     * Draws a single frame while the game is paused, e.g. after the surface has been recreated.
+     * Has no effect when the game is not paused, since frames are drawn continuously.
+     */
+    public void requestRerender() {
+        dirtyRegion.invalidateAll();
+        stateLock.lock();
+        try {
+            rerenderRequested = true;
+            stateChanged.signalAll();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes up the game loop {@link #thread} so that it can react to {@link #running} changing.
+     */
+    private void signalStateChanged() {
+        stateLock.lock();
+        try {
+            stateChanged.signalAll();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Sets how the game is drawn. Takes effect the next time the surface is created.
+     *
+     * @param renderMode mode to use
+     */
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+    }
+
+    public FrameMetrics getFrameMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the game speed. Each update still advances the game by {@link #TIMESTEP}, but more
+     * updates are run per frame.
+     *
+     * @param speedMultiplier game speed, from {@link #MIN_SPEED} to {@link #MAX_SPEED}
+     * @throws IllegalArgumentException when <code>speedMultiplier</code> is out of range
+     */
+    public void setSpeedMultiplier(int speedMultiplier) {
+        if (speedMultiplier < MIN_SPEED || speedMultiplier > MAX_SPEED) {
+            throw new IllegalArgumentException("Invalid game speed '" + speedMultiplier + "'");
+        }
+        this.speedMultiplier = speedMultiplier;
     }
 
-    public void setDoubleSpeed(boolean doubleSpeed){
-        this.isDoubleSpeed = doubleSpeed;
+    public int getSpeedMultiplier() {
+        return speedMultiplier;
     }
 }
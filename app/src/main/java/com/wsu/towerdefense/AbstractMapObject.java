@@ -1,12 +1,10 @@
 package com.wsu.towerdefense;
 
-import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.PointF;
-import com.wsu.towerdefense.Model.Game;
+import com.wsu.towerdefense.Model.Simulation;
+import com.wsu.towerdefense.graphics.SpriteCache;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -14,45 +12,66 @@ import java.io.Serializable;
 
 /**
  * Base class for MapObjects, such as Tower and Enemy Objects
+ * <p>
+ * The image of an object is only decoded when it is first drawn, so that objects can be created
+ * and updated without a Context, e.g. in a headless {@link Simulation}. Sizes used by the game
+ * logic are plain data of each object type instead.
  */
 public abstract class AbstractMapObject implements Serializable {
 
+    /**
+     * Computed UID of the class that existing saves were written with
+     */
+    private static final long serialVersionUID = 991702021547905809L;
+
+    /**
+     * Scale of sprites on the screen the game is tuned for, relative to the sprite files. Also used
+     * by {@link com.wsu.towerdefense.Model.tower.Tower#BASE_SIZE}.
+     */
+    public static final float SPRITE_SCALE = 0.875f;
+
     /**
      * represents the location of the object on the screen
      */
-    protected transient PointF location;
+    protected transient Position location;
     /**
-     * represents the image/shape of the object
+     * represents the image/shape of the object, see {@link #getBitmap()}
      */
-    protected transient Bitmap bitmap;
+    private transient Bitmap bitmap;
 
     private final int resourceID;
 
-    public AbstractMapObject(Context context, PointF location, int resourceID) {
+    public AbstractMapObject(Position location, int resourceID) {
         this.location = location;
         this.resourceID = resourceID;
-        this.bitmap = Util.getBitmapByID(context, resourceID);
     }
 
     /**
-     * @param delta amount of time that has passed between updates
+     * @param simulation the Simulation this object belongs to
+     * @param delta      amount of time that has passed between updates
      */
-    protected abstract void update(Game game, double delta);
+    protected abstract void update(Simulation simulation, double delta);
 
     /**
      * @param lerp interpolation factor
      */
     protected abstract void render(double lerp, Canvas canvas, Paint paint);
 
-    public PointF getLocation() {
+    public Position getLocation() {
         return this.location;
     }
 
-    public void setLocation(PointF location) {
+    public void setLocation(Position location) {
         this.location = location;
     }
 
+    /**
+     * @return the image of this object, decoding it the first time
+     */
     public Bitmap getBitmap() {
+        if (this.bitmap == null) {
+            this.bitmap = SpriteCache.get(Application.context, this.resourceID);
+        }
         return this.bitmap;
     }
 
@@ -67,10 +86,6 @@ public abstract class AbstractMapObject implements Serializable {
         float x = in.readFloat();
         float y = in.readFloat();
 
-        this.bitmap = BitmapFactory.decodeResource(
-            Application.context.getResources(),
-            this.resourceID
-        );
-        this.location = new PointF(x, y);
+        this.location = new Position(x, y);
     }
 }
@@ -3,15 +3,33 @@ package com.wsu.towerdefense;
 import android.content.Context;
 import android.util.Log;
 import com.wsu.towerdefense.Model.tower.UpgradeReader;
+import com.wsu.towerdefense.audio.SfxEngine;
+import com.wsu.towerdefense.graphics.AtlasLoader;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONException;
 
 public class Application extends android.app.Application {
 
     public static final boolean DEBUG = false;
 
+    /**
+     * Number of threads loading assets, leaving a core for the main thread
+     */
+    private static final int ASSET_THREADS = Math.max(1,
+        Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long ASSET_THREAD_TIMEOUT_SECONDS = 5;
+
     public static Context context;
 
+    private static CompletableFuture<Void> assetsReady = CompletableFuture.completedFuture(null);
+
     @Override
     public void onCreate() {
         super.onCreate();
@@ -19,23 +37,72 @@ public class Application extends android.app.Application {
     }
 
     /**
-     * Run once per application
+     * Run once per application. Starts loading assets on a pool of worker threads, without
+     * waiting for them; screens that need assets wait for {@link #assetsReady()}.
      */
     private void init() {
         context = getApplicationContext();
+        StartupTrace.reset();
+        Settings.init(this);
+
+        // start decoding sound effects in the background
+        SfxEngine.getInstance(this);
+
+        ExecutorService executor = newAssetExecutor();
+
+        // initialize sprite atlases, before anything loads sprites
+        CompletableFuture<Void> atlases = CompletableFuture.runAsync(() -> {
+            try {
+                AtlasLoader.init(this);
+            } catch (IOException | JSONException e) {
+                Log.e(getString(R.string.logcatKey), "Error while initializing sprite atlases", e);
+            }
+        }, executor);
 
         // initialize maps
-        try {
-            MapReader.init(this);
-        } catch (IOException e) {
-            Log.e(getString(R.string.logcatKey), "Error while initializing maps", e);
-        }
-
-        // initialize upgrades
-        try {
-            UpgradeReader.init(this);
-        } catch (IOException e) {
-            Log.e(getString(R.string.logcatKey), "Error while initializing upgrades", e);
-        }
+        CompletableFuture<Void> maps = MapReader.init(this, executor)
+            .whenComplete((result, e) -> {
+                if (e != null) {
+                    Log.e(getString(R.string.logcatKey), "Error while initializing maps", e);
+                }
+            });
+
+        // initialize upgrades, which decode images from the atlases
+        CompletableFuture<Void> upgrades = UpgradeReader.init(this, executor, atlases)
+            .whenComplete((result, e) -> {
+                if (e != null) {
+                    Log.e(getString(R.string.logcatKey), "Error while initializing upgrades", e);
+                }
+            });
+
+        assetsReady = CompletableFuture.allOf(atlases, maps, upgrades)
+            // errors have been logged, missing assets are handled where they are used
+            .handle((result, e) -> null);
+        assetsReady.thenRun(() -> Log.i(getString(R.string.logcatKey),
+            "Loaded assets:\n" + StartupTrace.dump()));
+    }
+
+    /**
+     * Creates a bounded pool of worker threads for loading assets. Threads stop once they have
+     * been idle for a while, so the pool costs nothing after startup.
+     */
+    private static ExecutorService newAssetExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            ASSET_THREADS, ASSET_THREADS,
+            ASSET_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> new Thread(runnable, "AssetLoader-" + threadCount.incrementAndGet())
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return future that completes once maps, upgrades and sprite atlases have been loaded, on
+     * one of the loading threads. It never completes exceptionally.
+     */
+    public static CompletableFuture<Void> assetsReady() {
+        return assetsReady;
     }
 }
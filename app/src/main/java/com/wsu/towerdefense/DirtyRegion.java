@@ -0,0 +1,191 @@
+package com.wsu.towerdefense;
+
+/**
+ * Tracks which part of the screen has to be redrawn for the next frame. While a frame is prepared,
+ * everything whose appearance changes reports the bounds it will be drawn in with {@link #add(float,
+ * float, float, float)}. The area to redraw is the bounding box of those bounds and of the bounds
+ * reported for the previous frame, which covers both the new and the old position of anything that
+ * moved.
+ * <p>
+ * Objects that change without moving every frame (e.g. a range overlay that is hidden) must also
+ * report where they were drawn before the change, since they are not part of the previous frame's
+ * bounds. Anything that can't tell where it changes should call {@link #invalidateAll()}.
+ * <p>
+ * Bounds are only reported from the thread that renders the game, {@link #invalidateAll()} may be
+ * called from any thread.
+ */
+public class DirtyRegion {
+
+    /**
+     * Fraction of the screen above which a frame is redrawn entirely instead of partially
+     */
+    public static final float FULL_REDRAW_COVERAGE = 0.6f;
+
+    private int width;
+    private int height;
+    private volatile boolean full = true;
+
+    // bounds reported for the current and previous frame, empty when right <= left
+    private int curLeft, curTop, curRight, curBottom;
+    private int prevLeft, prevTop, prevRight, prevBottom;
+
+    // area to redraw for the current frame, set by prepare()
+    private int left, top, right, bottom;
+
+    /**
+     * Sets the size of the screen and invalidates it
+     */
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        invalidateAll();
+    }
+
+    /**
+     * Redraw the whole screen in the next frame
+     */
+    public void invalidateAll() {
+        full = true;
+    }
+
+    /**
+     * Reports that something is drawn within the given bounds in the current frame
+     */
+    public void add(float left, float top, float right, float bottom) {
+        int l = (int) Math.floor(left);
+        int t = (int) Math.floor(top);
+        int r = (int) Math.ceil(right);
+        int b = (int) Math.ceil(bottom);
+        if (r <= l || b <= t) {
+            return;
+        }
+
+        if (curRight <= curLeft) {
+            curLeft = l;
+            curTop = t;
+            curRight = r;
+            curBottom = b;
+        } else {
+            curLeft = Math.min(curLeft, l);
+            curTop = Math.min(curTop, t);
+            curRight = Math.max(curRight, r);
+            curBottom = Math.max(curBottom, b);
+        }
+    }
+
+    /**
+     * Reports that something is drawn within a rectangle centered on (<code>x</code>,
+     * <code>y</code>) in the current frame
+     */
+    public void addCentered(float x, float y, float halfWidth, float halfHeight) {
+        add(x - halfWidth, y - halfHeight, x + halfWidth, y + halfHeight);
+    }
+
+    /**
+     * Computes the area to redraw from the bounds reported for the current and previous frame.
+     *
+     * @return false if nothing has to be redrawn
+     */
+    public boolean prepare() {
+        // cleared before drawing, so that invalidations while the frame is drawn aren't lost
+        if (full) {
+            full = false;
+            left = 0;
+            top = 0;
+            right = width;
+            bottom = height;
+            return true;
+        }
+
+        boolean hasCur = curRight > curLeft;
+        boolean hasPrev = prevRight > prevLeft;
+        if (hasCur && hasPrev) {
+            left = Math.min(curLeft, prevLeft);
+            top = Math.min(curTop, prevTop);
+            right = Math.max(curRight, prevRight);
+            bottom = Math.max(curBottom, prevBottom);
+        } else if (hasCur) {
+            left = curLeft;
+            top = curTop;
+            right = curRight;
+            bottom = curBottom;
+        } else if (hasPrev) {
+            left = prevLeft;
+            top = prevTop;
+            right = prevRight;
+            bottom = prevBottom;
+        } else {
+            left = top = right = bottom = 0;
+            return false;
+        }
+
+        // clip to the screen
+        left = Math.max(left, 0);
+        top = Math.max(top, 0);
+        right = Math.min(right, width);
+        bottom = Math.min(bottom, height);
+        if (right <= left || bottom <= top) {
+            left = top = right = bottom = 0;
+            return false;
+        }
+
+        if (getCoverage() > FULL_REDRAW_COVERAGE) {
+            left = 0;
+            top = 0;
+            right = width;
+            bottom = height;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the bounds of the current frame to the previous frame once the frame has been drawn
+     *
+     * @param drawn false if the frame couldn't be drawn, in which case the next frame is redrawn
+     *              entirely
+     */
+    public void finishFrame(boolean drawn) {
+        if (!drawn) {
+            invalidateAll();
+        }
+
+        prevLeft = curLeft;
+        prevTop = curTop;
+        prevRight = curRight;
+        prevBottom = curBottom;
+        curLeft = curTop = curRight = curBottom = 0;
+    }
+
+    /**
+     * @return whether the area to redraw is the whole screen
+     */
+    public boolean isFullRedraw() {
+        return left == 0 && top == 0 && right == width && bottom == height;
+    }
+
+    /**
+     * @return fraction of the screen covered by the area to redraw
+     */
+    public float getCoverage() {
+        if (width <= 0 || height <= 0) {
+            return 1;
+        }
+        return (float) (right - left) * (bottom - top) / ((float) width * height);
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+}
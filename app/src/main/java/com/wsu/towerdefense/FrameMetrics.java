@@ -0,0 +1,169 @@
+package com.wsu.towerdefense;
+
+/**
+ * Frame statistics collected by {@link AbstractGame}. Values are written by the thread that renders
+ * the game and may be read from any thread, e.g. to draw debug info.
+ */
+public class FrameMetrics {
+
+    /**
+     * A vsync is considered missed when the time between two frames exceeds this many vsync
+     * periods
+     */
+    private static final double DROP_THRESHOLD = 1.5;
+    /**
+     * Length of the window over which the achieved game speed is measured, in nanoseconds
+     */
+    private static final long SPEED_WINDOW_NANOS = 500_000_000L;
+
+    private volatile long framesRendered = 0;
+    private volatile long droppedFrames = 0;
+    private volatile long duplicatedFrames = 0;
+    private volatile double achievedSpeed = 1;
+    private volatile long skippedFrames = 0;
+    private volatile float redrawnFraction = 1;
+    private volatile double renderMillis = 0;
+    private volatile float renderScale = 1;
+
+    // only accessed from the game loop thread
+    private long windowRealNanos = 0;
+    private long windowGameNanos = 0;
+
+    // only accessed from the render thread
+    private long previousFrameNanos = -1;
+    private long previousStep = -1;
+
+    /**
+     * Records a frame drawn in response to a vsync callback.
+     *
+     * @param frameTimeNanos vsync timestamp of the frame, in nanoseconds
+     * @param vsyncPeriod    time between two vsyncs, in nanoseconds
+     * @param step           number of game updates that have run so far
+     */
+    public void onVsyncFrame(long frameTimeNanos, long vsyncPeriod, long step) {
+        if (previousFrameNanos >= 0) {
+            // vsyncs that passed without a frame being drawn
+            long missed = Math.round((double) (frameTimeNanos - previousFrameNanos) / vsyncPeriod) - 1;
+            if (frameTimeNanos - previousFrameNanos > vsyncPeriod * DROP_THRESHOLD && missed > 0) {
+                droppedFrames += missed;
+            }
+
+            // no game update happened since the previous frame, so it shows the same game state
+            if (step == previousStep) {
+                duplicatedFrames++;
+            }
+        }
+
+        previousFrameNanos = frameTimeNanos;
+        previousStep = step;
+        framesRendered++;
+    }
+
+    /**
+     * Records a frame drawn by the game loop.
+     */
+    public void onLoopFrame() {
+        framesRendered++;
+    }
+
+    /**
+     * Records a frame that wasn't drawn because nothing changed since the previous frame.
+     */
+    public void onSkippedFrame() {
+        skippedFrames++;
+        redrawnFraction = 0;
+    }
+
+    /**
+     * Records the part of the screen that was redrawn in a frame.
+     *
+     * @param fraction fraction of the screen area that was redrawn, 1 for a full redraw
+     */
+    public void onRedraw(float fraction) {
+        redrawnFraction = fraction;
+    }
+
+    /**
+     * Records how long frames take to draw and the resolution they are drawn at.
+     *
+     * @param averageNanos average time spent drawing a frame, in nanoseconds
+     * @param scale        fraction of the screen resolution the latest frame was drawn at
+     */
+    public void onRenderTime(double averageNanos, float scale) {
+        renderMillis = averageNanos / 1_000_000;
+        renderScale = scale;
+    }
+
+    /**
+     * Records a batch of game updates.
+     *
+     * @param realNanos real time that passed since the previous batch, in nanoseconds
+     * @param gameNanos game time that was simulated, in nanoseconds
+     */
+    public void onUpdates(long realNanos, long gameNanos) {
+        windowRealNanos += realNanos;
+        windowGameNanos += gameNanos;
+
+        if (windowRealNanos >= SPEED_WINDOW_NANOS) {
+            achievedSpeed = (double) windowGameNanos / windowRealNanos;
+            windowRealNanos = 0;
+            windowGameNanos = 0;
+        }
+    }
+
+    /**
+     * Forget the previous frame, e.g. after the game was paused, so that the time in between is
+     * not counted as dropped frames.
+     */
+    public void restart() {
+        previousFrameNanos = -1;
+        previousStep = -1;
+    }
+
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public long getDuplicatedFrames() {
+        return duplicatedFrames;
+    }
+
+    /**
+     * @return frames that weren't drawn because nothing changed
+     */
+    public long getSkippedFrames() {
+        return skippedFrames;
+    }
+
+    /**
+     * @return fraction of the screen area redrawn in the latest frame, 0 if it was skipped
+     */
+    public float getRedrawnFraction() {
+        return redrawnFraction;
+    }
+
+    /**
+     * @return average time spent drawing a frame, in milliseconds
+     */
+    public double getRenderMillis() {
+        return renderMillis;
+    }
+
+    /**
+     * @return fraction of the screen resolution the latest frame was drawn at
+     */
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * @return game time simulated per unit of real time, measured over the last half second
+     */
+    public double getAchievedSpeed() {
+        return achievedSpeed;
+    }
+}
@@ -0,0 +1,117 @@
+package com.wsu.towerdefense;
+
+/**
+ * Keeps track of time for a fixed timestep game loop. Time is measured in nanoseconds (from {@link
+ * System#nanoTime()}) and accumulated until it can be consumed in whole steps.
+ * <p>
+ * Game speed is changed with {@link #setSpeed(int)}, which scales the time that is accumulated. The
+ * length of a step stays the same, so a faster game runs more steps instead of longer ones.
+ * <p>
+ * The amount of time that can be accumulated is capped at {@link #maxCatchUpSteps} steps. When the
+ * loop stalls for longer than that (e.g. garbage collection, the app being minimized), the extra
+ * time is dropped instead of being simulated all at once, which would stall the loop even further.
+ */
+public class FramePacer {
+
+    private final long stepNanos;
+    private final int maxCatchUpSteps;
+
+    private int speed = 1;
+    private long previous;
+    /**
+     * Accumulated (unprocessed) game time
+     */
+    private long acc;
+    private long droppedNanos;
+
+    /**
+     * @param stepNanos       length of a single update step, in nanoseconds
+     * @param maxCatchUpSteps maximum number of steps that can be run to catch up after a stall
+     */
+    public FramePacer(long stepNanos, int maxCatchUpSteps) {
+        if (stepNanos <= 0 || maxCatchUpSteps <= 0) {
+            throw new IllegalArgumentException("Step length and catch-up limit must be positive");
+        }
+        this.stepNanos = stepNanos;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Restart timing from <code>now</code>, discarding any accumulated time. Used when the loop
+     * starts or resumes after being blocked.
+     *
+     * @param now current time, in nanoseconds
+     */
+    public void reset(long now) {
+        previous = now;
+        acc = 0;
+    }
+
+    /**
+     * Accumulate the time passed since the previous call and consume it in whole steps.
+     *
+     * @param now current time, in nanoseconds
+     * @return number of update steps that are due
+     */
+    public int advance(long now) {
+        acc += (now - previous) * speed;
+        previous = now;
+
+        long maxAcc = stepNanos * maxCatchUpSteps * speed;
+        if (acc > maxAcc) {
+            droppedNanos += acc - maxAcc;
+            acc = maxAcc;
+        }
+
+        int steps = (int) (acc / stepNanos);
+        acc -= steps * stepNanos;
+        return steps;
+    }
+
+    /**
+     * @return amount of unprocessed time, normalized to 0.0 and 1.0
+     */
+    public double alpha() {
+        return (double) acc / stepNanos;
+    }
+
+    /**
+     * @return time at which the next update step is due, in nanoseconds
+     */
+    public long nextStepDeadline() {
+        return previous + (stepNanos - acc + speed - 1) / speed;
+    }
+
+    /**
+     * @return time that the game state corresponds to after all due steps have run, in
+     * nanoseconds
+     */
+    public long simulatedUntil() {
+        return previous - acc / speed;
+    }
+
+    /**
+     * @param speed number of steps run per step length of real time
+     */
+    public void setSpeed(int speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Speed must be positive");
+        }
+        this.speed = speed;
+    }
+
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * @return total amount of game time dropped because of the catch-up limit, in nanoseconds
+     */
+    public long getDroppedNanos() {
+        return droppedNanos;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+}
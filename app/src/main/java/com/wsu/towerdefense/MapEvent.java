@@ -1,6 +1,5 @@
 package com.wsu.towerdefense;
 
-import com.wsu.towerdefense.Model.Enemy;
 import com.wsu.towerdefense.Model.tower.Tower;
 
 public abstract class MapEvent {
@@ -16,14 +15,10 @@ public abstract class MapEvent {
 
     public static class RemoveTower extends MapEvent {
 
-    }
-
-    public static class SpawnEnemy extends MapEvent {
-
-        public final Enemy enemy;
+        public final Tower tower;
 
-        public SpawnEnemy(Enemy enemy) {
-            this.enemy = enemy;
+        public RemoveTower(Tower tower) {
+            this.tower = tower;
         }
     }
 }
@@ -1,17 +1,23 @@
 package com.wsu.towerdefense;
 
 import android.content.Context;
-import android.graphics.PointF;
 import android.util.Log;
 import com.wsu.towerdefense.map.AbstractMap;
 import com.wsu.towerdefense.map.Map;
+import com.wsu.towerdefense.map.MapPath;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -29,50 +35,96 @@ public class MapReader {
 
     private static final String MAPS_DIR = "maps";
 
-    private static final java.util.Map<String, AbstractMap> maps = new HashMap<>();
+    private static final java.util.Map<String, AbstractMap> maps = new ConcurrentHashMap<>();
+    private static CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
 
     /**
-     * Reads all maps from disk and stores them in {@link #maps}
+     * Reads all maps from disk and stores them in {@link #maps}. Each file is read on
+     * <code>executor</code>.
      *
-     * @throws IOException when 'assets/maps/' directory can't be read
+     * @return future that completes once every file has been read, or completes exceptionally
+     * with an {@link IOException} when 'assets/maps/' directory can't be read
      */
-    public static void init(Context context) throws IOException {
-        String[] files = context.getAssets().list(MAPS_DIR);
-        for (String fileName : files) {
+    public static CompletableFuture<Void> init(Context context, Executor executor) {
+        ready = CompletableFuture.supplyAsync(() -> {
             try {
-                Log.i(context.getString(R.string.logcatKey), "Found map file '" + fileName + "'");
-                String data = Util.readFile(context, MAPS_DIR + "/" + fileName);
-
-                String mapName = fileName.substring(0, fileName.lastIndexOf('.'));
-
-                AbstractMap map = parseMap(context, mapName, data);
-                maps.put(mapName, map);
-                Log.i(context.getString(R.string.logcatKey), "Registered map '" + mapName + "'");
-            } catch (IOException | JSONException | IllegalArgumentException e) {
-                Log.e(context.getString(R.string.logcatKey),
-                    "Error while reading map file '" + fileName + "'"
-                    , e);
+                return context.getAssets().list(MAPS_DIR);
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
+        }, executor).thenCompose(files -> CompletableFuture.allOf(Arrays.stream(files)
+            .map(fileName -> CompletableFuture.runAsync(() -> readMap(context, fileName), executor))
+            .toArray(CompletableFuture[]::new)
+        ));
+        return ready;
+    }
+
+    private static void readMap(Context context, String fileName) {
+        String path = MAPS_DIR + "/" + fileName;
+        try {
+            Log.i(context.getString(R.string.logcatKey), "Found map file '" + fileName + "'");
+            long start = StartupTrace.begin();
+            String data = Util.readFile(context, path);
+            StartupTrace.end(path, StartupTrace.Phase.READ, start);
+
+            String mapName = fileName.substring(0, fileName.lastIndexOf('.'));
+
+            start = StartupTrace.begin();
+            AbstractMap map = parseMap(context, mapName, data);
+            StartupTrace.end(path, StartupTrace.Phase.PARSE, start);
+            maps.put(mapName, map);
+            Log.i(context.getString(R.string.logcatKey), "Registered map '" + mapName + "'");
+        } catch (IOException | JSONException | IllegalArgumentException e) {
+            Log.e(context.getString(R.string.logcatKey),
+                "Error while reading map file '" + fileName + "'"
+                , e);
         }
     }
 
     /**
-     * Get the {@link Map} with the corresponding <code>name</code>
+     * @return future that completes once all maps have been read
+     */
+    public static CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /**
+     * Blocks until {@link #init} is done. Errors have already been logged, maps that failed to
+     * load are missing.
+     */
+    private static void awaitReady() {
+        try {
+            ready.join();
+        } catch (CompletionException e) {
+            // logged by the caller of init
+        }
+    }
+
+    /**
+     * Get the {@link Map} with the corresponding <code>name</code>, waiting for maps to be read
      *
      * @param name name of the map to get
      * @return corresponding {@link Map}
      * @throws IllegalArgumentException when map called <code>name</code> cannot be found
      */
     public static AbstractMap get(String name) {
-        if (maps.containsKey(name)) {
-            return maps.get(name);
+        awaitReady();
+        AbstractMap map = maps.get(name);
+        if (map != null) {
+            return map;
         } else {
             throw new IllegalArgumentException("Invalid map '" + name + "'");
         }
     }
 
+    /**
+     * @return all maps, sorted by name, waiting for maps to be read
+     */
     public static Collection<AbstractMap> getMaps() {
-        return maps.values();
+        awaitReady();
+        List<AbstractMap> sorted = new ArrayList<>(maps.values());
+        Collections.sort(sorted, Comparator.comparing(AbstractMap::getName));
+        return sorted;
     }
 
     /**
@@ -91,21 +143,7 @@ public class MapReader {
 
         String displayName = json.getString("displayName");
         String imageName = json.getString("image");
-        float pathRadius = (float) json.getDouble("pathRadius");
-
-        List<PointF> pathList = new ArrayList<>();
-
-        JSONArray path = json.getJSONArray("path");
-        for (int i = 0; i < path.length(); i++) {
-            JSONObject point = (JSONObject) path.get(i);
-            float x = (float) point.getDouble("x");
-            float y = (float) point.getDouble("y");
-            pathList.add(new PointF(x, y));
-        }
-
-        if (pathList.size() < 2) {
-            throw new IllegalArgumentException("Map path must have at least two points");
-        }
+        MapPath path = parsePath(json);
 
         int imageID = context.getResources().getIdentifier(
             imageName,
@@ -116,6 +154,35 @@ public class MapReader {
             throw new FileNotFoundException("Map image not found");
         }
 
-        return new AbstractMap(context, name, displayName, imageID, pathList, pathRadius);
+        return new AbstractMap(context, name, displayName, imageID, path);
+    }
+
+    /**
+     * Parse the path of a map from a JSON string, without a Context or the map image, e.g. to run a
+     * headless {@link com.wsu.towerdefense.Model.Simulation}
+     *
+     * @param data JSON string of the map
+     * @return normalized path of the map, see {@link MapPath#scale(int, int)}
+     * @throws JSONException            when JSON cannot be parsed
+     * @throws IllegalArgumentException when the path is invalid
+     */
+    public static MapPath parsePath(String data) throws JSONException, IllegalArgumentException {
+        return parsePath(new JSONObject(data));
+    }
+
+    private static MapPath parsePath(JSONObject json)
+        throws JSONException, IllegalArgumentException {
+        float pathRadius = (float) json.getDouble("pathRadius");
+
+        JSONArray path = json.getJSONArray("path");
+        float[] xs = new float[path.length()];
+        float[] ys = new float[path.length()];
+        for (int i = 0; i < path.length(); i++) {
+            JSONObject point = (JSONObject) path.get(i);
+            xs[i] = (float) point.getDouble("x");
+            ys[i] = (float) point.getDouble("y");
+        }
+
+        return new MapPath(xs, ys, pathRadius);
     }
 }
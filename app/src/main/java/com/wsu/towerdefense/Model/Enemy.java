@@ -1,50 +1,59 @@
 package com.wsu.towerdefense.Model;
 
-import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.PointF;
 import com.wsu.towerdefense.AbstractMapObject;
+import com.wsu.towerdefense.Application;
+import com.wsu.towerdefense.Position;
+import com.wsu.towerdefense.DirtyRegion;
 import com.wsu.towerdefense.R;
-import com.wsu.towerdefense.Util;
-import java.util.List;
-import java.util.ListIterator;
+import com.wsu.towerdefense.graphics.SpriteBatch;
+import com.wsu.towerdefense.graphics.SpriteCache;
+import com.wsu.towerdefense.map.PathMetrics;
 
 public class Enemy extends AbstractMapObject {
 
     public enum Type {
         // Standard enemy types
-        S1(200, 20, 14, 1, false, R.mipmap.standard_slime_1, -1),
-        S2(250, 30, 18, 2, false, R.mipmap.standard_slime_2, -1),
-        S3(350, 30 , 25, 3, false, R.mipmap.standard_slime_3, -1),
+        S1(200, 20, 14, 1, false, 103, 82, R.mipmap.standard_slime_1, -1),
+        S2(250, 30, 18, 2, false, 107, 85, R.mipmap.standard_slime_2, -1),
+        S3(350, 30 , 25, 3, false, 107, 85, R.mipmap.standard_slime_3, -1),
 
         // Armored enemy types
-        A1(100, 40, 20, 1, false, R.mipmap.armored_slime_1, R.mipmap.armor_1),
-        A2(100, 150, 25, 2, false, R.mipmap.armored_slime_2, R.mipmap.armor_2),
-        A3(50, 300, 40, 3, false, R.mipmap.armored_slime_3, R.mipmap.armor_3),
+        A1(100, 40, 20, 1, false, 105, 82, R.mipmap.armored_slime_1, R.mipmap.armor_1),
+        A2(100, 150, 25, 2, false, 115, 82, R.mipmap.armored_slime_2, R.mipmap.armor_2),
+        A3(50, 300, 40, 3, false, 111, 82, R.mipmap.armored_slime_3, R.mipmap.armor_3),
 
         // Invisible enemy types
-        I1(200, 20, 15, 1, true, R.mipmap.invisible_slime_1, -1),
-        I2(300, 20, 20, 2, true, R.mipmap.invisible_slime_2, -1),
-        I3(200, 50, 35, 3, true, R.mipmap.invisible_slime_3, -1);
+        I1(200, 20, 15, 1, true, 103, 82, R.mipmap.invisible_slime_1, -1),
+        I2(300, 20, 20, 2, true, 103, 82, R.mipmap.invisible_slime_2, -1),
+        I3(200, 50, 35, 3, true, 103, 82, R.mipmap.invisible_slime_3, -1);
         
         final float speed;
         final int hp;
         final int price;
         final int damage;
         final boolean invisible;
+        /**
+         * Size of the hitbox, which is the size of the image file scaled by {@link
+         * AbstractMapObject#SPRITE_SCALE}
+         */
+        final float width;
+        final float height;
         final int resource;
         final int armorResource;
 
-        Type(float speed, int hp, int price, int damage, boolean invisible, int resource,
-            int armorResource) {
+        Type(float speed, int hp, int price, int damage, boolean invisible, int width, int height,
+            int resource, int armorResource) {
             this.speed = speed;
             this.hp = hp;
             this.price = price;
             this.damage = damage;
             this.invisible = invisible;
+            this.width = width * SPRITE_SCALE;
+            this.height = height * SPRITE_SCALE;
             this.resource = resource;
             this.armorResource = armorResource;
         }
@@ -52,6 +61,18 @@ public class Enemy extends AbstractMapObject {
         public int getDamage() {
             return this.damage;
         }
+
+        public float getWidth() {
+            return this.width;
+        }
+
+        public float getHeight() {
+            return this.height;
+        }
+
+        public int getResource() {
+            return this.resource;
+        }
     }
 
     private static final float HEALTH_BAR_Y_OFFSET = -70;
@@ -66,58 +87,99 @@ public class Enemy extends AbstractMapObject {
     private boolean isAlive;
     private boolean hasBeenKilled = false;
     private final boolean isInvisible;
+    /**
+     * Half the size of the hitbox
+     */
+    private final float halfWidth;
+    private final float halfHeight;
 
     private float velX;
     private float velY;
 
-    private final ListIterator<PointF> path;
+    private final PathMetrics path;
+    /**
+     * Distance travelled along the path
+     */
+    private float distance;
+    /**
+     * Segment of the path that contains {@link #distance}
+     */
+    private int segment;
     private boolean isAtPathEnd;
-    private PointF target;
 
-    private Bitmap armor;
+    /**
+     * Whether this Enemy still has the armor of its type
+     */
+    private boolean hasArmor;
+    /**
+     * Image of the armor, decoded when it is first drawn
+     */
+    private Bitmap armorBitmap = null;
 
     private double slowTime = 0.0;
     private float speed;
 
+    /**
+     * Incremented every time this Enemy is reset, so that objects holding on to an Enemy can tell
+     * when it has been reused for a new spawn
+     */
+    private int generation = 0;
+
     /**
      * An Enemy is a movable Map object. Enemies will move along a predetermined path defined by the
      * Map they are placed on. They will continue moving along the path until they reach the end or
      * are killed by a Projectile.
      *
-     * @param path A List of Points for the current location to move towards
+     * @param path The path to move along
      * @param type enum containing information which will be consistent across all enemies of the
      *             same type (speed, hp, price, resource)
      */
-    public Enemy(Context context, Type type, List<PointF> path) {
-        super(context, path.get(0), type.resource);
+    public Enemy(Type type, PathMetrics path) {
+        super(new Position(path.getPointX(0), path.getPointY(0)), type.resource);
 
         this.type = type;
-        this.path = path.listIterator();
+        this.path = path;
+
+        this.isInvisible = type.invisible;
+        this.halfWidth = type.width / 2f;
+        this.halfHeight = type.height / 2f;
+
+        reset();
+    }
+
+    /**
+     * Puts this Enemy back at the start of its path with full health, as if it had just been
+     * created. Used to reuse pooled enemies.
+     */
+    public void reset() {
+        this.location.set(path.getPointX(0), path.getPointY(0));
         this.hp = type.hp;
 
-        this.target = this.path.next();
+        this.distance = 0;
+        this.segment = 0;
         this.isAlive = true;
-        this.isInvisible = type.invisible;
+        this.hasBeenKilled = false;
         this.isAtPathEnd = false;
         this.velX = 0;
         this.velY = 0;
 
-        this.armor = (type.armorResource == -1) ? null : Util.getBitmapByID(context, type.armorResource);
+        this.hasArmor = type.armorResource != -1;
+        this.slowTime = 0.0;
         this.speed = type.speed;
+        this.generation++;
     }
 
     /**
      * Updates the Enemy's location based on the Enemy's velocity and the change in time since the
      * location was last updated.
      *
-     * @param game  the Game object this Enemy belongs to
-     * @param delta amount of time that has passed between updates
+     * @param simulation the Simulation this Enemy belongs to
+     * @param delta      amount of time that has passed between updates
      */
     @Override
-    public void update(Game game, double delta) {
-        // Moves this Enemy to its next location using velocity and delta. If enemy will be at or past
-        // target, and there are more Points in path, set location to target instead and set target to
-        // next Point in path.
+    public void update(Simulation simulation, double delta) {
+        // Moves this Enemy along its path by speed and delta, and derives its location from the
+        // distance travelled.
 
         // Update the time left for this Enemy to be slowed
         if (slowTime > 0) {
@@ -126,29 +188,19 @@ public class Enemy extends AbstractMapObject {
             } else {
                 slowTime = 0.0;
                 speed = type.speed;
-                updateVelocity();
             }
         }
 
-        //check if distance between location and target is less than or equal to distance between
-        //location and next location, and there are more Points int path
-        double distance = Math.hypot(location.x - target.x, location.y - target.y);
-
-        if (distance <= Math.abs(speed * delta)) {
-            if (path.hasNext()) {
-                //set location to target, and update target
-                location = new PointF(target.x, target.y);
-                target = path.next();
-
-                updateVelocity();
-            } else {
-                // If there are no more points in the path
-                isAtPathEnd = true;
-            }
+        distance += (float) (speed * delta);
+        if (distance >= path.getLength()) {
+            // If there are no more points in the path
+            distance = path.getLength();
+            isAtPathEnd = true;
         }
 
-        // get new location based on velocity values and current location
-        this.location = Util.getNewLoc(this.location, this.velX, this.velY, delta);
+        segment = path.segmentAt(distance, segment);
+        path.getLocation(distance, segment, location);
+        updateVelocity();
     }
 
     /**
@@ -162,6 +214,7 @@ public class Enemy extends AbstractMapObject {
     @Override
     public void render(double lerp, Canvas canvas, Paint paint) {
         if (hp > 0) {
+            Bitmap bitmap = getBitmap();
             float x = (float) Math.round(location.x + velX * lerp);
             float y = (float) Math.round(location.y + velY * lerp);
 
@@ -170,8 +223,8 @@ public class Enemy extends AbstractMapObject {
                 y - bitmap.getHeight() / 2f, null);
 
             // Draw Enemy armor, if present
-            if (armor != null) {
-                canvas.drawBitmap(armor, x - bitmap.getWidth() / 2f,
+            if (hasArmor) {
+                canvas.drawBitmap(getArmorBitmap(), x - bitmap.getWidth() / 2f,
                     y - bitmap.getHeight() / 2f, null);
             }
 
@@ -201,6 +254,77 @@ public class Enemy extends AbstractMapObject {
         }
     }
 
+    /**
+     * Adds this Enemy's image, armor and health bar to a batch, interpolating changes in position
+     * like {@link #render(double, Canvas, Paint)}
+     *
+     * @param lerp  interpolation factor
+     * @param batch batch to add to
+     */
+    public void render(double lerp, SpriteBatch batch) {
+        if (hp > 0) {
+            float x = (float) Math.round(location.x + velX * lerp);
+            float y = (float) Math.round(location.y + velY * lerp);
+            Bitmap bitmap = getBitmap();
+            float left = x - bitmap.getWidth() / 2f;
+            float top = y - bitmap.getHeight() / 2f;
+
+            batch.draw(bitmap, left, top);
+            if (hasArmor) {
+                batch.draw(getArmorBitmap(), left, top);
+            }
+
+            // show health bar if damaged
+            if (this.hp < this.type.hp) {
+                float remainingHealth = (float) this.hp / this.type.hp;
+                batch.fillRect(
+                    x - HEALTH_BAR_WIDTH / 2,
+                    y + HEALTH_BAR_Y_OFFSET,
+                    x + HEALTH_BAR_WIDTH / 2,
+                    y + HEALTH_BAR_Y_OFFSET + HEALTH_BAR_HEIGHT,
+                    HEALTH_BAR_BG_COLOR
+                );
+                batch.fillRect(
+                    x - HEALTH_BAR_WIDTH / 2,
+                    y + HEALTH_BAR_Y_OFFSET,
+                    x - HEALTH_BAR_WIDTH / 2 + remainingHealth * HEALTH_BAR_WIDTH,
+                    y + HEALTH_BAR_Y_OFFSET + HEALTH_BAR_HEIGHT,
+                    HEALTH_BAR_FG_COLOR
+                );
+            }
+        }
+    }
+
+    /**
+     * Reports the area this Enemy is drawn in, including its armor and health bar
+     *
+     * @param lerp   interpolation factor
+     * @param region region to report to
+     */
+    public void reportBounds(double lerp, DirtyRegion region) {
+        if (hp > 0) {
+            float x = (float) Math.round(location.x + velX * lerp);
+            float y = (float) Math.round(location.y + velY * lerp);
+            Bitmap bitmap = getBitmap();
+            float left = x - bitmap.getWidth() / 2f;
+            float top = y - bitmap.getHeight() / 2f;
+
+            region.add(left, top, left + bitmap.getWidth(), top + bitmap.getHeight());
+            if (hasArmor) {
+                Bitmap armor = getArmorBitmap();
+                region.add(left, top, left + armor.getWidth(), top + armor.getHeight());
+            }
+            if (this.hp < this.type.hp) {
+                region.add(
+                    x - HEALTH_BAR_WIDTH / 2,
+                    y + HEALTH_BAR_Y_OFFSET,
+                    x + HEALTH_BAR_WIDTH / 2,
+                    y + HEALTH_BAR_Y_OFFSET + HEALTH_BAR_HEIGHT
+                );
+            }
+        }
+    }
+
     /**
      * A method to determine whether or not a given hitbox collides with the Enemy's hitbox.
      *
@@ -211,26 +335,44 @@ public class Enemy extends AbstractMapObject {
      * @return true if the given hitbox overlaps the Enemy's hitbox
      */
     public boolean collides(float x, float y, float width, float height) {
-        return x - width / 2 <= this.location.x + bitmap.getWidth() / 2f &&
-            x + width / 2 >= this.location.x - bitmap.getWidth() / 2f &&
-            y - height / 2 <= this.location.y + bitmap.getHeight() / 2f &&
-            y + height / 2 >= this.location.y - bitmap.getHeight() / 2f;
+        return x - width / 2 <= this.location.x + halfWidth &&
+            x + width / 2 >= this.location.x - halfWidth &&
+            y - height / 2 <= this.location.y + halfHeight &&
+            y + height / 2 >= this.location.y - halfHeight;
+    }
+
+    public float getHalfWidth() {
+        return halfWidth;
+    }
+
+    public float getHalfHeight() {
+        return halfHeight;
     }
 
     public void hitByProjectile(Projectile projectile) {
         if (projectile.type.slowRate < 1.0) {
             slow(projectile);
         }
-        if (armor == null) {
+        if (!hasArmor) {
             hp -= (int) projectile.getEffectiveDamage();
             if (hp <= 0) {
                 isAlive = false;
             }
         } else if (projectile.type.armorPiercing) {
-            armor = null;
+            hasArmor = false;
         }
     }
 
+    /**
+     * @return the image of the armor of this Enemy's type, decoding it the first time
+     */
+    private Bitmap getArmorBitmap() {
+        if (armorBitmap == null) {
+            armorBitmap = SpriteCache.get(Application.context, type.armorResource);
+        }
+        return armorBitmap;
+    }
+
     /**
      * Reduces this Enemy's speed for the time and amount specified by the projectile passed
      *
@@ -240,14 +382,20 @@ public class Enemy extends AbstractMapObject {
         if (projectile.getSlowTime() > slowTime) {
             slowTime = projectile.getSlowTime();
             speed = (float) (type.speed * projectile.getSlowRate());
-            updateVelocity();
         }
     }
 
+    /**
+     * Velocity is only used to interpolate rendering, movement itself follows the path
+     */
     private void updateVelocity() {
-        PointF newVel = Util.velocityTowardsPoint(this.location, this.target, speed);
-        this.velX = newVel.x;
-        this.velY = newVel.y;
+        if (isAtPathEnd) {
+            this.velX = 0;
+            this.velY = 0;
+        } else {
+            this.velX = path.getDirectionX(segment) * speed;
+            this.velY = path.getDirectionY(segment) * speed;
+        }
     }
 
     public boolean isAlive() {
@@ -258,6 +406,14 @@ public class Enemy extends AbstractMapObject {
         return this.isAtPathEnd;
     }
 
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getHp() {
+        return this.hp;
+    }
+
     public int getPrice() {
         return this.type.price;
     }
@@ -270,8 +426,12 @@ public class Enemy extends AbstractMapObject {
         this.velY = velY;
     }
 
-    public PointF getTarget() {
-        return target;
+    /**
+     * @return distance travelled along the path, in pixels. Enemies further along the path have a
+     * higher progress.
+     */
+    public float getProgress() {
+        return distance;
     }
 
     public Type getType() {
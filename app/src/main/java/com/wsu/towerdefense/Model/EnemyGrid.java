@@ -0,0 +1,330 @@
+package com.wsu.towerdefense.Model;
+
+import com.wsu.towerdefense.Model.tower.Tower.TargetMode;
+import com.wsu.towerdefense.Position;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A uniform grid of enemies, used to find enemies near a point without checking every enemy. Shared
+ * by towers looking for targets and projectiles looking for collisions. Targets are compared by
+ * their current path progress and HP.
+ * <p>
+ * The grid is rebuilt from the enemy list once per update with {@link #rebuild(List, int, int)},
+ * and indexes enemies by their position in that list. Enemies outside of the game area are put in
+ * the nearest cell on the edge of the grid. Each cell is also kept sorted by progress, so that the
+ * first or last enemy in range is found without checking every enemy in the cells it overlaps.
+ */
+public class EnemyGrid {
+
+    private final float cellSize;
+
+    private List<Enemy> enemies = Collections.emptyList();
+    private int cols = 0;
+    private int rows = 0;
+    /**
+     * Enemies in cell <code>c</code> are <code>items[cellStart[c]]</code> up to (excluding)
+     * <code>items[cellStart[c + 1]]</code>, in list order
+     */
+    private int[] cellStart = new int[1];
+    private int[] items = new int[0];
+    /**
+     * Same cells as {@link #items}, sorted by descending progress within each cell. Enemies with
+     * the same progress stay in list order.
+     */
+    private int[] itemsByProgress = new int[0];
+    /**
+     * Progress of each enemy when the grid was rebuilt
+     */
+    private float[] progress = new float[0];
+    private int[] cellOf = new int[0];
+    private int[] next = new int[0];
+    /**
+     * Largest hitbox of any indexed enemy, which limits how far from its cell an enemy can be hit
+     */
+    private float maxHalfWidth = 0;
+    private float maxHalfHeight = 0;
+
+    /**
+     * @param cellSize width and height of a cell, in pixels
+     */
+    public EnemyGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Indexes the current location of every enemy. Must be called again whenever enemies move or
+     * the list changes.
+     *
+     * @param enemies list of enemies to index
+     * @param width   width of the game area, in pixels
+     * @param height  height of the game area, in pixels
+     */
+    public void rebuild(List<Enemy> enemies, int width, int height) {
+        this.enemies = enemies;
+
+        int cols = Math.max(1, (int) Math.ceil(width / cellSize));
+        int rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        int cells = cols * rows;
+        if (cells + 1 != cellStart.length) {
+            cellStart = new int[cells + 1];
+            next = new int[cells];
+        } else {
+            Arrays.fill(cellStart, 0);
+        }
+        this.cols = cols;
+        this.rows = rows;
+
+        int n = enemies.size();
+        if (items.length < n) {
+            int capacity = Math.max(n, items.length * 2);
+            items = new int[capacity];
+            itemsByProgress = new int[capacity];
+            progress = new float[capacity];
+            cellOf = new int[capacity];
+        }
+
+        maxHalfWidth = 0;
+        maxHalfHeight = 0;
+
+        // counting sort by cell, which keeps enemies in list order within each cell
+        for (int i = 0; i < n; i++) {
+            Enemy e = enemies.get(i);
+            maxHalfWidth = Math.max(maxHalfWidth, e.getHalfWidth());
+            maxHalfHeight = Math.max(maxHalfHeight, e.getHalfHeight());
+
+            progress[i] = e.getProgress();
+            Position loc = e.getLocation();
+            int cell = row(loc.y) * cols + col(loc.x);
+            cellOf[i] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        System.arraycopy(cellStart, 0, next, 0, cells);
+        for (int i = 0; i < n; i++) {
+            items[next[cellOf[i]]++] = i;
+        }
+
+        System.arraycopy(items, 0, itemsByProgress, 0, n);
+        for (int c = 0; c < cells; c++) {
+            sortByProgress(cellStart[c], cellStart[c + 1]);
+        }
+    }
+
+    /**
+     * Stable insertion sort of <code>itemsByProgress[from]</code> up to (excluding)
+     * <code>itemsByProgress[to]</code> by descending progress. Enemies earlier in the list were
+     * usually spawned earlier and are further along, so cells are already close to sorted.
+     */
+    private void sortByProgress(int from, int to) {
+        for (int k = from + 1; k < to; k++) {
+            int i = itemsByProgress[k];
+            int j = k - 1;
+            while (j >= from && progress[itemsByProgress[j]] < progress[i]) {
+                itemsByProgress[j + 1] = itemsByProgress[j];
+                j--;
+            }
+            itemsByProgress[j + 1] = i;
+        }
+    }
+
+    /**
+     * Finds the best living enemy strictly within <code>range</code> of <code>center</code>
+     * according to <code>mode</code>. Only cells that overlap the range are checked. Ties are
+     * broken by position in the enemy list, so the result doesn't depend on the cell layout.
+     * <p>
+     * {@link TargetMode#FIRST} and {@link TargetMode#LAST} stop checking a cell at the first enemy
+     * that can't beat the best one found so far. The other modes check every enemy in the cells.
+     *
+     * @param center       center of the search area
+     * @param range        search radius, in pixels
+     * @param seeInvisible whether invisible enemies can be found
+     * @param mode         which enemy in range is preferred
+     * @return the best enemy in range, or null if there is none
+     */
+    public Enemy bestInRange(Position center, float range, boolean seeInvisible, TargetMode mode) {
+        if (mode == TargetMode.FIRST || mode == TargetMode.LAST) {
+            return bestByProgress(center, range, seeInvisible, mode == TargetMode.FIRST);
+        }
+
+        float reach = range + 1;
+        int minCol = col(center.x - reach);
+        int maxCol = col(center.x + reach);
+        int minRow = row(center.y - reach);
+        int maxRow = row(center.y + reach);
+
+        int best = -1;
+        double bestDistance = 0;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = items[k];
+                    Enemy e = enemies.get(i);
+                    if (!e.isAlive() || (e.isInvisible() && !seeInvisible)) {
+                        continue;
+                    }
+
+                    double distance = distance(center, e);
+                    if (distance >= range) {
+                        continue;
+                    }
+
+                    if (best == -1) {
+                        best = i;
+                        bestDistance = distance;
+                        continue;
+                    }
+
+                    int cmp = compare(mode, e, distance, enemies.get(best), bestDistance);
+                    if (cmp > 0 || (cmp == 0 && i < best)) {
+                        best = i;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return best == -1 ? null : enemies.get(best);
+    }
+
+    /**
+     * Same as {@link #bestInRange(Position, float, boolean, TargetMode)} for {@link
+     * TargetMode#FIRST} (<code>first</code>) or {@link TargetMode#LAST}, walking each cell in
+     * progress order
+     */
+    private Enemy bestByProgress(Position center, float range, boolean seeInvisible,
+        boolean first) {
+        float reach = range + 1;
+        int minCol = col(center.x - reach);
+        int maxCol = col(center.x + reach);
+        int minRow = row(center.y - reach);
+        int maxRow = row(center.y + reach);
+
+        int best = -1;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                int start = cellStart[cell];
+                int end = cellStart[cell + 1];
+                for (int k = 0; k < end - start; k++) {
+                    int i = itemsByProgress[first ? start + k : end - 1 - k];
+                    // the rest of the cell is further behind (or ahead) than the best enemy
+                    if (best != -1
+                        && (first ? progress[i] < progress[best] : progress[i] > progress[best])) {
+                        break;
+                    }
+
+                    Enemy e = enemies.get(i);
+                    if (!e.isAlive() || (e.isInvisible() && !seeInvisible)
+                        || distance(center, e) >= range) {
+                        continue;
+                    }
+
+                    if (best == -1 || progress[i] != progress[best] || i < best) {
+                        best = i;
+                    }
+                }
+            }
+        }
+
+        return best == -1 ? null : enemies.get(best);
+    }
+
+    /**
+     * @return positive if <code>a</code> is a better target than <code>b</code>, negative if it is
+     * worse, 0 if they are equal
+     */
+    private static int compare(TargetMode mode, Enemy a, double distanceA, Enemy b,
+        double distanceB) {
+        switch (mode) {
+            case FIRST:
+                return Float.compare(a.getProgress(), b.getProgress());
+            case LAST:
+                return Float.compare(b.getProgress(), a.getProgress());
+            case STRONGEST: {
+                int cmp = Integer.compare(a.getHp(), b.getHp());
+                return cmp != 0 ? cmp : Float.compare(a.getProgress(), b.getProgress());
+            }
+            case CLOSEST:
+                return Double.compare(distanceB, distanceA);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Finds the enemy that comes first in the enemy list out of all enemies whose hitbox overlaps
+     * the given hitbox. Gives the same result as checking {@link Enemy#collides(float, float,
+     * float, float)} for every enemy in list order.
+     *
+     * @param x      The x coordinate of the hitbox center
+     * @param y      The y coordinate of the hitbox center
+     * @param width  The width of the hitbox
+     * @param height The height of the hitbox
+     * @return the first colliding enemy, or null if there is none
+     */
+    public Enemy firstColliding(float x, float y, float width, float height) {
+        // enemies are indexed by their center, so extend the search by the largest enemy hitbox
+        float reachX = width / 2 + maxHalfWidth + 1;
+        float reachY = height / 2 + maxHalfHeight + 1;
+        int minCol = col(x - reachX);
+        int maxCol = col(x + reachX);
+        int minRow = row(y - reachY);
+        int maxRow = row(y + reachY);
+
+        int best = Integer.MAX_VALUE;
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minCol; c <= maxCol; c++) {
+                int cell = r * cols + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int i = items[k];
+                    if (i >= best) {
+                        break;
+                    }
+                    if (enemies.get(i).collides(x, y, width, height)) {
+                        best = i;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return best == Integer.MAX_VALUE ? null : enemies.get(best);
+    }
+
+    /**
+     * Same distance as a Tower uses for targeting
+     */
+    private static double distance(Position center, Enemy e) {
+        float a = Math.abs(center.x - e.getLocation().x);
+        float b = Math.abs(center.y - e.getLocation().y);
+        return Math.hypot(a, b);
+    }
+
+    private int col(float x) {
+        return clamp((int) Math.floor(x / cellSize), cols);
+    }
+
+    private int row(float y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    private static int clamp(int i, int size) {
+        return i < 0 ? 0 : (i >= size ? size - 1 : i);
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -1,77 +1,78 @@
 package com.wsu.towerdefense.Model;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PointF;
-import android.graphics.RectF;
 import android.util.Log;
+import android.view.SurfaceHolder;
+import androidx.annotation.NonNull;
 import com.wsu.towerdefense.AbstractGame;
+import com.wsu.towerdefense.Application;
+import com.wsu.towerdefense.DirtyRegion;
+import com.wsu.towerdefense.FrameMetrics;
 import com.wsu.towerdefense.MapReader;
-import com.wsu.towerdefense.Model.Enemy.Type;
-import com.wsu.towerdefense.audio.AdvancedSoundPlayer;
-import com.wsu.towerdefense.audio.BasicSoundPlayer;
+import com.wsu.towerdefense.audio.AudioCommandQueue;
+import com.wsu.towerdefense.audio.SfxEngine;
+import com.wsu.towerdefense.audio.SfxPlayer;
+import com.wsu.towerdefense.audio.SoundScheduler;
 import com.wsu.towerdefense.audio.SoundSource;
+import com.wsu.towerdefense.graphics.AtlasLoader;
+import com.wsu.towerdefense.graphics.BitmapDecoder;
+import com.wsu.towerdefense.graphics.BitmapDecoder.AssetClass;
+import com.wsu.towerdefense.graphics.RotatedSpriteCache;
+import com.wsu.towerdefense.graphics.SpriteAtlas;
+import com.wsu.towerdefense.graphics.SpriteBatch;
+import com.wsu.towerdefense.graphics.SpriteCache;
 import com.wsu.towerdefense.map.Map;
 import com.wsu.towerdefense.Model.tower.Tower;
-import com.wsu.towerdefense.MapEvent;
+import com.wsu.towerdefense.Model.tower.Upgrade;
 import com.wsu.towerdefense.Model.save.SaveState;
 import com.wsu.towerdefense.Model.save.Serializer;
 import com.wsu.towerdefense.R;
 import com.wsu.towerdefense.Settings;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
-public class Game extends AbstractGame implements SoundSource {
-
-    private static final int START_LIVES = 25;
-    private static final int START_MONEY = 400;
-    private static final int START_SCORE = 0;
-
-    private static final int RANGE_OPACITY = 90;
-    public final int validRangeColor;
-    public final int invalidRangeColor;
+/**
+ * Displays a {@link Simulation} on screen, and plays its sounds
+ */
+public class Game extends AbstractGame implements SoundSource, Simulation.Listener {
+    /**
+     * Game speed used in fast mode
+     */
+    private static final int FAST_MODE_SPEED = 2;
+    /**
+     * Size of the debug info in the bottom right corner, see {@link #drawDebugInfo(Canvas, Paint)}
+     */
+    private static final int DEBUG_INFO_WIDTH = 1000;
+    private static final int DEBUG_INFO_HEIGHT = 545;
 
-    private final BasicSoundPlayer audioPlaceTower;
-    private final AdvancedSoundPlayer audioLoseLife;
+    private final SfxEngine sfx;
+    private final SfxPlayer audioPlaceTower;
+    private final SfxPlayer audioLoseLife;
 
-    private final List<Tower> towers;
-    private final List<Enemy> enemies;
-    private final Waves waves;
-    private final Difficulty difficulty;
     private final Map map;
+    private final Simulation simulation;
+    private final Scene scene;
 
-    private int lives;
-    private int money;
-    private int score;
-
-    private boolean waveRunning = false;
     private boolean isFastMode = false;
 
     /**
      * A custom listener used to send data to the GameActivity whenever certain actions occur
      */
     private GameListener listener = null;
-    private Tower selectedTower = null;
-    private PointF dragLocation = null;
-    private Tower.Type dragType = null;
-    private final List<MapEvent> mapEvents;
 
     public Game(Context context, int gameWidth, int gameHeight, SaveState saveState,
         String mapName, Difficulty difficulty) {
         super(context, gameWidth, gameHeight);
 
-        audioPlaceTower = new BasicSoundPlayer(context, R.raw.game_tower_place, false);
-        audioLoseLife = new AdvancedSoundPlayer(R.raw.ui_button_deny);
-
-        mapEvents = new ArrayList<>();
-
-        validRangeColor = getResources().getColor(R.color.valid_range, null);
-        invalidRangeColor = getResources().getColor(R.color.invalid_range, null);
+        sfx = SfxEngine.getInstance(context);
+        audioPlaceTower = new SfxPlayer(R.raw.game_tower_place, SoundScheduler.PRIORITY_HIGH);
+        audioLoseLife = new SfxPlayer(R.raw.ui_button_deny, SoundScheduler.PRIORITY_HIGH);
 
         // game state
 
@@ -87,21 +88,49 @@ public class Game extends AbstractGame implements SoundSource {
             getGameWidth(),
             getGameHeight()
         );
-        this.difficulty = hasSave ? saveState.difficulty : difficulty;
-        waves = hasSave ? saveState.waves : new Waves(context, difficulty);
-        towers = hasSave ? saveState.towers : new ArrayList<>();
-        lives = hasSave ? saveState.lives : START_LIVES;
-        money = hasSave ? saveState.money : START_MONEY;
-        score = hasSave ? saveState.score : START_SCORE;
-
-        enemies = new ArrayList<>();
+        simulation = new Simulation(getGameWidth(), getGameHeight(), saveState, map.getPath(),
+            hasSave ? null : new Waves(context, difficulty), difficulty, true);
+        simulation.setListener(this);
+        scene = new Scene(context, simulation, map, new SpriteBatch(buildAtlas(context)));
+        scene.setSize(getGameWidth(), getGameHeight());
+        // decode the map image now rather than during the first frame
+        map.getImage();
 
         Log.i(context.getString(R.string.logcatKey),
             "Started game with map '" + map.getName() + "'" +
-                " and difficulty '" + this.difficulty.toString() + "'"
+                " and difficulty '" + simulation.getDifficulty().toString() + "'"
         );
     }
 
+    /**
+     * Returns an atlas with the images of every enemy, armor and projectile type, so that they can
+     * be drawn in a single batch. Uses the atlas packed at build time if it holds all of them,
+     * otherwise packs them at runtime.
+     */
+    public static SpriteAtlas buildAtlas(Context context) {
+        List<Integer> resourceIDs = new ArrayList<>();
+        for (Enemy.Type type : Enemy.Type.values()) {
+            resourceIDs.add(type.resource);
+            if (type.armorResource != -1) {
+                resourceIDs.add(type.armorResource);
+            }
+        }
+        for (Projectile.Type type : Projectile.Type.values()) {
+            resourceIDs.add(type.imageID);
+        }
+
+        SpriteAtlas atlas = SpriteAtlas.load(context, resourceIDs);
+        if (atlas != null) {
+            return atlas;
+        }
+
+        List<Bitmap> sprites = new ArrayList<>();
+        for (int resourceID : resourceIDs) {
+            sprites.add(SpriteCache.get(context, resourceID));
+        }
+        return SpriteAtlas.build(sprites);
+    }
+
     /**
      * Ends this game and returns to the the menu
      */
@@ -109,6 +138,10 @@ public class Game extends AbstractGame implements SoundSource {
         running = false;
 
         this.release();
+        SpriteCache.evictAll();
+        RotatedSpriteCache.evictAll();
+        AtlasLoader.evictAll();
+        map.releaseImage();
 
         Serializer.delete(getContext(), Serializer.SAVEFILE);
 
@@ -131,166 +164,150 @@ public class Game extends AbstractGame implements SoundSource {
 
     @Override
     protected void update(double delta) {
-
-        // Update the Enemies, remove any dead Enemies
-        for (Iterator<Enemy> enemyIt = enemies.iterator(); enemyIt.hasNext(); ) {
-            Enemy e = enemyIt.next();
-
-            if (e.isAlive()) {
-                e.update(this, delta);
-
-                if (e.isAtPathEnd()) {
-                    lives -= e.getType().getDamage();
-                    enemyIt.remove();
-                    if (lives <= 0) {
-                        lives = 0;
-                        gameOver(false);
-                    }
-                    audioLoseLife.play(getContext(), Settings.getSFXVolume(getContext()));
-                }
-            } else {
-                // Add enemy's value to game balance and score
-                addMoney((int) (e.getPrice() * difficulty.priceModifier));
-                addScore((int) (e.getPrice() * difficulty.priceModifier));
-
-                // Remove dead Enemies
-                enemyIt.remove();
-            }
+        // sounds played during the update are merged and started together
+        sfx.beginTick();
+        try {
+            simulation.update(delta);
+        } finally {
+            sfx.endTick();
         }
+    }
 
-        // Update Waves
-        waves.update(this, delta);
-        if (!waves.isRunning() && enemies.isEmpty() && waveRunning) {
-            waveRunning = false;
-            if (waves.isGameEnded()) {
-                listener.onGameOver(true);
-            } else {
-                listener.onWaveEnd();
-            }
+    /**
+     * Also pauses sound effects, e.g. the travel sound of rockets in flight
+     */
+    @Override
+    public void setPaused(boolean paused) {
+        super.setPaused(paused);
+        if (paused) {
+            sfx.pauseAll();
+        } else {
+            sfx.resumeAll();
         }
+    }
 
-        handleEvents();
+    @Override
+    public void surfaceChanged(@NonNull SurfaceHolder holder, int format, int width, int height) {
+        super.surfaceChanged(holder, format, width, height);
+        simulation.setSize(width, height);
+        scene.setSize(width, height);
+    }
 
-        // Update the Towers
-        for (Tower t : towers) {
-            t.update(this, delta);
-        }
+    /**
+     * Redraws the background layer, and with it the whole screen, in the next frame
+     */
+    private void invalidateBackground() {
+        scene.invalidateBackground();
+        invalidateFrame();
     }
 
     // RENDERING
 
     @Override
     protected void render(double lerp, Canvas canvas, Paint paint) {
-        paint.reset();
-        map.render(canvas, paint);
-
-        for (Tower t : towers) {
-            // Draw all tower ranges if in debug mode
-//            if (Application.DEBUG) {
-//                t.drawLine(canvas, paint);
-//            }
-            if (selectedTower == t) {
-                drawRange(canvas, paint, t.getLocation(),
-                    t.getType() == Tower.Type.SNIPER ? Tower.BASE_SIZE : t.getStats().getRange(),
-                    true);
-            }
+        scene.render(lerp, canvas, paint);
 
-            t.render(lerp, canvas, paint);
+        if (Application.DEBUG) {
+            drawDebugInfo(canvas, paint);
         }
+    }
 
-        for (Enemy e : enemies) {
-            e.render(lerp, canvas, paint);
-        }
+    @Override
+    protected void reportDirty(double lerp, DirtyRegion region) {
+        scene.reportDirty(lerp, region);
 
-        if (dragLocation != null) {
-            drawRange(canvas, paint, dragLocation,
-                dragType == Tower.Type.SNIPER ? Tower.BASE_SIZE : dragType.range,
-                isValidPlacement(dragLocation));
+        if (Application.DEBUG) {
+            region.add(getGameWidth() - DEBUG_INFO_WIDTH, getGameHeight() - DEBUG_INFO_HEIGHT,
+                getGameWidth(), getGameHeight());
         }
-
-        drawHUD(canvas, paint);
     }
 
-    /**
-     * Calculates the distance between a new tower and every existing object to determine if the
-     * placement of the new tower is valid. Assumes the new tower exists at time of valid check.
-     *
-     * @param location Location of new tower to be placed
-     * @return True if valid placement, false if not
-     */
     public boolean isValidPlacement(PointF location) {
-        // check against towers
-        for (Tower tower : towers) {
-            if (tower.collides(location, Tower.BASE_SIZE, Tower.BASE_SIZE)) {
-                return false;
-            }
-        }
-
-        // check against path
-        for (RectF rect : map.getBounds()) {
-            if (rect.left - Tower.BASE_SIZE / 2 <= location.x &&
-                location.x - Tower.BASE_SIZE / 2 <= rect.right &&
-                rect.top - Tower.BASE_SIZE / 2 <= location.y &&
-                location.y - Tower.BASE_SIZE / 2 <= rect.bottom) {
-                return false;
-            }
-        }
-        return true;
+        return simulation.isValidPlacement(location.x, location.y);
     }
 
     /**
-     * Draws the money count and life count to the top left corner of the canvas
+     * Draws frame statistics to the bottom right corner of the canvas
      *
-     * @param canvas Canvas to draw the life count on
+     * @param canvas Canvas to draw the statistics on
      * @param paint  Paint to draw with
      */
-    private void drawHUD(Canvas canvas, Paint paint) {
-        int posX = 10;
-        int posY = 75;
-        int yOffsetLives = 80;
-        int yOffsetWaves = 160;
-        int yOffsetScore = 1325;
+    private void drawDebugInfo(Canvas canvas, Paint paint) {
+        FrameMetrics metrics = getFrameMetrics();
 
         paint.reset();
-        paint.setShadowLayer(0.1f, 5, 5, Color.BLACK);
-        paint.setTextAlign(Paint.Align.LEFT);
-        paint.setTextSize(75);
-
-        paint.setColor(Color.YELLOW);
-        canvas.drawText("$" + money, posX, posY, paint);
-
+        paint.setTextAlign(Paint.Align.RIGHT);
+        paint.setTextSize(40);
         paint.setColor(Color.WHITE);
-        canvas.drawText("Lives: " + lives, posX, posY + yOffsetLives, paint);
 
-        if (waves.getCurWave() == 0) {
-            canvas.drawText("Wave: 1", posX, posY + yOffsetWaves, paint);
-        } else {
-            canvas.drawText("Wave: " + waves.getCurWave(), posX, posY + yOffsetWaves, paint);
-        }
-
-        paint.setColor(Color.WHITE);
-        canvas.drawText("Score: " + score, posX, posY + yOffsetScore, paint);
+        float x = getGameWidth() - 10;
+        float y = getGameHeight() - 10;
+        canvas.drawText("Dropped: " + metrics.getDroppedFrames(), x, y, paint);
+        canvas.drawText("Duplicated: " + metrics.getDuplicatedFrames(), x, y - 45, paint);
+        canvas.drawText(
+            String.format("Speed: %.2fx / %dx", metrics.getAchievedSpeed(), getSpeedMultiplier()),
+            x, y - 90, paint
+        );
+        canvas.drawText(
+            String.format("Sprites: %d hits / %d misses, %d KB", SpriteCache.getHitCount(),
+                SpriteCache.getMissCount(), SpriteCache.getSize() / 1024),
+            x, y - 135, paint
+        );
+        canvas.drawText(
+            String.format("Pools: %d misses, peak %d", simulation.getPoolMisses(),
+                simulation.getPoolPeak()),
+            x, y - 180, paint
+        );
+        canvas.drawText(
+            String.format("Rotations: %d hits / %d misses / %d fallbacks, %d KB",
+                RotatedSpriteCache.getHitCount(), RotatedSpriteCache.getMissCount(),
+                RotatedSpriteCache.getFallbackCount(), RotatedSpriteCache.getSize() / 1024),
+            x, y - 225, paint
+        );
+        canvas.drawText(
+            String.format("Redrawn: %d%%, %d skipped", Math.round(
+                metrics.getRedrawnFraction() * 100), metrics.getSkippedFrames()),
+            x, y - 270, paint
+        );
+        canvas.drawText(
+            String.format("Render: %.1f ms at %d%%", metrics.getRenderMillis(),
+                Math.round(metrics.getRenderScale() * 100)),
+            x, y - 315, paint
+        );
+        canvas.drawText(
+            scene.isSpriteBatching()
+                ? String.format("Batch: %d draw calls for %d sprites",
+                scene.getBatch().getDrawCalls(), scene.getBatch().getDraws())
+                : "Batch: off",
+            x, y - 360, paint
+        );
+        canvas.drawText(
+            String.format("Decoded: maps %d KB (-%d), sprites %d KB (-%d)",
+                BitmapDecoder.getBytesDecoded(AssetClass.MAP) / 1024,
+                BitmapDecoder.getBytesSaved(AssetClass.MAP) / 1024,
+                BitmapDecoder.getBytesDecoded(AssetClass.SPRITE) / 1024,
+                BitmapDecoder.getBytesSaved(AssetClass.SPRITE) / 1024),
+            x, y - 405, paint
+        );
+        SoundScheduler scheduler = sfx.getScheduler();
+        canvas.drawText(
+            String.format("Sfx: %d requested, %d merged, %d dropped, %d voices",
+                scheduler.getRequestedCount(), scheduler.getCoalescedCount(),
+                scheduler.getDroppedCount(), scheduler.getVoiceCount()),
+            x, y - 450, paint
+        );
+        AudioCommandQueue queue = sfx.getQueue();
+        canvas.drawText(
+            String.format("Audio queue: %d (peak %d), max latency %.1f ms, %d dropped, %d grown",
+                queue.getDepth(), queue.getMaxDepth(), queue.getMaxLatencyNanos() / 1e6,
+                queue.getDroppedCount(), queue.getGrownCount()),
+            x, y - 495, paint
+        );
     }
 
-    /**
-     * A helper method that draws a circular outline representing the range of this Tower.
-     *
-     * @param canvas The Canvas to draw the range on.
-     * @param paint  The Paint used to draw the range.
-     */
-    public void drawRange(Canvas canvas, Paint paint,
-        PointF location,
-        float radius,
-        boolean valid
-    ) {
-        paint.reset();
-        paint.setColor(valid ? validRangeColor : invalidRangeColor);
-        paint.setAlpha(RANGE_OPACITY);
-        canvas.drawCircle(location.x, location.y, radius, paint);
-    }
 
     public int getScore() {
-        return score;
+        return simulation.getScore();
     }
 
     // UI
@@ -311,51 +328,66 @@ public class Game extends AbstractGame implements SoundSource {
         this.listener = listener;
     }
 
-    // MAP EVENTS
+    // SIMULATION EVENTS
 
-    private void handleEvents() {
-        while (!mapEvents.isEmpty()) {
-            MapEvent e = mapEvents.get(0);
-
-            if (e instanceof MapEvent.PlaceTower) {
-                towers.add(((MapEvent.PlaceTower) e).tower);
-                audioPlaceTower.play(getContext(), Settings.getSFXVolume(getContext()));
-            } else if (e instanceof MapEvent.RemoveTower) {
-                selectedTower.release();
-                towers.remove(selectedTower);
-            } else if (e instanceof MapEvent.SpawnEnemy) {
-                enemies.add(((MapEvent.SpawnEnemy) e).enemy);
-            }
+    @Override
+    public void onMoneyChanged() {
+        listener.onMoneyChanged();
+    }
 
-            mapEvents.remove(e);
-        }
+    @Override
+    public void onLifeLost() {
+        audioLoseLife.play(getContext(), Settings.getSFXVolume(getContext()));
     }
 
-    // PlaceTower event
-    public boolean placeTower(PointF location, Tower.Type type) {
-        if (isValidPlacement(new PointF(location.x, location.y)) && type.cost <= money) {
-            Tower tower = new Tower(getContext(), new PointF(location.x, location.y), type);
-            mapEvents.add(new MapEvent.PlaceTower(tower));
+    @Override
+    public void onTowerPlaced(Tower tower) {
+        invalidateBackground();
+        audioPlaceTower.play(getContext(), Settings.getSFXVolume(getContext()));
+    }
+
+    @Override
+    public void onTowerRemoved(Tower tower) {
+        invalidateBackground();
+    }
 
-            // purchase tower
-            removeMoney(type.cost);
-            return true;
+    @Override
+    public void onWaveEnd() {
+        listener.onWaveEnd();
+    }
+
+    @Override
+    public void onGameOver(boolean won) {
+        if (won) {
+            listener.onGameOver(true);
+        } else {
+            gameOver(false);
         }
+    }
+
+    // MAP EVENTS
 
-        return false;
+    public boolean placeTower(PointF location, Tower.Type type) {
+        return simulation.placeTower(location.x, location.y, type);
     }
 
-    // RemoveTower event
     public void removeSelectedTower() {
-        mapEvents.add(new MapEvent.RemoveTower());
-
-        // refund tower cost
-        addMoney(selectedTower.getStats().getSellPrice());
+        simulation.removeTower(scene.getSelectedTower());
     }
 
-    // SpawnEnemy event
-    public void spawnEnemy(Type type) {
-        mapEvents.add(new MapEvent.SpawnEnemy(new Enemy(getContext(), type, map.getPath())));
+    /**
+     * Applies the next upgrade in a path to the selected tower and pays for it
+     *
+     * @param pathNumber Number of the path to upgrade in
+     * @return {@link Upgrade} that was applied, or <code>null</code> if the upgrade was not applied
+     */
+    public Upgrade upgradeSelectedTower(int pathNumber) {
+        Upgrade upgrade = scene.getSelectedTower().getStats().upgrade(pathNumber);
+        if (upgrade != null) {
+            simulation.removeMoney(upgrade.cost);
+            invalidateBackground();
+        }
+        return upgrade;
     }
 
     // DIFFICULTY ENUM
@@ -390,41 +422,16 @@ public class Game extends AbstractGame implements SoundSource {
 
     // GETTERS/SETTERS
 
-    /**
-     * Adds a specified amount to the game's score (same as the amount of money gained)
-     *
-     * @param amount The amount of score to add
-     */
-    private void addScore(int amount) {
-        score += amount;
-    }
-
-    /**
-     * Adds a specified amount to the game's money and triggers the game's listener
-     *
-     * @param amount The amount of money to add
-     */
-    private void addMoney(int amount) {
-        money += amount;
-        listener.onMoneyChanged();
-    }
-
-    /**
-     * Removes a specified amount from the game's money and triggers the game's listener
-     *
-     * @param amount The amount of money to remove
-     */
     public void removeMoney(int amount) {
-        money -= amount;
-        listener.onMoneyChanged();
+        simulation.removeMoney(amount);
     }
 
     public List<Tower> getTowers() {
-        return Collections.unmodifiableList(towers);
+        return simulation.getTowers();
     }
 
     public List<Enemy> getEnemies() {
-        return Collections.unmodifiableList(enemies);
+        return simulation.getEnemies();
     }
 
     public Map getMap() {
@@ -432,54 +439,70 @@ public class Game extends AbstractGame implements SoundSource {
     }
 
     public int getLives() {
-        return lives;
+        return simulation.getLives();
     }
 
     public Waves getWaves() {
-        return waves;
+        return simulation.getWaves();
     }
 
     public int getMoney() {
-        return money;
+        return simulation.getMoney();
     }
 
     public Difficulty getDifficulty() {
-        return difficulty;
+        return simulation.getDifficulty();
+    }
+
+    public Simulation getSimulation() {
+        return simulation;
     }
 
     public void selectTower(Tower tower) {
-        selectedTower = tower;
+        scene.setSelectedTower(tower);
     }
 
     public void drag(PointF location) {
-        dragLocation = location;
+        scene.setDragLocation(location);
     }
 
     public Tower getSelectedTower() {
-        return selectedTower;
+        return scene.getSelectedTower();
     }
 
     public void setDragType(Tower.Type dragType) {
-        this.dragType = dragType;
+        scene.setDragType(dragType);
     }
 
     @Override
     public void release() {
         this.audioPlaceTower.release();
         this.audioLoseLife.release();
+        this.sfx.stopLoops();
     }
 
     public void setWaveRunning(boolean waveRunning) {
-        this.waveRunning = waveRunning;
-        waves.setRunning(waveRunning);
+        simulation.setWaveRunning(waveRunning);
+    }
+
+    public void startNextWave() {
+        simulation.startNextWave();
     }
 
     public void setFastMode(boolean isFastMode) {
         this.isFastMode = isFastMode;
-        this.setDoubleSpeed(isFastMode);
+        this.setSpeedMultiplier(isFastMode ? FAST_MODE_SPEED : MIN_SPEED);
     }
 
     public boolean isFastMode() {
         return isFastMode;
     }
+
+    /**
+     * Sets whether enemies, projectiles and health bars are drawn in batches (see {@link
+     * SpriteBatch}) or one at a time
+     */
+    public void setSpriteBatching(boolean spriteBatching) {
+        scene.setSpriteBatching(spriteBatching);
+    }
 }
\ No newline at end of file
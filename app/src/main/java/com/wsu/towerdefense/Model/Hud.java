@@ -0,0 +1,133 @@
+package com.wsu.towerdefense.Model;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import com.wsu.towerdefense.DirtyRegion;
+
+/**
+ * Draws the money, life, wave and score counters of a {@link Simulation}. The text of each counter
+ * is only rebuilt when its value changes, so drawing an unchanged HUD doesn't allocate, and only
+ * counters that changed are reported as dirty.
+ */
+public class Hud {
+
+    private static final int POS_X = 10;
+    private static final int POS_Y = 75;
+    private static final int Y_OFFSET_LIVES = 80;
+    private static final int Y_OFFSET_WAVES = 160;
+    private static final int Y_OFFSET_SCORE = 1325;
+    private static final int TEXT_SIZE = 75;
+    private static final int SHADOW_OFFSET = 5;
+
+    private int money = Integer.MIN_VALUE;
+    private int lives = Integer.MIN_VALUE;
+    private int wave = Integer.MIN_VALUE;
+    private int score = Integer.MIN_VALUE;
+
+    private String moneyText;
+    private String livesText;
+    private String waveText;
+    private String scoreText;
+
+    private float moneyWidth;
+    private float livesWidth;
+    private float waveWidth;
+    private float scoreWidth;
+
+    /**
+     * Used to measure the width of counters
+     */
+    private final Paint textPaint = new Paint();
+
+    public Hud() {
+        textPaint.setTextSize(TEXT_SIZE);
+    }
+
+    /**
+     * Reports the area of each counter whose value changed since it was last drawn or reported
+     *
+     * @param simulation Simulation to show the state of
+     * @param region     region to report to
+     */
+    public void reportBounds(Simulation simulation, DirtyRegion region) {
+        updateText(simulation, region);
+    }
+
+    /**
+     * Draws the money count and life count to the top left corner of the canvas, and the score to
+     * the bottom left corner
+     *
+     * @param canvas     Canvas to draw the HUD on
+     * @param paint      Paint to draw with
+     * @param simulation Simulation to show the state of
+     */
+    public void render(Canvas canvas, Paint paint, Simulation simulation) {
+        updateText(simulation, null);
+
+        paint.reset();
+        paint.setShadowLayer(0.1f, SHADOW_OFFSET, SHADOW_OFFSET, Color.BLACK);
+        paint.setTextAlign(Paint.Align.LEFT);
+        paint.setTextSize(TEXT_SIZE);
+
+        paint.setColor(Color.YELLOW);
+        canvas.drawText(moneyText, POS_X, POS_Y, paint);
+
+        paint.setColor(Color.WHITE);
+        canvas.drawText(livesText, POS_X, POS_Y + Y_OFFSET_LIVES, paint);
+        canvas.drawText(waveText, POS_X, POS_Y + Y_OFFSET_WAVES, paint);
+        canvas.drawText(scoreText, POS_X, POS_Y + Y_OFFSET_SCORE, paint);
+    }
+
+    /**
+     * Rebuilds the text of counters whose value changed
+     *
+     * @param region region to report changed counters to, or null
+     */
+    private void updateText(Simulation simulation, DirtyRegion region) {
+        if (simulation.getMoney() != money) {
+            money = simulation.getMoney();
+            moneyText = "$" + money;
+            moneyWidth = measure(moneyText, moneyWidth, POS_Y, region);
+        }
+        if (simulation.getLives() != lives) {
+            lives = simulation.getLives();
+            livesText = "Lives: " + lives;
+            livesWidth = measure(livesText, livesWidth, POS_Y + Y_OFFSET_LIVES, region);
+        }
+        // the first wave is shown before it starts
+        int curWave = Math.max(simulation.getWaves().getCurWave(), 1);
+        if (curWave != wave) {
+            wave = curWave;
+            waveText = "Wave: " + wave;
+            waveWidth = measure(waveText, waveWidth, POS_Y + Y_OFFSET_WAVES, region);
+        }
+        if (simulation.getScore() != score) {
+            score = simulation.getScore();
+            scoreText = "Score: " + score;
+            scoreWidth = measure(scoreText, scoreWidth, POS_Y + Y_OFFSET_SCORE, region);
+        }
+    }
+
+    /**
+     * Measures a counter and reports the area covered by both its old and new text
+     *
+     * @param text     new text of the counter
+     * @param oldWidth width of the old text
+     * @param y        baseline of the counter
+     * @param region   region to report to, or null
+     * @return width of the new text
+     */
+    private float measure(String text, float oldWidth, int y, DirtyRegion region) {
+        float width = textPaint.measureText(text);
+        if (region != null) {
+            region.add(
+                0,
+                y - TEXT_SIZE,
+                POS_X + Math.max(width, oldWidth) + SHADOW_OFFSET + 1,
+                y + TEXT_SIZE / 2f + SHADOW_OFFSET
+            );
+        }
+        return width;
+    }
+}
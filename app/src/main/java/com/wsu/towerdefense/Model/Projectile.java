@@ -1,25 +1,31 @@
 package com.wsu.towerdefense.Model;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.PointF;
 import com.wsu.towerdefense.AbstractMapObject;
-import com.wsu.towerdefense.audio.BasicSoundPlayer;
+import com.wsu.towerdefense.Application;
+import com.wsu.towerdefense.Position;
+import com.wsu.towerdefense.DirtyRegion;
+import com.wsu.towerdefense.audio.AmbientLoop;
+import com.wsu.towerdefense.audio.SfxEngine;
+import com.wsu.towerdefense.audio.SfxPlayer;
+import com.wsu.towerdefense.audio.SoundScheduler;
 import com.wsu.towerdefense.audio.SoundSource;
+import com.wsu.towerdefense.graphics.RotatedSpriteCache;
+import com.wsu.towerdefense.graphics.SpriteBatch;
 import com.wsu.towerdefense.Model.tower.Tower;
 import com.wsu.towerdefense.R;
 import com.wsu.towerdefense.Settings;
 import com.wsu.towerdefense.Util;
-import java.util.List;
 
 public class Projectile extends AbstractMapObject implements SoundSource {
 
-    // What percent of the bitmap height will be used for the hitbox
+    // What percent of the image height will be used for the hitbox
     private static final float hitboxScaleY = 0.8f;
 
-    // What percent of the bitmap width will be used for the hitbox
+    // What percent of the image width will be used for the hitbox
     private static final float hitboxScaleX = 0.8f;
 
     public enum Behavior {
@@ -32,6 +38,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
     public enum Type {
         BALL(
             R.mipmap.projectile_ball,
+            34, 32,
             Behavior.LINEAR,
             1000f,
             10,
@@ -40,6 +47,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         ROCKET(
             R.mipmap.projectile_rocket,
+            26, 140,
             Behavior.HOMING,
             750f,
             15,
@@ -51,6 +59,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         BIG_ROCKET(
             R.mipmap.projectile_big_rocket,
+            42, 134,
             Behavior.HOMING,
             550f,
             40,
@@ -62,6 +71,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         HITSCAN(
             R.mipmap.projectile_ball, // image has no effect
+            34, 32,
             Behavior.HITSCAN,
             -1,
             50,
@@ -72,6 +82,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         TACK(
             R.mipmap.projectile_ball,
+            34, 32,
             Behavior.LINEAR,
             500,
             8,
@@ -82,6 +93,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         BEAK(
             R.mipmap.projectile_beak,
+            27, 34,
             Behavior.LINEAR,
             750f,
             5,
@@ -92,6 +104,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         SNOWFLAKE(
             R.mipmap.projectile_snowflake,
+            39, 39,
             Behavior.LINEAR,
             1000,
             2,
@@ -102,6 +115,7 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         SPIKE(
                 R.mipmap.projectile_spike,
+                64, 64,
                 Behavior.STATIC,
                 1000,
                 5,
@@ -111,6 +125,12 @@ public class Projectile extends AbstractMapObject implements SoundSource {
         }};
 
         public final int imageID;
+        /**
+         * Size of the image file scaled by {@link AbstractMapObject#SPRITE_SCALE}, which the hitbox
+         * is based on
+         */
+        public final float width;
+        public final float height;
         public final Behavior behavior;
         public final float speed;
         public final int damage;
@@ -124,12 +144,16 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
         Type(
             int imageID,
+            int width,
+            int height,
             Behavior behavior,
             float speed,
             int damage,
             int pierce
         ) {
             this.imageID = imageID;
+            this.width = width * SPRITE_SCALE;
+            this.height = height * SPRITE_SCALE;
             this.behavior = behavior;
             this.speed = speed;
             this.damage = damage;
@@ -166,34 +190,75 @@ public class Projectile extends AbstractMapObject implements SoundSource {
     private static final int IMAGE_ANGLE = 90;
     private final double TIME_BETWEEN_HITS = 0.12;
 
-    private final BasicSoundPlayer audioTravel;
-    private final BasicSoundPlayer audioImpact;
+    /**
+     * Travel sound shared by all projectiles of the same sound, see {@link #isEmitting}
+     */
+    private final AmbientLoop audioTravel;
+    private final SfxPlayer audioImpact;
+    /**
+     * Whether this projectile is an emitter of {@link #audioTravel}
+     */
+    private boolean isEmitting = false;
 
     public final Type type;
-    final private Tower parentTower;
-    private final Enemy target;
-    private final PointF initTargetLocation;
+    private Tower parentTower;
+    private Enemy target;
+    /**
+     * Generation of {@link #target} when this Projectile was shot, see {@link
+     * Enemy#getGeneration()}
+     */
+    private int targetGeneration;
+    private final Position initTargetLocation = new Position();
     private float velX;
     private float velY;
     private boolean isActive = true;
     public boolean remove;
-    private final PointF initialLocation;
+    private final Position initialLocation = new Position();
+    private final float hitboxWidth;
+    private final float hitboxHeight;
     private int hits = 0;
     private double timeSinceHit = 0;
 
-    private final float speedModifier;
-    private final float damageModifier;
-    private final float rangeModifier;
-    private final int pierceModifier;
+    private float speedModifier;
+    private float damageModifier;
+    private float rangeModifier;
+    private int pierceModifier;
 
-    private final double slowTime;
-    private final double slowRate;
+    private double slowTime;
+    private double slowRate;
 
-    public Projectile(
-            Context context,
+    /**
+     * Creates a Projectile that has not been shot yet. {@link #reset} must be called before it is
+     * updated or drawn.
+     */
+    public Projectile(Simulation simulation, Type type) {
+        super(new Position(), type.imageID);
+
+        this.type = type;
+        this.remove = true;
+        this.hitboxWidth = type.width * hitboxScaleX;
+        this.hitboxHeight = type.height * hitboxScaleY;
+
+        boolean audioEnabled = simulation.isAudioEnabled();
+        this.audioTravel = audioEnabled && type.travelSoundID >= 0
+            ? SfxEngine.getInstance(Application.context).getLoop(type.travelSoundID)
+            : null;
+        this.audioImpact = audioEnabled && type.impactSoundID >= 0
+            ? new SfxPlayer(type.impactSoundID, SoundScheduler.PRIORITY_NORMAL)
+            : null;
+    }
+
+    /**
+     * Shoots this Projectile, resetting any state left over from a previous use
+     *
+     * @param x     x coordinate to shoot from
+     * @param y     y coordinate to shoot from
+     * @param angle direction to shoot in, in degrees
+     */
+    public void reset(
             Tower parentTower,
-            PointF location,
-            Type type,
+            float x,
+            float y,
             Enemy target,
             float angle,
             float speedModifier,
@@ -202,48 +267,53 @@ public class Projectile extends AbstractMapObject implements SoundSource {
             int pierceModifier,
             double slowTime,
             double slowRate) {
-        super(context, location, type.imageID);
-
-        this.type = type;
         this.parentTower = parentTower;
         this.target = target;
+        this.targetGeneration = target.getGeneration();
         this.remove = false;
+        this.isActive = true;
+        this.hits = 0;
+        this.timeSinceHit = 0;
         this.speedModifier = speedModifier;
         this.damageModifier = damageModifier;
         this.rangeModifier = rangeModifier;
         this.pierceModifier = pierceModifier;
         this.slowTime = slowTime;
         this.slowRate = slowRate;
-        initTargetLocation = target.getLocation();
+        initTargetLocation.set(target.getLocation().x, target.getLocation().y);
 
         this.velX = (float) (getEffectiveSpeed() * Math.cos(Math.toRadians(angle)));
         this.velY = (float) (getEffectiveSpeed() * Math.sin(Math.toRadians(angle)));
-        this.initialLocation = new PointF(location.x, location.y);
-
-        this.audioTravel = this.type.travelSoundID >= 0
-            ? new BasicSoundPlayer(context, this.type.travelSoundID, true)
-            : null;
-        this.audioImpact = this.type.impactSoundID >= 0
-            ? new BasicSoundPlayer(context, this.type.impactSoundID, true)
-            : null;
-
-        if (this.audioTravel != null) {
-            this.audioTravel.play(context, Settings.getSFXVolume(context));
+        this.location.set(x, y);
+        this.initialLocation.set(x, y);
+
+        if (this.audioTravel != null && !this.isEmitting) {
+            Context context = Application.context;
+            this.audioTravel.addEmitter(
+                Math.min(1, Util.adjustVolume(Settings.getSFXVolume(context))));
+            this.isEmitting = true;
         }
     }
 
-    public void update(Game game, double delta) {
+    /**
+     * @return true if the target is alive and has not been reused for another spawn
+     */
+    private boolean isTargetAlive() {
+        return this.target.getGeneration() == this.targetGeneration && this.target.isAlive();
+    }
+
+    public void update(Simulation simulation, double delta) {
         if (!isInRange()) {
-            this.remove(game.getContext());
+            this.remove();
             return;
         }
 
         switch (this.type.behavior) {
             case HOMING: {
-                if (this.target.isAlive()) {
-                    double angle = Util.getAngleBetweenPoints(this.location,
-                            this.target.getLocation()
-                        );
+                if (isTargetAlive()) {
+                    Position targetLocation = this.target.getLocation();
+                    double angle = Util.getAngleBetweenPoints(this.location.x, this.location.y,
+                        targetLocation.x, targetLocation.y);
 
                     this.velX = (float) (getEffectiveSpeed() * Math.cos(Math.toRadians(angle)));
                     this.velY = (float) (getEffectiveSpeed() * Math.sin(Math.toRadians(angle)));
@@ -256,12 +326,12 @@ public class Projectile extends AbstractMapObject implements SoundSource {
                 break;
             }
             case HITSCAN: {
-                if (this.target.isAlive()) {
+                if (isTargetAlive()) {
                     this.target.hitByProjectile(this);
                     this.handleKillCount(target);
                 }
 
-                remove(game.getContext());
+                remove();
                 break;
             }
             case STATIC:
@@ -295,54 +365,72 @@ public class Projectile extends AbstractMapObject implements SoundSource {
         }
 
         updateActive(delta);
-        handleCollision(game.getContext(), checkCollision(game.getEnemies()));
+        handleCollision(checkCollision(simulation.getEnemyGrid()));
 
-        if (isOffScreen(game.getGameWidth(), game.getGameHeight())) {
-            remove(game.getContext());
+        if (isOffScreen(simulation.getWidth(), simulation.getHeight())) {
+            remove();
         }
     }
 
     @Override
     public void render(double lerp, Canvas canvas, Paint paint) {
         if (!remove) {
-            Matrix matrix = new Matrix();
-            matrix.postRotate(
-                (float) (Math.toDegrees(Math.atan2(this.velY, this.velX)) + IMAGE_ANGLE),
-                bitmap.getWidth() / 2f,
-                bitmap.getHeight() / 2f
-            );
-
-            PointF interpolatedLocation = new PointF(
-                (float) (this.location.x + this.velX * lerp),
-                (float) (this.location.y + this.velY * lerp)
-            );
-            matrix.postTranslate(
-                interpolatedLocation.x - bitmap.getWidth() / 2f,
-                interpolatedLocation.y - bitmap.getHeight() / 2f
-            );
-
-            canvas.drawBitmap(bitmap, matrix, null);
+            Bitmap bitmap = getBitmap();
+            float x = (float) (this.location.x + this.velX * lerp);
+            float y = (float) (this.location.y + this.velY * lerp);
+
+            // use a pre-rotated copy if possible
+            RotatedSpriteCache.drawRotated(canvas, bitmap, getDegrees(), x, y);
         }
     }
 
-    private Enemy checkCollision(List<Enemy> enemies) {
-        for (Enemy e : enemies) {
-            if (e.collides(location.x, location.y,
-                bitmap.getWidth() * hitboxScaleX,
-                bitmap.getHeight() * hitboxScaleY)
-            ) {
-                return(e);
-            }
+    /**
+     * Adds this Projectile to a batch, interpolating changes in position like {@link
+     * #render(double, Canvas, Paint)}
+     *
+     * @param lerp  interpolation factor
+     * @param batch batch to add to
+     */
+    public void render(double lerp, SpriteBatch batch) {
+        if (!remove) {
+            float x = (float) (this.location.x + this.velX * lerp);
+            float y = (float) (this.location.y + this.velY * lerp);
+            batch.drawRotated(getBitmap(), getDegrees(), x, y);
         }
-        return null;
     }
 
-    private void handleCollision(Context context, Enemy e){
+    /**
+     * @return rotation of the image, so that it faces the direction this Projectile moves in
+     */
+    private float getDegrees() {
+        return (float) (Math.toDegrees(Math.atan2(this.velY, this.velX)) + IMAGE_ANGLE);
+    }
+
+    /**
+     * Reports the area this Projectile is drawn in, which fits its image at any rotation
+     *
+     * @param lerp   interpolation factor
+     * @param region region to report to
+     */
+    public void reportBounds(double lerp, DirtyRegion region) {
+        if (!remove) {
+            float x = (float) (this.location.x + this.velX * lerp);
+            float y = (float) (this.location.y + this.velY * lerp);
+            float half = RotatedSpriteCache.getHalfSize(getBitmap());
+            region.addCentered(x, y, half, half);
+        }
+    }
+
+    private Enemy checkCollision(EnemyGrid enemies) {
+        return enemies.firstColliding(location.x, location.y, hitboxWidth, hitboxHeight);
+    }
+
+    private void handleCollision(Enemy e){
         if(e != null && isActive){
             e.hitByProjectile(this);
             handleKillCount(e);
             if(++hits >= getEffectivePierce()){
-                remove(context);
+                remove();
             } else {
                 isActive = false;
                 timeSinceHit = 0;
@@ -396,9 +484,10 @@ public class Projectile extends AbstractMapObject implements SoundSource {
         ) <= range;
     }
 
-    private void remove(Context context) {
+    private void remove() {
         remove = true;
         if (this.audioImpact != null) {
+            Context context = Application.context;
             this.audioImpact.play(context, Settings.getSFXVolume(context));
         }
         this.release();
@@ -406,10 +495,11 @@ public class Projectile extends AbstractMapObject implements SoundSource {
 
     @Override
     public void release() {
-        if (this.audioTravel != null) {
-            this.audioTravel.release();
+        if (this.isEmitting) {
+            this.audioTravel.removeEmitter();
+            this.isEmitting = false;
         }
-        // don't release audioImpact field to allow sound to play after projectile is removed
+        // don't stop audioImpact to allow sound to play after projectile is removed
     }
 
     private void handleKillCount(Enemy enemy) {
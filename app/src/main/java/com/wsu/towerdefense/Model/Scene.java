@@ -0,0 +1,252 @@
+package com.wsu.towerdefense.Model;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PointF;
+import com.wsu.towerdefense.Application;
+import com.wsu.towerdefense.DirtyRegion;
+import com.wsu.towerdefense.Model.tower.Tower;
+import com.wsu.towerdefense.R;
+import com.wsu.towerdefense.graphics.BackgroundLayer;
+import com.wsu.towerdefense.graphics.SpriteBatch;
+import com.wsu.towerdefense.map.Map;
+import java.util.List;
+
+/**
+ * Draws a frame of a {@link Simulation}: the map and tower bases, turrets, enemies and
+ * projectiles, the range overlays of the selected and dragged towers, and the HUD. Used by {@link
+ * Game}, which adds the debug overlay, and by tests that need to draw the frames the game draws.
+ */
+public class Scene {
+
+    private static final int RANGE_OPACITY = 90;
+
+    private final int validRangeColor;
+    private final int invalidRangeColor;
+
+    private final Simulation simulation;
+    private final Map map;
+    private final Hud hud = new Hud();
+    private final BackgroundLayer background = new BackgroundLayer();
+    private final RangeOverlay selectionRange = new RangeOverlay();
+    private final RangeOverlay dragRange = new RangeOverlay();
+    private final SpriteBatch batch;
+    private volatile boolean spriteBatching = true;
+
+    private Tower selectedTower = null;
+    private PointF dragLocation = null;
+    private Tower.Type dragType = null;
+
+    /**
+     * @param map map of the simulation, adjusted for the game size
+     */
+    public Scene(Context context, Simulation simulation, Map map, SpriteBatch batch) {
+        this.simulation = simulation;
+        this.map = map;
+        this.batch = batch;
+        this.validRangeColor = context.getResources().getColor(R.color.valid_range, null);
+        this.invalidRangeColor = context.getResources().getColor(R.color.invalid_range, null);
+    }
+
+    public void setSize(int width, int height) {
+        background.setSize(width, height);
+    }
+
+    /**
+     * Redraws the background layer in the next frame
+     */
+    public void invalidateBackground() {
+        background.invalidate();
+    }
+
+    /**
+     * Draws a frame
+     *
+     * @param lerp how far between the last two updates to draw moving objects, from 0 to 1
+     */
+    public void render(double lerp, Canvas canvas, Paint paint) {
+        paint.reset();
+        List<Tower> towers = simulation.getTowers();
+        // map and tower bases
+        background.render(canvas, map, towers);
+        if (Application.DEBUG) {
+            map.renderDebug(canvas, paint);
+        }
+
+        // projectiles, enemies and health bars are batched, turrets are drawn on their own
+        boolean batched = spriteBatching;
+        if (batched) {
+            batch.begin(canvas);
+        }
+
+        for (int i = 0; i < towers.size(); i++) {
+            Tower t = towers.get(i);
+            // Draw all tower ranges if in debug mode
+//            if (Application.DEBUG) {
+//                t.drawLine(canvas, paint);
+//            }
+            if (selectedTower == t) {
+                drawRange(canvas, paint, t.getLocation().x, t.getLocation().y,
+                    getDisplayedRange(t), true);
+            }
+
+            if (batched) {
+                t.renderTurret(lerp, canvas, batch);
+            } else {
+                t.renderTurret(lerp, canvas, paint);
+            }
+        }
+
+        List<Enemy> enemies = simulation.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            if (batched) {
+                enemies.get(i).render(lerp, batch);
+            } else {
+                enemies.get(i).render(lerp, canvas, paint);
+            }
+        }
+
+        if (batched) {
+            batch.end();
+        }
+
+        PointF drag = dragLocation;
+        if (drag != null) {
+            drawRange(canvas, paint, drag.x, drag.y, getDisplayedRange(dragType),
+                simulation.isValidPlacement(drag.x, drag.y));
+        }
+
+        hud.render(canvas, paint, simulation);
+    }
+
+    /**
+     * Adds the areas that change in the next frame to <code>region</code>
+     */
+    public void reportDirty(double lerp, DirtyRegion region) {
+        // tower bases and the map are part of the background, which invalidates the whole frame
+        List<Tower> towers = simulation.getTowers();
+        for (int i = 0; i < towers.size(); i++) {
+            towers.get(i).reportBounds(lerp, region);
+        }
+        List<Enemy> enemies = simulation.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            enemies.get(i).reportBounds(lerp, region);
+        }
+
+        Tower selected = selectedTower;
+        if (selected != null && towers.contains(selected)) {
+            selectionRange.report(region, selected.getLocation().x, selected.getLocation().y,
+                getDisplayedRange(selected), true);
+        } else {
+            selectionRange.report(region, 0, 0, 0, true);
+        }
+
+        PointF drag = dragLocation;
+        if (drag != null) {
+            dragRange.report(region, drag.x, drag.y, getDisplayedRange(dragType),
+                simulation.isValidPlacement(drag.x, drag.y));
+        } else {
+            dragRange.report(region, 0, 0, 0, true);
+        }
+
+        hud.reportBounds(simulation, region);
+    }
+
+    /**
+     * A helper method that draws a circular outline representing the range of a Tower.
+     *
+     * @param canvas The Canvas to draw the range on.
+     * @param paint  The Paint used to draw the range.
+     */
+    private void drawRange(Canvas canvas, Paint paint,
+        float x,
+        float y,
+        float radius,
+        boolean valid
+    ) {
+        paint.reset();
+        paint.setColor(valid ? validRangeColor : invalidRangeColor);
+        paint.setAlpha(RANGE_OPACITY);
+        canvas.drawCircle(x, y, radius, paint);
+    }
+
+    /**
+     * @return radius of the range overlay drawn for <code>tower</code>
+     */
+    private static float getDisplayedRange(Tower tower) {
+        return tower.getType() == Tower.Type.SNIPER ? Tower.BASE_SIZE : tower.getStats().getRange();
+    }
+
+    /**
+     * @return radius of the range overlay drawn while dragging a tower of type <code>type</code>
+     */
+    private static float getDisplayedRange(Tower.Type type) {
+        return type == Tower.Type.SNIPER ? Tower.BASE_SIZE : type.range;
+    }
+
+    /**
+     * Where a range overlay was drawn in the previous frame. Range overlays don't move every frame,
+     * so both their old and new area are reported when they change.
+     */
+    private static class RangeOverlay {
+
+        private float x;
+        private float y;
+        /**
+         * 0 while hidden
+         */
+        private float radius;
+        private boolean valid;
+
+        /**
+         * @param radius radius of the overlay in the current frame, 0 if it is hidden
+         */
+        void report(DirtyRegion region, float x, float y, float radius, boolean valid) {
+            if (x != this.x || y != this.y || radius != this.radius || valid != this.valid) {
+                region.addCentered(this.x, this.y, this.radius, this.radius);
+                region.addCentered(x, y, radius, radius);
+
+                this.x = x;
+                this.y = y;
+                this.radius = radius;
+                this.valid = valid;
+            }
+        }
+    }
+
+    public Tower getSelectedTower() {
+        return selectedTower;
+    }
+
+    public void setSelectedTower(Tower tower) {
+        selectedTower = tower;
+    }
+
+    /**
+     * @param location where a tower is being dragged, or null if none is
+     */
+    public void setDragLocation(PointF location) {
+        dragLocation = location;
+    }
+
+    public void setDragType(Tower.Type dragType) {
+        this.dragType = dragType;
+    }
+
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+
+    public boolean isSpriteBatching() {
+        return spriteBatching;
+    }
+
+    /**
+     * Sets whether enemies, projectiles and health bars are drawn in batches (see {@link
+     * SpriteBatch}) or one at a time
+     */
+    public void setSpriteBatching(boolean spriteBatching) {
+        this.spriteBatching = spriteBatching;
+    }
+}
@@ -0,0 +1,526 @@
+package com.wsu.towerdefense.Model;
+
+import com.wsu.towerdefense.AbstractGame;
+import com.wsu.towerdefense.MapEvent;
+import com.wsu.towerdefense.ObjectPool;
+import com.wsu.towerdefense.Model.Game.Difficulty;
+import com.wsu.towerdefense.Model.save.SaveState;
+import com.wsu.towerdefense.Model.tower.Tower;
+import com.wsu.towerdefense.Position;
+import com.wsu.towerdefense.map.MapPath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Game state and game logic (enemies, towers, projectiles, waves), independent of rendering,
+ * audio, and UI. {@link Game} wraps a simulation to display it on a {@link
+ * android.view.SurfaceView}.
+ * <p>
+ * A <i>headless</i> simulation (see {@link #headless(int, int, MapPath, Waves, Difficulty)}) can
+ * be run without a {@link Game}, as fast as possible, with {@link #runTicks(int)} and {@link
+ * #runUntilWaveEnd(int)}. The simulation doesn't use Android, so it can also run without a device:
+ * the map path and waves are plain data (see {@link com.wsu.towerdefense.MapReader#parsePath} and
+ * {@link Waves#Waves(java.io.InputStream, Difficulty)}), and collisions use the sizes of each enemy
+ * and projectile type instead of their images.
+ */
+public class Simulation {
+
+    private static final int START_LIVES = 25;
+    private static final int START_MONEY = 400;
+    private static final int START_SCORE = 0;
+    /**
+     * Size of a cell of {@link #enemyGrid}, in pixels. Roughly the range of the shortest range
+     * towers, so that a query covers only a few cells.
+     */
+    private static final float GRID_CELL_SIZE = 256;
+    /**
+     * Number of projectiles per tower created ahead of each wave. Enough for a tack shooter's full
+     * volley, or a few shots in flight for other towers.
+     */
+    private static final int PREWARM_PROJECTILES_PER_TOWER = 8;
+
+    /**
+     * Receives game events that are handled outside of the simulation, e.g. sounds and UI. Called
+     * from the thread that updates the simulation.
+     */
+    public interface Listener {
+
+        void onMoneyChanged();
+
+        void onLifeLost();
+
+        void onTowerPlaced(Tower tower);
+
+        void onTowerRemoved(Tower tower);
+
+        void onWaveEnd();
+
+        void onGameOver(boolean won);
+    }
+
+    private final boolean audioEnabled;
+    private int width;
+    private int height;
+
+    private final List<Tower> towers;
+    private final List<Enemy> enemies;
+    /**
+     * Read-only views of {@link #towers} and {@link #enemies}, created once so that getters don't
+     * allocate
+     */
+    private final List<Tower> towersView;
+    private final List<Enemy> enemiesView;
+    private final EnemyGrid enemyGrid;
+    private final EnumMap<Enemy.Type, ObjectPool<Enemy>> enemyPools =
+        new EnumMap<>(Enemy.Type.class);
+    private final EnumMap<Projectile.Type, ObjectPool<Projectile>> projectilePools =
+        new EnumMap<>(Projectile.Type.class);
+    private final Waves waves;
+    private final Difficulty difficulty;
+    private final MapPath path;
+
+    private int lives;
+    private int money;
+    private int score;
+
+    private boolean waveRunning = false;
+    private boolean over = false;
+
+    private Listener listener = null;
+    /**
+     * Changes requested from other threads, applied during the next update
+     */
+    private final Queue<MapEvent> mapEvents;
+
+    /**
+     * @param path         path of the map, adjusted for the game size (see {@link
+     *                     MapPath#scale(int, int)})
+     * @param waves        waves of a new game, not used when <code>saveState</code> is given
+     * @param audioEnabled whether towers and projectiles should create and play sounds
+     */
+    public Simulation(int width, int height, SaveState saveState, MapPath path, Waves waves,
+        Difficulty difficulty, boolean audioEnabled) {
+        this.audioEnabled = audioEnabled;
+        this.width = width;
+        this.height = height;
+        this.path = path;
+
+        mapEvents = new ConcurrentLinkedQueue<>();
+
+        boolean hasSave = saveState != null;
+
+        this.difficulty = hasSave ? saveState.difficulty : difficulty;
+        this.waves = hasSave ? saveState.waves : waves;
+        towers = hasSave ? saveState.towers : new ArrayList<>();
+        lives = hasSave ? saveState.lives : START_LIVES;
+        money = hasSave ? saveState.money : START_MONEY;
+        score = hasSave ? saveState.score : START_SCORE;
+
+        enemies = new ArrayList<>();
+        towersView = Collections.unmodifiableList(towers);
+        enemiesView = Collections.unmodifiableList(enemies);
+        enemyGrid = new EnemyGrid(GRID_CELL_SIZE);
+    }
+
+    /**
+     * Creates a new simulation without audio or a listener, for fast-forwarding and testing
+     *
+     * @param width  width of the game area, in pixels
+     * @param height height of the game area, in pixels
+     * @param path   normalized path of the map to play on, e.g. from {@link
+     *               com.wsu.towerdefense.MapReader#parsePath(String)}
+     */
+    public static Simulation headless(int width, int height, MapPath path, Waves waves,
+        Difficulty difficulty) {
+        return new Simulation(width, height, null, path.scale(width, height), waves, difficulty,
+            false);
+    }
+
+    // GAME STATE
+
+    /**
+     * Advances the game state by <code>delta</code> seconds
+     *
+     * @param delta amount of time that has passed between updates
+     */
+    public void update(double delta) {
+        if (over) {
+            return;
+        }
+
+        // Update the Enemies, remove any dead Enemies
+        for (Iterator<Enemy> enemyIt = enemies.iterator(); enemyIt.hasNext(); ) {
+            Enemy e = enemyIt.next();
+
+            if (e.isAlive()) {
+                e.update(this, delta);
+
+                if (e.isAtPathEnd()) {
+                    lives -= e.getType().getDamage();
+                    enemyIt.remove();
+                    enemyPool(e.getType()).release(e);
+                    if (lives <= 0) {
+                        lives = 0;
+                        endGame(false);
+                    }
+                    if (listener != null) {
+                        listener.onLifeLost();
+                    }
+                }
+            } else {
+                // Add enemy's value to game balance and score
+                addMoney((int) (e.getPrice() * difficulty.priceModifier));
+                addScore((int) (e.getPrice() * difficulty.priceModifier));
+
+                // Remove dead Enemies
+                enemyIt.remove();
+                enemyPool(e.getType()).release(e);
+            }
+        }
+
+        // Update Waves
+        waves.update(this, delta);
+        if (!waves.isRunning() && enemies.isEmpty() && waveRunning) {
+            waveRunning = false;
+            if (waves.isGameEnded()) {
+                endGame(true);
+            } else if (listener != null) {
+                listener.onWaveEnd();
+            }
+        }
+
+        handleEvents();
+
+        // Enemies don't move while towers update, so the grid stays valid until the next update
+        enemyGrid.rebuild(enemies, width, height);
+
+        // Update the Towers
+        for (int i = 0; i < towers.size(); i++) {
+            towers.get(i).update(this, delta);
+        }
+    }
+
+    private void endGame(boolean won) {
+        over = true;
+        if (listener != null) {
+            listener.onGameOver(won);
+        }
+    }
+
+    // HEADLESS
+
+    /**
+     * Runs a fixed number of updates of {@link AbstractGame#TIMESTEP} seconds each, stopping early
+     * if the game ends
+     *
+     * @param ticks number of updates to run
+     * @return number of updates that were run
+     */
+    public int runTicks(int ticks) {
+        int ran = 0;
+        while (ran < ticks && !over) {
+            update(AbstractGame.TIMESTEP);
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Starts the next wave if none is running, then runs updates of {@link AbstractGame#TIMESTEP}
+     * seconds each until the wave ends (all enemies spawned and removed) or the game ends
+     *
+     * @param maxTicks maximum number of updates to run
+     * @return number of updates that were run
+     */
+    public int runUntilWaveEnd(int maxTicks) {
+        if (!waveRunning) {
+            startNextWave();
+        }
+
+        int ran = 0;
+        while (ran < maxTicks && waveRunning && !over) {
+            update(AbstractGame.TIMESTEP);
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Calculates the distance between a new tower and every existing object to determine if the
+     * placement of the new tower is valid. Assumes the new tower exists at time of valid check.
+     *
+     * @param x x coordinate of new tower to be placed
+     * @param y y coordinate of new tower to be placed
+     * @return True if valid placement, false if not
+     */
+    public boolean isValidPlacement(float x, float y) {
+        // check against towers
+        for (int i = 0; i < towers.size(); i++) {
+            if (towers.get(i).collides(x, y, Tower.BASE_SIZE, Tower.BASE_SIZE)) {
+                return false;
+            }
+        }
+
+        // check against path
+        return !path.overlaps(x, y, Tower.BASE_SIZE / 2, Tower.BASE_SIZE / 2);
+    }
+
+    // MAP EVENTS
+
+    private void handleEvents() {
+        MapEvent e;
+        while ((e = mapEvents.poll()) != null) {
+            if (e instanceof MapEvent.PlaceTower) {
+                Tower tower = ((MapEvent.PlaceTower) e).tower;
+                towers.add(tower);
+                if (listener != null) {
+                    listener.onTowerPlaced(tower);
+                }
+            } else if (e instanceof MapEvent.RemoveTower) {
+                Tower tower = ((MapEvent.RemoveTower) e).tower;
+                tower.release();
+                tower.clearProjectiles(this);
+                towers.remove(tower);
+                if (listener != null) {
+                    listener.onTowerRemoved(tower);
+                }
+            }
+        }
+    }
+
+    // PlaceTower event
+    public boolean placeTower(float x, float y, Tower.Type type) {
+        if (isValidPlacement(x, y) && type.cost <= money) {
+            Tower tower = new Tower(new Position(x, y), type);
+            mapEvents.add(new MapEvent.PlaceTower(tower));
+
+            // purchase tower
+            removeMoney(type.cost);
+            return true;
+        }
+
+        return false;
+    }
+
+    // RemoveTower event
+    public void removeTower(Tower tower) {
+        mapEvents.add(new MapEvent.RemoveTower(tower));
+
+        // refund tower cost
+        addMoney(tower.getStats().getSellPrice());
+    }
+
+    // SpawnEnemy
+    public void spawnEnemy(Enemy.Type type) {
+        Enemy enemy = enemyPool(type).acquire();
+        enemy.reset();
+        enemies.add(enemy);
+    }
+
+    public void startNextWave() {
+        waves.nextWave();
+        prewarmPools();
+        setWaveRunning(true);
+    }
+
+    // POOLS
+
+    private ObjectPool<Enemy> enemyPool(Enemy.Type type) {
+        ObjectPool<Enemy> pool = enemyPools.get(type);
+        if (pool == null) {
+            pool = new ObjectPool<>(() -> new Enemy(type, path.getMetrics()));
+            enemyPools.put(type, pool);
+        }
+        return pool;
+    }
+
+    private ObjectPool<Projectile> projectilePool(Projectile.Type type) {
+        ObjectPool<Projectile> pool = projectilePools.get(type);
+        if (pool == null) {
+            pool = new ObjectPool<>(() -> new Projectile(this, type));
+            projectilePools.put(type, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Creates enough enemies for every spawn of the current wave, and projectiles for the placed
+     * towers, so that the wave itself doesn't allocate them
+     */
+    private void prewarmPools() {
+        int wave = waves.getCurWave();
+        for (Enemy.Type type : Enemy.Type.values()) {
+            int count = waves.countEnemies(wave, type);
+            if (count > 0) {
+                enemyPool(type).prewarm(count);
+            }
+        }
+
+        EnumMap<Projectile.Type, Integer> projectiles = new EnumMap<>(Projectile.Type.class);
+        for (Tower t : towers) {
+            Projectile.Type type = t.getStats().getProjectileType();
+            Integer count = projectiles.get(type);
+            projectiles.put(type, (count == null ? 0 : count) + PREWARM_PROJECTILES_PER_TOWER);
+        }
+        for (Projectile.Type type : projectiles.keySet()) {
+            projectilePool(type).prewarm(projectiles.get(type));
+        }
+    }
+
+    /**
+     * Takes an unused projectile from the pool, which must be shot with {@link Projectile#reset}
+     */
+    public Projectile acquireProjectile(Projectile.Type type) {
+        return projectilePool(type).acquire();
+    }
+
+    /**
+     * Returns a projectile that has been removed from the game to the pool
+     */
+    public void releaseProjectile(Projectile projectile) {
+        // stops its travel sound if it is released before hitting anything
+        projectile.release();
+        projectilePool(projectile.type).release(projectile);
+    }
+
+    /**
+     * @return number of enemies and projectiles that had to be created while pools were empty
+     */
+    public int getPoolMisses() {
+        int misses = 0;
+        for (ObjectPool<Enemy> pool : enemyPools.values()) {
+            misses += pool.getMisses();
+        }
+        for (ObjectPool<Projectile> pool : projectilePools.values()) {
+            misses += pool.getMisses();
+        }
+        return misses;
+    }
+
+    /**
+     * @return sum of the highest number of enemies and projectiles of each type in use at once
+     */
+    public int getPoolPeak() {
+        int peak = 0;
+        for (ObjectPool<Enemy> pool : enemyPools.values()) {
+            peak += pool.getPeakInUse();
+        }
+        for (ObjectPool<Projectile> pool : projectilePools.values()) {
+            peak += pool.getPeakInUse();
+        }
+        return peak;
+    }
+
+    // GETTERS/SETTERS
+
+    /**
+     * Adds a specified amount to the game's score (same as the amount of money gained)
+     *
+     * @param amount The amount of score to add
+     */
+    private void addScore(int amount) {
+        score += amount;
+    }
+
+    /**
+     * Adds a specified amount to the game's money and triggers the game's listener
+     *
+     * @param amount The amount of money to add
+     */
+    private void addMoney(int amount) {
+        money += amount;
+        if (listener != null) {
+            listener.onMoneyChanged();
+        }
+    }
+
+    /**
+     * Removes a specified amount from the game's money and triggers the game's listener
+     *
+     * @param amount The amount of money to remove
+     */
+    public void removeMoney(int amount) {
+        money -= amount;
+        if (listener != null) {
+            listener.onMoneyChanged();
+        }
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public boolean isAudioEnabled() {
+        return audioEnabled;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public List<Tower> getTowers() {
+        return towersView;
+    }
+
+    public List<Enemy> getEnemies() {
+        return enemiesView;
+    }
+
+    /**
+     * @return enemies indexed by location, valid while towers update
+     */
+    public EnemyGrid getEnemyGrid() {
+        return enemyGrid;
+    }
+
+    public MapPath getPath() {
+        return path;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public int getMoney() {
+        return money;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public Waves getWaves() {
+        return waves;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public boolean isWaveRunning() {
+        return waveRunning;
+    }
+
+    public void setWaveRunning(boolean waveRunning) {
+        this.waveRunning = waveRunning;
+        waves.setRunning(waveRunning);
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+}
@@ -23,6 +23,16 @@ import org.json.JSONObject;
  */
 public class Waves implements Serializable {
 
+    /**
+     * Computed UID of the class that existing saves were written with
+     */
+    private static final long serialVersionUID = 706791501019088694L;
+
+    /**
+     * Waves of every game, in the app's assets
+     */
+    private static final String FILE_NAME = "waves/standard.json";
+
     private int maxWaves;
     private int wavesToWin;
     private int curWave = 0;
@@ -41,25 +51,42 @@ public class Waves implements Serializable {
     List<List<Enemy.Type>> types;
 
     /**
-     * Constructor which uses {@link #parseWaves(Context, String)} to populate List values
+     * Constructor which uses {@link #parseWaves(InputStream)} to populate List values
      *
      * @param context   Used to access files
      */
     public Waves(Context context, Game.Difficulty difficulty){
-        amounts = new ArrayList<>();
-        delays = new ArrayList<>();
-        setDelays = new ArrayList<>();
-        types = new ArrayList<>();
-        wavesToWin = difficulty.waves;
+        this(difficulty);
 
-        try {
-            parseWaves(context, "waves/standard.json");
+        try (InputStream stream = context.getAssets().open(FILE_NAME)) {
+            parseWaves(stream);
         }
         catch (IOException | JSONException e) {
             Log.e(context.getString(R.string.logcatKey), "Error while initializing Waves", e);
         }
     }
 
+    /**
+     * Constructor which reads waves from a stream instead of the app's assets, e.g. to run a
+     * headless {@link Simulation} without a Context
+     *
+     * @param stream    JSON file in the format of {@link #parseWaves(InputStream)}
+     * @throws JSONException    If issue calling get methods of JSONObject
+     * @throws IOException      If the stream can't be read
+     */
+    public Waves(InputStream stream, Game.Difficulty difficulty) throws JSONException, IOException {
+        this(difficulty);
+        parseWaves(stream);
+    }
+
+    private Waves(Game.Difficulty difficulty){
+        amounts = new ArrayList<>();
+        delays = new ArrayList<>();
+        setDelays = new ArrayList<>();
+        types = new ArrayList<>();
+        wavesToWin = difficulty.waves;
+    }
+
     /**
      * alternate constructor for manually passing Lists. Primarily used for testing
      */
@@ -74,12 +101,12 @@ public class Waves implements Serializable {
         this.wavesToWin = wavesToWin;
     }
 
-    public void update(Game game, double delta){
+    public void update(Simulation simulation, double delta){
         if(isRunning()) {
             updateTimeSinceSpawn(delta);
 
             if ((setStarted || setDelayPassed()) && delayPassed()) {
-                    game.spawnEnemy(next());
+                    simulation.spawnEnemy(next());
             }
         }
     }
@@ -96,14 +123,11 @@ public class Waves implements Serializable {
      *     <li><code>types</code> : The type of enemy to spawn for a given set</li>
      * </ul>
      *
-     * @param context   Used to access files through context.getAssets
-     * @param fileName  String name of the JSON file to be read into a buffer
+     * @param stream    JSON file to be read into a buffer
      * @throws JSONException    If issue calling get methods of JSONObject
-     * @throws IOException      If File fileName does ot exist
+     * @throws IOException      If the stream can't be read
      */
-    public void parseWaves(Context context, String fileName) throws JSONException, IOException {
-        InputStream stream = context.getAssets().open(fileName);
-
+    public void parseWaves(InputStream stream) throws JSONException, IOException {
         String data = new BufferedReader(new InputStreamReader(stream)).lines()
                 .collect(Collectors.joining("\n"));
 
@@ -147,7 +171,6 @@ public class Waves implements Serializable {
         // if all sets in a wave have passed and there are more waves
         if(curSet - amounts.get(curWave - 1).size() >= 0 &&
                 curWave < wavesToWin){
-            Log.i("TowerDefense", "incrementing wave" + curWave + " -> " + (curWave + 1));
             curSet = 0;
             running = false;
         }
@@ -190,6 +213,25 @@ public class Waves implements Serializable {
         return false;
     }
 
+    /**
+     * @param wave wave number, starting at 1
+     * @param type type of enemy to count
+     * @return number of enemies of the given type spawned during the wave
+     */
+    public int countEnemies(int wave, Enemy.Type type){
+        if(wave < 1 || wave > amounts.size()){
+            return 0;
+        }
+
+        int count = 0;
+        for(int set = 0; set < amounts.get(wave - 1).size(); set++){
+            if(types.get(wave - 1).get(set) == type){
+                count += amounts.get(wave - 1).get(set);
+            }
+        }
+        return count;
+    }
+
     public void nextWave(){
         curWave++;
     }
@@ -2,16 +2,21 @@ package com.wsu.towerdefense.Model.tower;
 
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Matrix;
 import android.graphics.Paint;
-import android.graphics.PointF;
 import com.wsu.towerdefense.AbstractMapObject;
+import com.wsu.towerdefense.Application;
+import com.wsu.towerdefense.Position;
+import com.wsu.towerdefense.DirtyRegion;
 import com.wsu.towerdefense.Model.Enemy;
 import com.wsu.towerdefense.Model.Projectile;
-import com.wsu.towerdefense.audio.AdvancedSoundPlayer;
+import com.wsu.towerdefense.audio.SfxPlayer;
+import com.wsu.towerdefense.audio.SoundScheduler;
 import com.wsu.towerdefense.audio.SoundSource;
-import com.wsu.towerdefense.Model.Game;
+import com.wsu.towerdefense.graphics.RotatedSpriteCache;
+import com.wsu.towerdefense.graphics.SpriteBatch;
+import com.wsu.towerdefense.Model.Simulation;
 import com.wsu.towerdefense.R;
 import com.wsu.towerdefense.Settings;
 import com.wsu.towerdefense.Util;
@@ -25,6 +30,13 @@ import java.util.List;
 
 public class Tower extends AbstractMapObject implements Serializable, SoundSource {
 
+    /**
+     * UID computed for this class before targeting modes and headless simulations, which saves
+     * are written with. Fields added since then are missing from older saves, see {@link
+     * #readObject(ObjectInputStream)}.
+     */
+    private static final long serialVersionUID = 6268530042042701059L;
+
     public enum Behavior {
         ALL,
         CYCLING
@@ -32,6 +44,41 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
         // RANDOM
     }
 
+    /**
+     * Decides which enemy in range a Tower shoots at
+     */
+    public enum TargetMode {
+        /**
+         * Enemy furthest along the path
+         */
+        FIRST("First"),
+        /**
+         * Enemy least far along the path
+         */
+        LAST("Last"),
+        /**
+         * Enemy with the most HP
+         */
+        STRONGEST("Strong"),
+        /**
+         * Enemy closest to the Tower
+         */
+        CLOSEST("Close");
+
+        public final String displayName;
+
+        TargetMode(String displayName) {
+            this.displayName = displayName;
+        }
+
+        /**
+         * @return the mode after this one, wrapping around to the first
+         */
+        public TargetMode next() {
+            return values()[(ordinal() + 1) % values().length];
+        }
+    }
+
     public enum Type {
         BASIC_HOMING(
             "Homing",
@@ -45,9 +92,9 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             true,
             Behavior.CYCLING,
-            new PointF[]{
-                new PointF(-20, -36),
-                new PointF(17, -36)
+            new Position[]{
+                new Position(-20, -36),
+                new Position(17, -36)
             }
         ),
         BASIC_LINEAR(
@@ -62,8 +109,8 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             true,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(0, -80)
+            new Position[]{
+                new Position(0, -80)
             }
         ),
         DOUBLE_LINEAR(
@@ -78,9 +125,9 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             true,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(-16, -80),
-                new PointF(14, -80)
+            new Position[]{
+                new Position(-16, -80),
+                new Position(14, -80)
             }
         ),
         BIG_HOMING(
@@ -95,8 +142,8 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             true,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(0, -42)
+            new Position[]{
+                new Position(0, -42)
             }
         ),
         SNIPER(
@@ -111,8 +158,8 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             true,
             true,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(0, 0)
+            new Position[]{
+                new Position(0, 0)
             }
         ),
         TACK_SHOOTER(
@@ -127,15 +174,15 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             false,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(65, 0),
-                new PointF(65 / (float) Math.sqrt(2), -65 / (float) Math.sqrt(2)),
-                new PointF(0, -65),
-                new PointF(-65 / (float) Math.sqrt(2), -65 / (float) Math.sqrt(2)),
-                new PointF(-65, 0),
-                new PointF(-65 / (float) Math.sqrt(2), 65 / (float) Math.sqrt(2)),
-                new PointF(0, 65),
-                new PointF(65 / (float) Math.sqrt(2), 65 / (float) Math.sqrt(2))
+            new Position[]{
+                new Position(65, 0),
+                new Position(65 / (float) Math.sqrt(2), -65 / (float) Math.sqrt(2)),
+                new Position(0, -65),
+                new Position(-65 / (float) Math.sqrt(2), -65 / (float) Math.sqrt(2)),
+                new Position(-65, 0),
+                new Position(-65 / (float) Math.sqrt(2), 65 / (float) Math.sqrt(2)),
+                new Position(0, 65),
+                new Position(65 / (float) Math.sqrt(2), 65 / (float) Math.sqrt(2))
             }
         ),
         NESTOR(
@@ -150,8 +197,8 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             true,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(0, -50)
+            new Position[]{
+                new Position(0, -50)
             }
         ),
         ICE(
@@ -166,8 +213,8 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             false,
             true,
             Behavior.ALL,
-            new PointF[]{
-                new PointF(0, -80)
+            new Position[]{
+                new Position(0, -80)
             }
         ),
         SPIKE(
@@ -182,8 +229,8 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
                 false,
                 true,
                 Behavior.ALL,
-                new PointF[]{
-                        new PointF(0, -10)
+                new Position[]{
+                        new Position(0, -10)
                 }
         );
 
@@ -203,7 +250,7 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
          Each point in this list represents a projectile spawn point
          relative to the center of the turret image
          */
-        public final PointF[] spawnPoints;
+        public final Position[] spawnPoints;
 
         Type(
             String name,
@@ -217,7 +264,7 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
             boolean canSeeInvisible,
             boolean turns,
             Behavior behavior,
-            PointF[] spawnPoints) {
+            Position[] spawnPoints) {
             this.name = name;
             this.uiResID = uiResID;
             this.towerResID = towerResID;
@@ -239,19 +286,27 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
      */
     private static final int START_ANGLE = 0;
 
-    public static final float BASE_SIZE = 130 * 0.875f;
+    public static final float BASE_SIZE = 130 * SPRITE_SCALE;
 
-    private transient AdvancedSoundPlayer audioShoot;
+    private transient SfxPlayer audioShoot;
 
     private int killCount = 0;
     private transient Enemy target;   // The Enemy this Tower will shoot at
+    private transient int targetGeneration;   // Generation of target when it was picked
     private final Type type;
     private transient List<Projectile> projectiles;   // A list of the locations of projectiles shot by this Tower
     private transient double timeSinceShot = 0.0;
 
     private final TowerStats stats;
+    private TargetMode targetMode = TargetMode.FIRST;
 
     private transient float angle;
+    /**
+     * Angle and image of the turret when it was last reported by {@link #reportBounds(double,
+     * DirtyRegion)}
+     */
+    private transient float reportedAngle = Float.NaN;
+    private transient Bitmap reportedTurret;
     private transient int cycle;
 
     /**
@@ -260,18 +315,18 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
      * Tower will track the Enemy they were shot at even if the Enemy is no longer in the Tower's
      * range.
      *
-     * @param location A PointF representing the location of the towerBitmap's center
+     * @param location A Position representing the location of the towerBitmap's center
      */
-    public Tower(Context context, PointF location, Type type) {
-        super(context, location, R.mipmap.tower_base);
+    public Tower(Position location, Type type) {
+        super(location, R.mipmap.tower_base);
         this.type = type;
         this.projectiles = new ArrayList<>();
-        this.stats = new TowerStats(context, type);
+        this.stats = new TowerStats(type);
 
         this.angle = START_ANGLE - IMAGE_ANGLE;
 
         this.audioShoot = type.shootSoundID >= 0
-            ? new AdvancedSoundPlayer(this.type.shootSoundID)
+            ? new SfxPlayer(this.type.shootSoundID, SoundScheduler.PRIORITY_LOW)
             : null;
 
         this.cycle = 0;
@@ -280,57 +335,58 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
     /**
      * Updates the Tower based on the the change in time since the Tower was last updated.
      *
-     * @param game  the Game object this Tower belongs to
-     * @param delta amount of time that has passed between updates
+     * @param simulation the Simulation this Tower belongs to
+     * @param delta      amount of time that has passed between updates
      */
     @Override
-    public void update(Game game, double delta) {
-        // Remove target if it goes out of range or reaches end of path
+    public void update(Simulation simulation, double delta) {
+        // Remove target if it goes out of range, reaches end of path, or was reused for a new spawn
         if (distanceToEnemy(target) > stats.getRange() ||
-            (target != null && target.isAtPathEnd())) {
+            (target != null && (target.isAtPathEnd()
+                || target.getGeneration() != targetGeneration))) {
             target = null;
         }
 
-        // Look for new target if there is no current target
-        if (target == null) {
-            List<Enemy> enemies = game.getEnemies();
-            for (int i = 0; i < enemies.size(); i++) {
-                Enemy e = enemies.get(i);
-                if (distanceToEnemy(e) < stats.getRange()) {
-                    if (!e.isInvisible() || (e.isInvisible() && stats.canSeeInvisible())) {
-                        target = e;
-
-                        break; // Stop looking for a target
-                    }
-                }
-            }
-        }
-
         // Calculate change in time since last projectile was fired
         timeSinceShot += delta;
 
+        // Look for new target if there is no current target, and pick the best target for the
+        // targeting mode again right before shooting
+        if (target == null || timeSinceShot >= stats.getFireRate()) {
+            target = simulation.getEnemyGrid().bestInRange(
+                location, stats.getRange(), stats.canSeeInvisible(), targetMode
+            );
+            if (target != null) {
+                targetGeneration = target.getGeneration();
+            }
+        }
+
         if (this.type.turns && target != null) {
-            angle = (float) Util.getAngleBetweenPoints(location, target.getLocation());
+            Position targetLocation = target.getLocation();
+            angle = (float) Util.getAngleBetweenPoints(location.x, location.y,
+                targetLocation.x, targetLocation.y);
         }
 
         // Shoot another projectile if there is a target and enough time has passed
         if (target != null && timeSinceShot >= stats.getFireRate()) {
-            shootProjectiles(game.getContext());
+            shootProjectiles(simulation);
 
             timeSinceShot = 0;
 
-            if (this.audioShoot != null) {
-                this.audioShoot.play(game.getContext(), Settings.getSFXVolume(game.getContext()));
+            if (this.audioShoot != null && simulation.isAudioEnabled()) {
+                Context context = Application.context;
+                this.audioShoot.play(context, Settings.getSFXVolume(context));
             }
         }
 
         // Update each projectile
         for (Iterator<Projectile> projectileIt = projectiles.iterator(); projectileIt.hasNext(); ) {
             Projectile p = projectileIt.next();
-            p.update(game, delta);
+            p.update(simulation, delta);
 
             if (p.remove) {
                 projectileIt.remove();
+                simulation.releaseProjectile(p);
             }
         }
 
@@ -349,33 +405,95 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
      */
     @Override
     public void render(double lerp, Canvas canvas, Paint paint) {
-        // Draw the tower base image
+        renderBase(canvas);
+        renderTurret(lerp, canvas, paint);
+    }
+
+    /**
+     * Draws the base of this Tower, which doesn't change while the Tower exists
+     *
+     * @param canvas the canvas this Tower will be drawn on
+     */
+    public void renderBase(Canvas canvas) {
+        Bitmap bitmap = getBitmap();
         canvas.drawBitmap(
             bitmap,
             location.x - bitmap.getWidth() / 2f,
             location.y - bitmap.getHeight() / 2f,
             null
         );
+    }
 
-        // Draw the tower turret image
-        Matrix matrix = new Matrix();
-        matrix.postRotate(
-            angle + IMAGE_ANGLE,
-            stats.getTurretImage().getWidth() / 2f,
-            stats.getTurretImage().getHeight() / 2f
-        );
-        matrix.postTranslate(
-            location.x - bitmap.getWidth() / 2f,
-            location.y - bitmap.getHeight() / 2f
-        );
-        canvas.drawBitmap(stats.getTurretImage(), matrix, null);
+    /**
+     * Reports the area of the turret if it changed since it was last reported, and the area of each
+     * projectile. The base is not reported, since it doesn't change.
+     *
+     * @param lerp   interpolation factor
+     * @param region region to report to
+     */
+    public void reportBounds(double lerp, DirtyRegion region) {
+        Bitmap turret = stats.getTurretImage();
+        if (angle != reportedAngle || turret != reportedTurret) {
+            Bitmap bitmap = getBitmap();
+            // the turret rotates around its center, so the old and new turret fit in the same area
+            float half = Math.max(
+                RotatedSpriteCache.getHalfSize(turret),
+                reportedTurret != null ? RotatedSpriteCache.getHalfSize(reportedTurret) : 0
+            );
+            region.addCentered(
+                location.x - bitmap.getWidth() / 2f + turret.getWidth() / 2f,
+                location.y - bitmap.getHeight() / 2f + turret.getHeight() / 2f,
+                half, half
+            );
+            reportedAngle = angle;
+            reportedTurret = turret;
+        }
+
+        for (int i = 0; i < projectiles.size(); i++) {
+            projectiles.get(i).reportBounds(lerp, region);
+        }
+    }
+
+    /**
+     * Draws the turret and projectiles of this Tower, which change every frame
+     *
+     * @param lerp   interpolation factor
+     * @param canvas the canvas this Tower will be drawn on
+     * @param paint  the paint object used to paint onto the canvas
+     */
+    public void renderTurret(double lerp, Canvas canvas, Paint paint) {
+        drawTurret(canvas);
 
         // Draw each projectile
-        for (Projectile p : projectiles) {
-            p.render(lerp, canvas, paint);
+        for (int i = 0; i < projectiles.size(); i++) {
+            projectiles.get(i).render(lerp, canvas, paint);
         }
     }
 
+    /**
+     * Draws the turret of this Tower to the provided Canvas, and adds its projectiles to a batch
+     *
+     * @param lerp   interpolation factor
+     * @param canvas the canvas this Tower will be drawn on
+     * @param batch  batch collecting sprites drawn on <code>canvas</code>
+     */
+    public void renderTurret(double lerp, Canvas canvas, SpriteBatch batch) {
+        drawTurret(canvas);
+
+        for (int i = 0; i < projectiles.size(); i++) {
+            projectiles.get(i).render(lerp, batch);
+        }
+    }
+
+    private void drawTurret(Canvas canvas) {
+        // Draw the tower turret image, using a pre-rotated copy if possible
+        Bitmap bitmap = getBitmap();
+        Bitmap turret = stats.getTurretImage();
+        RotatedSpriteCache.drawRotated(canvas, turret, angle + IMAGE_ANGLE,
+            location.x - bitmap.getWidth() / 2f + turret.getWidth() / 2f,
+            location.y - bitmap.getHeight() / 2f + turret.getHeight() / 2f);
+    }
+
     /**
      * A helper method that calculates the distance from the center of this Tower to the center of a
      * given Enemy
@@ -396,16 +514,17 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
     /**
      * A method to determine whether or not a given hitbox collides with the Tower's hitbox.
      *
-     * @param loc    The center of the hitbox to check
+     * @param x      The x coordinate of the center of the hitbox to check
+     * @param y      The y coordinate of the center of the hitbox to check
      * @param width  The width of the hitbox
      * @param height The height of the hitbox
      * @return true if the given hitbox overlaps the Tower's hitbox
      */
-    public boolean collides(PointF loc, float width, float height) {
-        return loc.x - width / 2 <= this.location.x + BASE_SIZE / 2f &&
-            loc.x + width / 2 >= this.location.x - BASE_SIZE / 2f &&
-            loc.y - height / 2 <= this.location.y + BASE_SIZE / 2f &&
-            loc.y + height / 2 >= this.location.y - BASE_SIZE / 2f;
+    public boolean collides(float x, float y, float width, float height) {
+        return x - width / 2 <= this.location.x + BASE_SIZE / 2f &&
+            x + width / 2 >= this.location.x - BASE_SIZE / 2f &&
+            y - height / 2 <= this.location.y + BASE_SIZE / 2f &&
+            y + height / 2 >= this.location.y - BASE_SIZE / 2f;
     }
 
     public TowerStats getStats() {
@@ -424,20 +543,16 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
         return this.type.range;
     }
 
-    private void shootProjectiles(Context context) {
+    private void shootProjectiles(Simulation simulation) {
         switch (type.behavior) {
             case ALL: {
-                for (PointF basePoint : type.spawnPoints) {
-                    shootProjectile(context, basePoint);
+                for (Position basePoint : type.spawnPoints) {
+                    shootProjectile(simulation, basePoint);
                 }
                 break;
             }
             case CYCLING: {
-                PointF basePoint = new PointF(
-                    type.spawnPoints[cycle].x,
-                    type.spawnPoints[cycle].y
-                );
-                shootProjectile(context, basePoint);
+                shootProjectile(simulation, type.spawnPoints[cycle]);
 
                 cycle = (cycle + 1) % type.spawnPoints.length;
                 break;
@@ -447,27 +562,40 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
         }
     }
 
-    private void shootProjectile(Context context, PointF basePoint) {
-        PointF rotatedPoint = Util.rotatePoint(basePoint, angle + IMAGE_ANGLE);
-        PointF spawnPoint = new PointF(
-            this.location.x + rotatedPoint.x,
-            this.location.y + rotatedPoint.y
+    private void shootProjectile(Simulation simulation, Position basePoint) {
+        // same as Util.rotatePoint, without allocating
+        double a = Math.toRadians(angle + IMAGE_ANGLE);
+        float spawnX = this.location.x
+            + (float) (Math.cos(a) * basePoint.x - Math.sin(a) * basePoint.y);
+        float spawnY = this.location.y
+            + (float) (Math.sin(a) * basePoint.x + Math.cos(a) * basePoint.y);
+        double angle = Util.getAngleBetweenPoints(this.location.x, this.location.y, spawnX, spawnY);
+
+        Projectile projectile = simulation.acquireProjectile(stats.getProjectileType());
+        projectile.reset(this,
+            spawnX,
+            spawnY,
+            target,
+            (float) angle,
+            stats.getProjectileSpeed(),
+            stats.getProjectileDamage(),
+            stats.getProjectileRange(),
+            stats.getProjectilePierce(),
+            stats.getProjectileSlowTime(),
+            stats.getProjectileSlowRate()
         );
-        double angle = Util.getAngleBetweenPoints(this.location, spawnPoint);
-
-        projectiles.add(
-            new Projectile(context, this,
-                spawnPoint,
-                stats.getProjectileType(),
-                target,
-                (float) angle,
-                stats.getProjectileSpeed(),
-                stats.getProjectileDamage(),
-                stats.getProjectileRange(),
-                stats.getProjectilePierce(),
-                stats.getProjectileSlowTime(),
-                stats.getProjectileSlowRate()
-            ));
+        projectiles.add(projectile);
+    }
+
+    /**
+     * Removes all projectiles shot by this Tower and returns them to the simulation's pool, e.g.
+     * when this Tower is removed
+     */
+    public void clearProjectiles(Simulation simulation) {
+        for (Projectile p : projectiles) {
+            simulation.releaseProjectile(p);
+        }
+        projectiles.clear();
     }
 
     @Override
@@ -489,8 +617,21 @@ public class Tower extends AbstractMapObject implements Serializable, SoundSourc
         this.angle = START_ANGLE - IMAGE_ANGLE;
 
         this.audioShoot = type.shootSoundID >= 0
-            ? new AdvancedSoundPlayer(this.type.shootSoundID)
+            ? new SfxPlayer(this.type.shootSoundID, SoundScheduler.PRIORITY_LOW)
             : null;
+
+        // saves from before targeting modes existed
+        if (this.targetMode == null) {
+            this.targetMode = TargetMode.FIRST;
+        }
+    }
+
+    public TargetMode getTargetMode() {
+        return targetMode;
+    }
+
+    public void setTargetMode(TargetMode targetMode) {
+        this.targetMode = targetMode;
     }
 
     public int getKillCount() {
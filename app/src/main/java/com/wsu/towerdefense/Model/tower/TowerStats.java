@@ -1,15 +1,11 @@
 package com.wsu.towerdefense.Model.tower;
 
-import android.content.Context;
 import android.graphics.Bitmap;
 import com.wsu.towerdefense.Application;
 import com.wsu.towerdefense.Model.Projectile;
 import com.wsu.towerdefense.Model.tower.Upgrade.Effect;
 import com.wsu.towerdefense.Model.tower.Upgrade.StatType;
-import com.wsu.towerdefense.Util;
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import com.wsu.towerdefense.graphics.SpriteCache;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,10 +23,18 @@ import java.util.List;
  */
 public class TowerStats implements Serializable {
 
+    /**
+     * Computed UID of the class that existing saves were written with
+     */
+    private static final long serialVersionUID = -7035385726243197961L;
+
     private static final float REFUND_PERCENT = 0.5f;
 
     private final Tower.Type type;
 
+    /**
+     * Upgrades of the tower type, read when they are first needed, see {@link #getUpgradeData()}
+     */
     private transient TowerUpgradeData upgradeData;
     /**
      * Number of upgrades in each path. <code>0</code> represents no upgrades
@@ -49,13 +53,15 @@ public class TowerStats implements Serializable {
     private int sellPrice;
     private Projectile.Type projectileType;
     private int turretImageID;
+    /**
+     * Decoded when it is first drawn, see {@link #getTurretImage()}
+     */
     private transient Bitmap turretImage;
 
-    public TowerStats(Context context, Tower.Type type) {
+    public TowerStats(Tower.Type type) {
         this.type = type;
 
-        this.upgradeData = UpgradeReader.get(type);
-        this.upgradeProgress = new int[this.upgradeData.paths.length];
+        this.upgradeProgress = new int[TowerUpgradeData.NUM_PATHS];
 
         this.range = type.range;
         this.fireRate = type.fireRate;
@@ -69,7 +75,16 @@ public class TowerStats implements Serializable {
         this.canSeeInvisible = type.canSeeInvisible;
         this.projectileType = type.projectileType;
         this.turretImageID = type.towerResID;
-        this.turretImage = Util.getBitmapByID(context, type.towerResID);
+    }
+
+    /**
+     * @return upgrades of the tower type, waiting for them to be read
+     */
+    private TowerUpgradeData getUpgradeData() {
+        if (upgradeData == null) {
+            upgradeData = UpgradeReader.get(type);
+        }
+        return upgradeData;
     }
 
     /**
@@ -91,8 +106,8 @@ public class TowerStats implements Serializable {
      * @return {@link Upgrade} that was applied, or <code>null</code> if the upgrade was not applied
      */
     public Upgrade upgrade(int pathNumber) {
-        if (pathNumber < upgradeData.paths.length) {
-            Upgrade[] path = upgradeData.paths[pathNumber];
+        if (pathNumber < getUpgradeData().paths.length) {
+            Upgrade[] path = getUpgradeData().paths[pathNumber];
             if (upgradeProgress[pathNumber] < path.length && canUpgrade(pathNumber)) {
                 upgradeProgress[pathNumber]++;
 
@@ -206,9 +221,9 @@ public class TowerStats implements Serializable {
     private List<Upgrade> getActiveUpgrades() {
         List<Upgrade> upgrades = new ArrayList<>();
 
-        for (int pathIndex = 0; pathIndex < upgradeData.paths.length; pathIndex++) {
+        for (int pathIndex = 0; pathIndex < getUpgradeData().paths.length; pathIndex++) {
             for (int i = 0; i < upgradeProgress[pathIndex]; i++) {
-                Upgrade upgrade = upgradeData.paths[pathIndex][i];
+                Upgrade upgrade = getUpgradeData().paths[pathIndex][i];
                 upgrades.add(upgrade);
             }
         }
@@ -279,7 +294,13 @@ public class TowerStats implements Serializable {
         return projectileType;
     }
 
+    /**
+     * @return image of the turret, decoding it the first time
+     */
     public Bitmap getTurretImage() {
+        if (turretImage == null) {
+            turretImage = SpriteCache.get(Application.context, turretImageID);
+        }
         return turretImage;
     }
 
@@ -288,23 +309,12 @@ public class TowerStats implements Serializable {
     }
 
     public Upgrade getUpgrade(int pathNumber, boolean next) {
-        Upgrade[] path = upgradeData.paths[pathNumber];
+        Upgrade[] path = getUpgradeData().paths[pathNumber];
         int upgradeIndex = upgradeProgress[pathNumber] - 1 + (next ? 1 : 0);
         return path[upgradeIndex];
     }
 
     public boolean isMaxUpgraded(int pathNumber) {
-        return upgradeProgress[pathNumber] == upgradeData.paths[pathNumber].length;
-    }
-
-    private void writeObject(ObjectOutputStream out) throws IOException {
-        out.defaultWriteObject();
-    }
-
-    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        in.defaultReadObject();
-
-        upgradeData = UpgradeReader.get(type);
-        turretImage = Util.getBitmapByID(Application.context, turretImageID);
+        return upgradeProgress[pathNumber] == getUpgradeData().paths[pathNumber].length;
     }
 }
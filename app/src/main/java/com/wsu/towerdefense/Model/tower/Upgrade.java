@@ -2,7 +2,7 @@ package com.wsu.towerdefense.Model.tower;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import com.wsu.towerdefense.Util;
+import com.wsu.towerdefense.graphics.SpriteCache;
 
 /**
  * A static upgrade that can be applied to a tower
@@ -39,6 +39,11 @@ public class Upgrade {
     public final String description;
     public final int cost;
     public final int imageID;
+    /**
+     * Turret sprite of a tower with this upgrade. It is drawn at its full size and shared with
+     * every tower using it, so it comes from {@link SpriteCache} rather than being decoded to fit
+     * a view.
+     */
     public final Bitmap image;
     public final Effect<?>[] effects;
 
@@ -48,7 +53,7 @@ public class Upgrade {
         this.description = description;
         this.cost = cost;
         this.imageID = imageID;
-        this.image = Util.getBitmapByID(context, imageID);
+        this.image = SpriteCache.get(context, imageID);
         this.effects = effects;
     }
 }
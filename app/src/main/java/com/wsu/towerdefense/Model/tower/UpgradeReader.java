@@ -6,12 +6,17 @@ import com.wsu.towerdefense.Model.Projectile;
 import com.wsu.towerdefense.Model.tower.Upgrade.Effect;
 import com.wsu.towerdefense.Model.tower.Upgrade.StatType;
 import com.wsu.towerdefense.R;
+import com.wsu.towerdefense.StartupTrace;
 import com.wsu.towerdefense.Util;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -45,46 +50,87 @@ import org.json.JSONObject;
  */
 public class UpgradeReader {
 
-    private static final java.util.Map<Tower.Type, TowerUpgradeData> upgrades = new HashMap<>();
+    private static final String UPGRADES_DIR = "upgrades";
+
+    private static final java.util.Map<Tower.Type, TowerUpgradeData> upgrades =
+        new ConcurrentHashMap<>();
+    private static CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
 
     /**
-     * Reads all upgrades from disk and stores them in {@link #upgrades}
+     * Reads all upgrades from disk and stores them in {@link #upgrades}, once <code>after</code>
+     * has completed. Each file is read, and its images decoded, on <code>executor</code>. {@link
+     * #get(Tower.Type)} waits for the returned future as soon as this returns.
      *
-     * @throws IOException when 'assets/upgrades/' directory can't be read
+     * @param after future that must complete before upgrades are read
+     * @return future that completes once every file has been read, or completes exceptionally
+     * with an {@link IOException} when 'assets/upgrades/' directory can't be read
      */
-    public static void init(Context context) throws IOException {
-        String[] files = context.getAssets().list("upgrades");
-        for (String fileName : files) {
+    public static CompletableFuture<Void> init(Context context, Executor executor,
+        CompletableFuture<?> after) {
+        ready = after.thenApplyAsync(result -> {
             try {
-                Log.i(context.getString(R.string.logcatKey),
-                    "Found upgrade file '" + fileName + "'");
-                String data = Util.readFile(context, "upgrades/" + fileName);
-
-                String towerName = fileName.substring(0, fileName.lastIndexOf('.'));
-                Tower.Type towerType = Tower.Type.valueOf(towerName);
-
-                TowerUpgradeData towerUpgradeData = parseUpgrades(context, data);
-                upgrades.put(towerType, towerUpgradeData);
-                Log.i(context.getString(R.string.logcatKey),
-                    "Registered upgrades for tower '" + towerName + "'");
-            } catch (IOException | JSONException | IllegalArgumentException e) {
-                Log.e(context.getString(R.string.logcatKey),
-                    "Error while reading upgrades file '" + fileName + "'"
-                    , e);
+                return context.getAssets().list(UPGRADES_DIR);
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
+        }, executor).thenCompose(files -> CompletableFuture.allOf(Arrays.stream(files)
+            .map(fileName -> CompletableFuture.runAsync(
+                () -> readUpgrades(context, fileName), executor))
+            .toArray(CompletableFuture[]::new)
+        ));
+        return ready;
+    }
+
+    private static void readUpgrades(Context context, String fileName) {
+        String path = UPGRADES_DIR + "/" + fileName;
+        try {
+            Log.i(context.getString(R.string.logcatKey),
+                "Found upgrade file '" + fileName + "'");
+            long start = StartupTrace.begin();
+            String data = Util.readFile(context, path);
+            StartupTrace.end(path, StartupTrace.Phase.READ, start);
+
+            String towerName = fileName.substring(0, fileName.lastIndexOf('.'));
+            Tower.Type towerType = Tower.Type.valueOf(towerName);
+
+            // includes decoding upgrade images, which are also traced on their own
+            start = StartupTrace.begin();
+            TowerUpgradeData towerUpgradeData = parseUpgrades(context, data);
+            StartupTrace.end(path, StartupTrace.Phase.PARSE, start);
+            upgrades.put(towerType, towerUpgradeData);
+            Log.i(context.getString(R.string.logcatKey),
+                "Registered upgrades for tower '" + towerName + "'");
+        } catch (IOException | JSONException | IllegalArgumentException e) {
+            Log.e(context.getString(R.string.logcatKey),
+                "Error while reading upgrades file '" + fileName + "'"
+                , e);
         }
     }
 
     /**
-     * Get the {@link TowerUpgradeData} with the corresponding tower type
+     * @return future that completes once all upgrades have been read
+     */
+    public static CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /**
+     * Get the {@link TowerUpgradeData} with the corresponding tower type, waiting for upgrades to
+     * be read
      *
      * @param type type of the tower
      * @return corresponding {@link TowerUpgradeData}
      * @throws IllegalArgumentException when tower type <code>type</code> has no upgrades defined
      */
     public static TowerUpgradeData get(Tower.Type type) {
-        if (upgrades.containsKey(type)) {
-            return upgrades.get(type);
+        try {
+            ready.join();
+        } catch (CompletionException e) {
+            // logged by the caller of init, upgrades that failed to load are missing
+        }
+        TowerUpgradeData data = upgrades.get(type);
+        if (data != null) {
+            return data;
         } else {
             throw new IllegalArgumentException("Invalid tower type '" + type.toString() + "'");
         }
@@ -139,7 +185,8 @@ public class UpgradeReader {
         }
         List<Effect<?>> effects = parseEffects(upgrade);
 
-        return new Upgrade(
+        long start = StartupTrace.begin();
+        Upgrade result = new Upgrade(
             context,
             displayName,
             description,
@@ -147,6 +194,8 @@ public class UpgradeReader {
             imageID,
             effects.toArray(new Effect[0])
         );
+        StartupTrace.end(image, StartupTrace.Phase.DECODE, start);
+        return result;
     }
 
     private static List<Effect<?>> parseEffects(JSONObject upgrade) throws JSONException {
@@ -0,0 +1,107 @@
+package com.wsu.towerdefense;
+
+import java.util.ArrayDeque;
+
+/**
+ * A pool of reusable objects, used to avoid allocating short-lived game objects (and the garbage
+ * collection that follows) while a wave is running. Objects are taken with {@link #acquire()} and
+ * given back with {@link #release(Object)} once they are no longer referenced by the game.
+ * Resetting the state of an acquired object is up to the caller.
+ * <p>
+ * Not thread safe, a pool should only be used from the thread that updates the game.
+ *
+ * @param <T> type of pooled objects
+ */
+public class ObjectPool<T> {
+
+    /**
+     * Creates new objects when the pool is empty
+     */
+    public interface Factory<T> {
+
+        T create();
+    }
+
+    private final Factory<T> factory;
+    private final ArrayDeque<T> free = new ArrayDeque<>();
+
+    private int inUse = 0;
+    private int peakInUse = 0;
+    private int created = 0;
+    private int misses = 0;
+
+    public ObjectPool(Factory<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Takes an object from the pool, creating a new one if the pool is empty. Creating an object
+     * counts as a miss.
+     */
+    public T acquire() {
+        T obj = free.pollLast();
+        if (obj == null) {
+            obj = factory.create();
+            created++;
+            misses++;
+        }
+
+        inUse++;
+        peakInUse = Math.max(peakInUse, inUse);
+        return obj;
+    }
+
+    /**
+     * Returns an object to the pool. The object must have been acquired from this pool, and must
+     * not be used by the caller afterwards.
+     */
+    public void release(T obj) {
+        if (inUse == 0) {
+            throw new IllegalStateException("Released more objects than were acquired");
+        }
+        inUse--;
+        free.addLast(obj);
+    }
+
+    /**
+     * Creates objects ahead of time until at least <code>capacity</code> objects exist, counting
+     * both free objects and objects in use. Objects created here don't count as misses.
+     *
+     * @param capacity number of objects expected to be in use at once
+     */
+    public void prewarm(int capacity) {
+        while (inUse + free.size() < capacity) {
+            free.addLast(factory.create());
+            created++;
+        }
+    }
+
+    public int getInUse() {
+        return inUse;
+    }
+
+    public int getFree() {
+        return free.size();
+    }
+
+    /**
+     * @return highest number of objects in use at once
+     */
+    public int getPeakInUse() {
+        return peakInUse;
+    }
+
+    /**
+     * @return number of objects created, including by {@link #prewarm(int)}
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * @return number of times {@link #acquire()} found the pool empty
+     */
+    public int getMisses() {
+        return misses;
+    }
+}
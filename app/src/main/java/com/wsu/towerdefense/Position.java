@@ -0,0 +1,29 @@
+package com.wsu.towerdefense;
+
+/**
+ * A mutable point on the map, in pixels. Used instead of {@link android.graphics.PointF} by the
+ * game logic, so that a {@link com.wsu.towerdefense.Model.Simulation} can run without Android.
+ */
+public class Position {
+
+    public float x;
+    public float y;
+
+    public Position() {
+    }
+
+    public Position(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public void set(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public void offset(float dx, float dy) {
+        this.x += dx;
+        this.y += dy;
+    }
+}
@@ -0,0 +1,96 @@
+package com.wsu.towerdefense;
+
+/**
+ * Picks the resolution the game is drawn at, based on how long recent frames took to draw. Frame
+ * times are smoothed with an exponential moving average. When the average exceeds the budget the
+ * scale is lowered by one step, and when it drops well below the budget it is raised again.
+ * <p>
+ * After each change the scaler waits {@link #COOLDOWN_FRAMES} frames before changing the scale
+ * again, so that the average can settle at the new resolution.
+ */
+public class ResolutionScaler {
+
+    /**
+     * Weight of the latest frame in the moving average
+     */
+    private static final double SMOOTHING = 0.1;
+    /**
+     * The scale is raised once the average frame time is below this fraction of the budget
+     */
+    private static final double HEADROOM = 0.6;
+    private static final int COOLDOWN_FRAMES = 30;
+
+    private final long budgetNanos;
+    private final float minScale;
+    private final float step;
+
+    private float scale = 1;
+    private double averageNanos = 0;
+    private int cooldown = 0;
+
+    /**
+     * @param budgetNanos time a frame may take to draw, in nanoseconds
+     * @param minScale    lowest scale to draw at, in (0, 1]
+     * @param step        amount the scale changes by at once
+     */
+    public ResolutionScaler(long budgetNanos, float minScale, float step) {
+        if (budgetNanos <= 0 || minScale <= 0 || minScale > 1 || step <= 0) {
+            throw new IllegalArgumentException("Invalid budget, minimum scale or step");
+        }
+        this.budgetNanos = budgetNanos;
+        this.minScale = minScale;
+        this.step = step;
+    }
+
+    /**
+     * Records the time it took to draw a frame, and adjusts the scale if needed
+     *
+     * @param frameNanos time spent drawing the frame, in nanoseconds
+     * @return whether the scale changed
+     */
+    public boolean onFrame(long frameNanos) {
+        averageNanos += SMOOTHING * (frameNanos - averageNanos);
+
+        if (cooldown > 0) {
+            cooldown--;
+            return false;
+        }
+
+        float newScale = scale;
+        if (averageNanos > budgetNanos) {
+            newScale = Math.max(minScale, scale - step);
+        } else if (averageNanos < budgetNanos * HEADROOM) {
+            newScale = Math.min(1, scale + step);
+        }
+
+        if (newScale != scale) {
+            scale = newScale;
+            cooldown = COOLDOWN_FRAMES;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Go back to full resolution, e.g. when dynamic resolution is turned off
+     */
+    public void reset() {
+        scale = 1;
+        averageNanos = 0;
+        cooldown = 0;
+    }
+
+    /**
+     * @return fraction of the full resolution to draw at, in [minScale, 1]
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * @return average time spent drawing a frame, in nanoseconds
+     */
+    public double getAverageFrameNanos() {
+        return averageNanos;
+    }
+}
@@ -3,8 +3,27 @@ package com.wsu.towerdefense;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+/**
+ * In-memory copy of the user's settings. The settings are read from {@link SharedPreferences}
+ * once, in {@link #init(Context)}, and kept up to date by a listener when they are written, e.g.
+ * by the settings screen. Reading a setting is a single volatile read, so it can be done for every
+ * sound played by the game.
+ */
 public class Settings {
 
+    /**
+     * Value of settings that haven't been loaded yet
+     */
+    private static final float UNSET = Float.NaN;
+
+    private static volatile float musicVolume = UNSET;
+    private static volatile float sfxVolume = UNSET;
+
+    /**
+     * {@link SharedPreferences} only keeps weak references to its listeners
+     */
+    private static SharedPreferences.OnSharedPreferenceChangeListener listener = null;
+
     private static SharedPreferences getSharedPreferences(Context context) {
         return context.getSharedPreferences(
             context.getString(R.string.pref_file_key),
@@ -12,19 +31,50 @@ public class Settings {
         );
     }
 
+    /**
+     * Loads the settings and starts listening for changes. Run once per application, getters
+     * call it if it hasn't been run yet.
+     */
+    public static synchronized void init(Context context) {
+        if (listener != null) {
+            return;
+        }
+        Context appContext = context.getApplicationContext();
+        SharedPreferences preferences = getSharedPreferences(appContext);
+        String musicKey = appContext.getString(R.string.pref_key_music_volume);
+        String sfxKey = appContext.getString(R.string.pref_key_sfx_volume);
+        long defaultVolume = appContext.getResources().getInteger(R.integer.pref_def_volume);
+
+        listener = (prefs, key) -> {
+            // key is null when the preferences are cleared
+            if (key == null || musicKey.equals(key)) {
+                musicVolume = prefs.getLong(musicKey, defaultVolume);
+            }
+            if (key == null || sfxKey.equals(key)) {
+                sfxVolume = prefs.getLong(sfxKey, defaultVolume);
+            }
+        };
+        preferences.registerOnSharedPreferenceChangeListener(listener);
+
+        musicVolume = preferences.getLong(musicKey, defaultVolume);
+        sfxVolume = preferences.getLong(sfxKey, defaultVolume);
+    }
+
     public static float getMusicVolume(Context context) {
-        return getSharedPreferences(context)
-            .getLong(
-                context.getString(R.string.pref_key_music_volume),
-                context.getResources().getInteger(R.integer.pref_def_volume)
-            );
+        float volume = musicVolume;
+        if (Float.isNaN(volume)) {
+            init(context);
+            volume = musicVolume;
+        }
+        return volume;
     }
 
     public static float getSFXVolume(Context context) {
-        return getSharedPreferences(context)
-            .getLong(
-                context.getString(R.string.pref_key_sfx_volume),
-                context.getResources().getInteger(R.integer.pref_def_volume)
-            );
+        float volume = sfxVolume;
+        if (Float.isNaN(volume)) {
+            init(context);
+            volume = sfxVolume;
+        }
+        return volume;
     }
 }
@@ -0,0 +1,115 @@
+package com.wsu.towerdefense;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how long each asset file took to load at startup, split into spans for reading,
+ * parsing and decoding. Spans can be recorded from any thread and are dumped as text, sorted by
+ * start time, from the debug menu in the settings screen.
+ * <p>
+ * Usage:
+ * <pre>
+ * long start = StartupTrace.begin();
+ * String data = Util.readFile(context, fileName);
+ * StartupTrace.end(fileName, StartupTrace.Phase.READ, start);
+ * </pre>
+ * At most {@link #MAX_SPANS} spans are kept, later spans are dropped.
+ */
+public class StartupTrace {
+
+    public enum Phase {
+        READ,
+        PARSE,
+        DECODE,
+    }
+
+    public static class Span {
+
+        public final String file;
+        public final Phase phase;
+        public final String thread;
+        /**
+         * Start time, in nanoseconds since {@link #reset()}
+         */
+        public final long startNanos;
+        public final long durationNanos;
+
+        Span(String file, Phase phase, String thread, long startNanos, long durationNanos) {
+            this.file = file;
+            this.phase = phase;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    static final int MAX_SPANS = 1000;
+
+    private static final Queue<Span> spans = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger spanCount = new AtomicInteger();
+    private static volatile long origin = System.nanoTime();
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Clears the trace and starts measuring times from now, e.g. when the application starts
+     */
+    public static void reset() {
+        spans.clear();
+        spanCount.set(0);
+        origin = System.nanoTime();
+    }
+
+    /**
+     * @return start time to pass to {@link #end(String, Phase, long)}
+     */
+    public static long begin() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a span that started at <code>start</code> and ends now
+     *
+     * @param file  asset file the span belongs to
+     * @param phase what was done to the file
+     * @param start value returned by {@link #begin()}
+     */
+    public static void end(String file, Phase phase, long start) {
+        long now = System.nanoTime();
+        if (spanCount.incrementAndGet() > MAX_SPANS) {
+            return;
+        }
+        spans.add(new Span(file, phase, Thread.currentThread().getName(), start - origin,
+            now - start));
+    }
+
+    /**
+     * @return all recorded spans, sorted by start time
+     */
+    public static List<Span> getSpans() {
+        List<Span> sorted = new ArrayList<>(spans);
+        Collections.sort(sorted, Comparator.comparingLong(span -> span.startNanos));
+        return sorted;
+    }
+
+    /**
+     * @return one line per span: start and duration in milliseconds, phase, file and thread
+     */
+    public static String dump() {
+        StringBuilder text = new StringBuilder();
+        for (Span span : getSpans()) {
+            text.append(String.format(Locale.US, "%8.2f %7.2f  %-6s %s [%s]%n",
+                span.startNanos / 1e6, span.durationNanos / 1e6, span.phase, span.file,
+                span.thread));
+        }
+        return text.toString();
+    }
+}
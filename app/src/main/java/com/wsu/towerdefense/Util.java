@@ -2,12 +2,13 @@ package com.wsu.towerdefense;
 
 import android.content.Context;
 import android.content.res.Resources;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.graphics.Point;
 import android.graphics.PointF;
+import android.util.DisplayMetrics;
 import android.util.TypedValue;
 import android.view.View;
 import android.view.Window;
+import android.view.WindowManager;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -97,9 +98,17 @@ public class Util {
      * @return The angle between the line and the horizontal axis
      */
     public static double getAngleBetweenPoints(PointF start, PointF end) {
+        return getAngleBetweenPoints(start.x, start.y, end.x, end.y);
+    }
+
+    /**
+     * Same as {@link #getAngleBetweenPoints(PointF, PointF)}, without needing PointF objects
+     */
+    public static double getAngleBetweenPoints(float startX, float startY, float endX,
+        float endY) {
         // TODO: keep in radians?
-        double deltaY = (end.y - start.y);
-        double deltaX = (end.x - start.x);
+        double deltaY = (endY - startY);
+        double deltaX = (endX - startX);
         double result = Math.toDegrees(Math.atan2(deltaY, deltaX));
         return (result < 0) ? (360d + result) : result;
     }
@@ -112,10 +121,15 @@ public class Util {
         );
     }
 
-    public static Bitmap getBitmapByID(Context context, int resourceID) {
-        return BitmapFactory.decodeResource(
-            context.getResources(),
-            resourceID
+    /**
+     * @return size of the whole screen in landscape orientation, including system bars
+     */
+    public static Point getScreenSize(Context context) {
+        DisplayMetrics metrics = new DisplayMetrics();
+        context.getSystemService(WindowManager.class).getDefaultDisplay().getRealMetrics(metrics);
+        return new Point(
+            Math.max(metrics.widthPixels, metrics.heightPixels),
+            Math.min(metrics.widthPixels, metrics.heightPixels)
         );
     }
 
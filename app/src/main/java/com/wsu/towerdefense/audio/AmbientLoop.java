@@ -0,0 +1,105 @@
+package com.wsu.towerdefense.audio;
+
+/**
+ * A single looping voice shared by everything that makes the same continuous sound, e.g. all
+ * rockets in flight. Each source registers as an emitter while it is making the sound; the voice
+ * starts when the first emitter is added, stops when the last one is removed, and gets louder as
+ * emitters are added, the same way as merged sounds in {@link SoundScheduler}.
+ * <p>
+ * Every {@link #addEmitter(float)} must be matched by one {@link #removeEmitter()}.
+ */
+public class AmbientLoop {
+
+    /**
+     * Starts and changes looping voices
+     */
+    public interface Voices {
+
+        /**
+         * @param volume gain, from 0 to 1
+         * @return ID of the new looping voice, or 0 if it couldn't be started
+         */
+        int start(int soundID, float volume);
+
+        void setVolume(int voiceID, float volume);
+
+        void stop(int voiceID);
+    }
+
+    private final Voices voices;
+    private final int soundID;
+
+    private int emitters = 0;
+    private float volume = 0;
+    private int voiceID = 0;
+    private float voiceVolume = 0;
+
+    public AmbientLoop(Voices voices, int soundID) {
+        this.voices = voices;
+        this.soundID = soundID;
+    }
+
+    /**
+     * Adds a source of the sound, starting the voice if needed
+     *
+     * @param volume gain of a single source, from 0 to 1
+     */
+    public synchronized void addEmitter(float volume) {
+        emitters++;
+        this.volume = volume;
+        update();
+    }
+
+    /**
+     * Removes a source of the sound, stopping the voice when there are none left
+     */
+    public synchronized void removeEmitter() {
+        if (emitters == 0) {
+            // already cleared by stop()
+            return;
+        }
+        emitters--;
+        update();
+    }
+
+    /**
+     * Stops the voice and forgets all emitters, e.g. when a game ends
+     */
+    public synchronized void stop() {
+        emitters = 0;
+        update();
+    }
+
+    private void update() {
+        if (emitters == 0) {
+            if (voiceID != 0) {
+                voices.stop(voiceID);
+                voiceID = 0;
+            }
+            return;
+        }
+
+        float gain = SoundScheduler.coalescedVolume(volume, emitters);
+        if (voiceID == 0) {
+            // also retries a voice that couldn't be started, e.g. before the sound was loaded
+            voiceID = voices.start(soundID, gain);
+        } else if (gain != voiceVolume) {
+            voices.setVolume(voiceID, gain);
+        }
+        voiceVolume = gain;
+    }
+
+    /**
+     * @return number of sources making the sound
+     */
+    public synchronized int getEmitterCount() {
+        return emitters;
+    }
+
+    /**
+     * @return whether the voice is playing
+     */
+    public synchronized boolean isPlaying() {
+        return voiceID != 0;
+    }
+}
@@ -0,0 +1,225 @@
+package com.wsu.towerdefense.audio;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded queue of audio commands, filled by the game and UI threads and drained by a single
+ * audio thread. Commands are stored in preallocated arrays, so queueing one doesn't allocate.
+ * Queueing never waits for the audio thread.
+ * <p>
+ * {@link #PLAY} and {@link #SET_VOLUME} commands are dropped once the queue is full, except for
+ * its reserved slots, as a late sound is worse than a missing one. Other commands can use the
+ * reserved slots, so that a looping sound is never left playing. If those are full as well, the
+ * queue grows to fit them.
+ */
+public class AudioCommandQueue {
+
+    /**
+     * Loads a sound, <code>soundID</code> is the resource ID
+     */
+    public static final int LOAD = 0;
+    /**
+     * Starts <code>soundID</code> as voice <code>voiceID</code>
+     */
+    public static final int PLAY = 1;
+    public static final int STOP = 2;
+    public static final int SET_VOLUME = 3;
+    public static final int PAUSE_ALL = 4;
+    public static final int RESUME_ALL = 5;
+
+    /**
+     * A dequeued command, filled in by {@link #take(Command)}
+     */
+    public static class Command {
+
+        public int type;
+        public int voiceID;
+        public int soundID;
+        public float volume;
+        public boolean loop;
+        /**
+         * Time the command was queued, in nanoseconds
+         */
+        public long enqueueNanos;
+    }
+
+    /**
+     * Number of commands that can be queued before {@link #PLAY} and {@link #SET_VOLUME} are
+     * dropped
+     */
+    private final int droppableCapacity;
+    private final LongSupplier clock;
+
+    private int capacity;
+    private int[] types;
+    private int[] voiceIDs;
+    private int[] soundIDs;
+    private float[] volumes;
+    private boolean[] loops;
+    private long[] enqueueNanos;
+
+    private int head = 0;
+    private int size = 0;
+
+    private int maxDepth = 0;
+    private long maxLatencyNanos = 0;
+    private int dropped = 0;
+    private int grown = 0;
+
+    /**
+     * @param capacity number of commands that can be queued without growing the queue
+     * @param reserved number of those that can't be used by {@link #PLAY} and {@link
+     *                 #SET_VOLUME}
+     */
+    public AudioCommandQueue(int capacity, int reserved) {
+        this(capacity, reserved, System::nanoTime);
+    }
+
+    /**
+     * @param capacity number of commands that can be queued without growing the queue
+     * @param reserved number of those that can't be used by {@link #PLAY} and {@link
+     *                 #SET_VOLUME}
+     * @param clock    source of the current time, in nanoseconds
+     */
+    public AudioCommandQueue(int capacity, int reserved, LongSupplier clock) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (reserved < 0 || reserved >= capacity) {
+            throw new IllegalArgumentException("Reserved slots must be less than the capacity");
+        }
+        this.droppableCapacity = capacity - reserved;
+        this.clock = clock;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.types = new int[capacity];
+        this.voiceIDs = new int[capacity];
+        this.soundIDs = new int[capacity];
+        this.volumes = new float[capacity];
+        this.loops = new boolean[capacity];
+        this.enqueueNanos = new long[capacity];
+    }
+
+    /**
+     * Doubles the capacity, keeping queued commands in order
+     */
+    private void grow() {
+        int[] types = this.types;
+        int[] voiceIDs = this.voiceIDs;
+        int[] soundIDs = this.soundIDs;
+        float[] volumes = this.volumes;
+        boolean[] loops = this.loops;
+        long[] enqueueNanos = this.enqueueNanos;
+        int oldCapacity = capacity;
+
+        allocate(oldCapacity * 2);
+        for (int k = 0; k < size; k++) {
+            int i = (head + k) % oldCapacity;
+            this.types[k] = types[i];
+            this.voiceIDs[k] = voiceIDs[i];
+            this.soundIDs[k] = soundIDs[i];
+            this.volumes[k] = volumes[i];
+            this.loops[k] = loops[i];
+            this.enqueueNanos[k] = enqueueNanos[i];
+        }
+        head = 0;
+        grown++;
+    }
+
+    /**
+     * Queues a command, without waiting
+     *
+     * @param type one of the command constants
+     * @return false if the command was dropped because the queue is full
+     */
+    public synchronized boolean offer(int type, int voiceID, int soundID, float volume,
+        boolean loop) {
+        if (type == PLAY || type == SET_VOLUME) {
+            if (size >= droppableCapacity) {
+                dropped++;
+                return false;
+            }
+        } else if (size == capacity) {
+            grow();
+        }
+
+        int i = (head + size) % capacity;
+        types[i] = type;
+        voiceIDs[i] = voiceID;
+        soundIDs[i] = soundID;
+        volumes[i] = volume;
+        loops[i] = loop;
+        enqueueNanos[i] = clock.getAsLong();
+        size++;
+        maxDepth = Math.max(maxDepth, size);
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Removes the oldest command, waiting for one if the queue is empty
+     *
+     * @param out filled in with the command
+     */
+    public synchronized void take(Command out) throws InterruptedException {
+        while (size == 0) {
+            wait();
+        }
+
+        out.type = types[head];
+        out.voiceID = voiceIDs[head];
+        out.soundID = soundIDs[head];
+        out.volume = volumes[head];
+        out.loop = loops[head];
+        out.enqueueNanos = enqueueNanos[head];
+        head = (head + 1) % capacity;
+        size--;
+    }
+
+    /**
+     * Records the time between queueing a {@link #PLAY} command and starting its sound, called by
+     * the audio thread once the sound has started
+     */
+    public synchronized void recordPlayed(Command command) {
+        maxLatencyNanos = Math.max(maxLatencyNanos, clock.getAsLong() - command.enqueueNanos);
+    }
+
+    /**
+     * @return number of commands waiting
+     */
+    public synchronized int getDepth() {
+        return size;
+    }
+
+    /**
+     * @return largest number of commands that were waiting at once
+     */
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return longest time between queueing a {@link #PLAY} command and starting its sound, in
+     * nanoseconds
+     */
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * @return number of commands dropped because the queue was full
+     */
+    public synchronized int getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * @return number of times the queue grew because its reserved slots were full
+     */
+    public synchronized int getGrownCount() {
+        return grown;
+    }
+}
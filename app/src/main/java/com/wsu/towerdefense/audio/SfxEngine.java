@@ -0,0 +1,402 @@
+package com.wsu.towerdefense.audio;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.MediaMetadataRetriever;
+import android.media.SoundPool;
+import android.os.Process;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
+import android.util.SparseLongArray;
+import com.wsu.towerdefense.R;
+import java.io.IOException;
+
+/**
+ * Plays short sound effects from a shared {@link SoundPool}. Each effect is decoded once when it
+ * is loaded, so playing it only starts a new stream.
+ * <p>
+ * Calls into the SoundPool are made by a dedicated audio thread: loading, playing and stopping
+ * effects only queue a command in an {@link AudioCommandQueue}, so a slow audio system can't
+ * delay the game thread. Streams are referred to by voice IDs handed out when a play is queued,
+ * which the audio thread maps to the SoundPool's stream IDs.
+ * <p>
+ * Loading happens in the background. Plays of an effect that hasn't finished loading are
+ * dropped, so effects used in games are loaded when the engine is created.
+ * <p>
+ * Effects played during a game tick go through a {@link SoundScheduler}, see {@link
+ * #schedule(int, float, int)}, which merges repeats of the same effect and limits how many
+ * streams each effect can use.
+ */
+public class SfxEngine {
+
+    /**
+     * Streams that can play at once, the oldest lowest priority stream is stopped to start another
+     */
+    private static final int MAX_STREAMS = 16;
+    private static final int PRIORITY = 1;
+    /**
+     * Streams a single effect can use through the scheduler
+     */
+    private static final int MAX_STREAMS_PER_SOUND = 4;
+    private static final int QUEUE_CAPACITY = 128;
+    /**
+     * Queue slots kept for stopping voices and other commands that can't be dropped
+     */
+    private static final int QUEUE_RESERVED = 32;
+    /**
+     * Number of recent one-shot voices the audio thread remembers the stream of, see {@link
+     * VoiceTable}
+     */
+    private static final int VOICE_SLOTS = 4 * MAX_STREAMS;
+    /**
+     * Effects loaded when the engine is created
+     */
+    private static final int[] PRELOAD = new int[]{
+        R.raw.game_tower_shoot_1,
+        R.raw.game_rocket_travel,
+        R.raw.game_rocket_explode,
+        R.raw.game_tower_place,
+        R.raw.ui_button_deny,
+    };
+
+    private static SfxEngine instance = null;
+
+    public static synchronized SfxEngine getInstance(Context context) {
+        if (instance == null) {
+            instance = new SfxEngine(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private final Context context;
+    private final SoundPool pool;
+    /**
+     * SoundPool sample IDs by resource ID, 0 while the audio thread hasn't started loading it
+     */
+    private final SparseIntArray samples = new SparseIntArray();
+    /**
+     * Sample IDs that have finished loading
+     */
+    private final SparseBooleanArray loaded = new SparseBooleanArray();
+    /**
+     * Lengths of effects in nanoseconds, by resource ID
+     */
+    private final SparseLongArray durations = new SparseLongArray();
+    private final SoundScheduler scheduler;
+    private final AmbientLoop.Voices loopVoices;
+    /**
+     * Shared looping voices by resource ID
+     */
+    private final SparseArray<AmbientLoop> loops = new SparseArray<>();
+    private final AudioCommandQueue queue = new AudioCommandQueue(QUEUE_CAPACITY, QUEUE_RESERVED);
+    private int nextVoiceID = 1;
+
+    /**
+     * Voice IDs and their stream IDs, only used by the audio thread
+     */
+    private final VoiceTable voices = new VoiceTable(VOICE_SLOTS);
+
+    private int plays = 0;
+    private int dropped = 0;
+
+    private SfxEngine(Context context) {
+        this.context = context;
+        this.pool = new SoundPool.Builder()
+            .setMaxStreams(MAX_STREAMS)
+            .setAudioAttributes(new AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                .build())
+            .build();
+        this.pool.setOnLoadCompleteListener((soundPool, sampleID, status) -> {
+            if (status == 0) {
+                synchronized (this) {
+                    loaded.put(sampleID, true);
+                }
+            }
+        });
+        this.scheduler = new SoundScheduler(new SoundScheduler.Output() {
+            @Override
+            public int start(int soundID, float volume) {
+                return play(soundID, volume, false);
+            }
+
+            @Override
+            public void stop(int voiceID) {
+                SfxEngine.this.stop(voiceID);
+            }
+
+            @Override
+            public long getDurationNanos(int soundID) {
+                synchronized (SfxEngine.this) {
+                    return durations.get(soundID, 0);
+                }
+            }
+        }, MAX_STREAMS_PER_SOUND, MAX_STREAMS);
+        this.loopVoices = new AmbientLoop.Voices() {
+            @Override
+            public int start(int soundID, float volume) {
+                return play(soundID, volume, true);
+            }
+
+            @Override
+            public void setVolume(int voiceID, float volume) {
+                SfxEngine.this.setVolume(voiceID, volume);
+            }
+
+            @Override
+            public void stop(int voiceID) {
+                SfxEngine.this.stop(voiceID);
+            }
+        };
+
+        Thread thread = new Thread(this::runAudioThread, "SfxAudio");
+        thread.setDaemon(true);
+        thread.start();
+
+        for (int resourceID : PRELOAD) {
+            load(resourceID);
+        }
+    }
+
+    /**
+     * Starts loading the effect with the given resource ID, if it isn't loaded yet
+     */
+    public void load(int resourceID) {
+        synchronized (this) {
+            if (samples.indexOfKey(resourceID) >= 0) {
+                return;
+            }
+            samples.put(resourceID, 0);
+        }
+        // never queue while holding the lock, the audio thread needs it to finish loading
+        queue.offer(AudioCommandQueue.LOAD, 0, resourceID, 0, false);
+    }
+
+    private void runAudioThread() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_AUDIO);
+        AudioCommandQueue.Command command = new AudioCommandQueue.Command();
+        while (true) {
+            try {
+                queue.take(command);
+            } catch (InterruptedException e) {
+                return;
+            }
+            execute(command);
+        }
+    }
+
+    /**
+     * Runs a command on the audio thread
+     */
+    private void execute(AudioCommandQueue.Command command) {
+        switch (command.type) {
+            case AudioCommandQueue.LOAD:
+                int sampleID = pool.load(context, command.soundID, PRIORITY);
+                long duration = readDuration(command.soundID);
+                synchronized (this) {
+                    samples.put(command.soundID, sampleID);
+                    durations.put(command.soundID, duration);
+                }
+                break;
+            case AudioCommandQueue.PLAY:
+                int streamID = pool.play(command.soundID, command.volume, command.volume,
+                    PRIORITY, command.loop ? -1 : 0, 1);
+                voices.put(command.voiceID, streamID, command.loop);
+                queue.recordPlayed(command);
+                break;
+            case AudioCommandQueue.STOP:
+                streamID = voices.remove(command.voiceID);
+                if (streamID != 0) {
+                    pool.stop(streamID);
+                }
+                break;
+            case AudioCommandQueue.SET_VOLUME:
+                streamID = voices.get(command.voiceID);
+                if (streamID != 0) {
+                    pool.setVolume(streamID, command.volume, command.volume);
+                }
+                break;
+            case AudioCommandQueue.PAUSE_ALL:
+                pool.autoPause();
+                break;
+            case AudioCommandQueue.RESUME_ALL:
+                pool.autoResume();
+                break;
+        }
+    }
+
+    /**
+     * @return length of the effect in nanoseconds, or 0 if it can't be read
+     */
+    private long readDuration(int resourceID) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try (AssetFileDescriptor fd = context.getResources().openRawResourceFd(resourceID)) {
+            retriever.setDataSource(fd.getFileDescriptor(), fd.getStartOffset(), fd.getLength());
+            String millis = retriever.extractMetadata(
+                MediaMetadataRetriever.METADATA_KEY_DURATION);
+            return millis == null ? 0 : Long.parseLong(millis) * 1_000_000L;
+        } catch (IOException | RuntimeException e) {
+            Log.e(context.getString(R.string.logcatKey),
+                "Error while reading length of sound effect", e);
+            return 0;
+        } finally {
+            retriever.release();
+        }
+    }
+
+    /**
+     * Asks the scheduler to play an effect. During a tick the effect starts when the tick ends,
+     * merged with other requests for the same effect; otherwise it starts right away. The effect
+     * may be dropped or stop a lower priority effect if too many are playing.
+     *
+     * @param resourceID ID of the raw resource
+     * @param volume     gain, from 0 to 1
+     * @param priority   one of the <code>SoundScheduler.PRIORITY_</code> constants
+     */
+    public void schedule(int resourceID, float volume, int priority) {
+        scheduler.request(resourceID, volume, priority);
+    }
+
+    /**
+     * Starts collecting effects played with {@link #schedule(int, float, int)}, e.g. at the start
+     * of a game update
+     */
+    public void beginTick() {
+        scheduler.beginTick();
+    }
+
+    /**
+     * Plays the effects collected since {@link #beginTick()}
+     */
+    public void endTick() {
+        scheduler.endTick();
+    }
+
+    public SoundScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * @param resourceID ID of the raw resource
+     * @return the looping voice shared by all sources of the effect
+     */
+    public synchronized AmbientLoop getLoop(int resourceID) {
+        AmbientLoop loop = loops.get(resourceID);
+        if (loop == null) {
+            loop = new AmbientLoop(loopVoices, resourceID);
+            loops.put(resourceID, loop);
+        }
+        return loop;
+    }
+
+    /**
+     * Stops all shared looping voices, e.g. when a game ends
+     */
+    public void stopLoops() {
+        AmbientLoop[] stopped;
+        synchronized (this) {
+            stopped = new AmbientLoop[loops.size()];
+            for (int i = 0; i < loops.size(); i++) {
+                stopped[i] = loops.valueAt(i);
+            }
+        }
+        // stop outside the lock, loops take their own lock before the engine's
+        for (AmbientLoop loop : stopped) {
+            loop.stop();
+        }
+    }
+
+    /**
+     * Starts playing an effect
+     *
+     * @param resourceID ID of the raw resource
+     * @param volume     gain, from 0 to 1
+     * @param loop       whether to repeat the effect until it is stopped
+     * @return ID of the new voice, or 0 if the effect isn't loaded or the command queue is full
+     */
+    public int play(int resourceID, float volume, boolean loop) {
+        int sampleID;
+        int voiceID;
+        boolean unknown;
+        synchronized (this) {
+            unknown = samples.indexOfKey(resourceID) < 0;
+            sampleID = samples.get(resourceID, 0);
+            if (sampleID == 0 || !loaded.get(sampleID)) {
+                dropped++;
+                sampleID = 0;
+                voiceID = 0;
+            } else {
+                voiceID = nextVoiceID;
+                nextVoiceID = nextVoiceID == Integer.MAX_VALUE ? 1 : nextVoiceID + 1;
+            }
+        }
+        if (sampleID == 0) {
+            if (unknown) {
+                load(resourceID);
+            }
+            return 0;
+        }
+
+        if (!queue.offer(AudioCommandQueue.PLAY, voiceID, sampleID, volume, loop)) {
+            return 0;
+        }
+        synchronized (this) {
+            plays++;
+        }
+        return voiceID;
+    }
+
+    /**
+     * Stops a voice started by {@link #play}. Does nothing if the voice has already ended.
+     */
+    public void stop(int voiceID) {
+        if (voiceID != 0) {
+            queue.offer(AudioCommandQueue.STOP, voiceID, 0, 0, false);
+        }
+    }
+
+    /**
+     * Changes the gain of a voice started by {@link #play}
+     */
+    public void setVolume(int voiceID, float volume) {
+        if (voiceID != 0) {
+            queue.offer(AudioCommandQueue.SET_VOLUME, voiceID, 0, volume, false);
+        }
+    }
+
+    /**
+     * Pauses all streams, e.g. when the game is paused
+     */
+    public void pauseAll() {
+        queue.offer(AudioCommandQueue.PAUSE_ALL, 0, 0, 0, false);
+    }
+
+    /**
+     * Resumes streams paused by {@link #pauseAll()}
+     */
+    public void resumeAll() {
+        queue.offer(AudioCommandQueue.RESUME_ALL, 0, 0, 0, false);
+    }
+
+    public AudioCommandQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * @return number of streams started
+     */
+    public synchronized int getPlayCount() {
+        return plays;
+    }
+
+    /**
+     * @return number of plays dropped because the effect wasn't loaded yet
+     */
+    public synchronized int getDroppedCount() {
+        return dropped;
+    }
+}
@@ -0,0 +1,75 @@
+package com.wsu.towerdefense.audio;
+
+import android.content.Context;
+import com.wsu.towerdefense.Util;
+
+/**
+ * Sound player for short effects, backed by the shared {@link SfxEngine}. Creating a player and
+ * playing a sound don't decode anything, so both can be done on the game thread. Any number of
+ * instances of the same sound can play at once.
+ * <p>
+ * {@link #release()} stops the sound played last, e.g. a sound that follows a projectile.
+ * <p>
+ * Players created with a priority don't start sounds themselves, they hand them to the engine's
+ * {@link SoundScheduler}, which merges sounds played in the same game tick and limits how many
+ * play at once. Their sounds can't be stopped.
+ */
+public class SfxPlayer extends AbstractSoundPlayer {
+
+    private final boolean loop;
+    /**
+     * Priority of scheduled sounds, or -1 if sounds are started directly
+     */
+    private final int priority;
+    private SfxEngine engine = null;
+    private int voiceID = 0;
+
+    public SfxPlayer(int sourceID) {
+        this(sourceID, false);
+    }
+
+    /**
+     * @param loop whether sounds repeat until they are stopped
+     */
+    public SfxPlayer(int sourceID, boolean loop) {
+        super(sourceID);
+        this.loop = loop;
+        this.priority = -1;
+    }
+
+    /**
+     * @param priority one of the <code>SoundScheduler.PRIORITY_</code> constants, sounds are
+     *                 played through the scheduler
+     */
+    public SfxPlayer(int sourceID, int priority) {
+        super(sourceID);
+        this.loop = false;
+        this.priority = priority;
+    }
+
+    @Override
+    public void play(Context context, float volume) {
+        engine = SfxEngine.getInstance(context);
+        float gain = Math.min(1, Util.adjustVolume(volume));
+        if (priority >= 0) {
+            engine.schedule(sourceID, gain, priority);
+        } else {
+            voiceID = engine.play(sourceID, gain, loop);
+        }
+    }
+
+    /**
+     * Stops the sound played last
+     */
+    public void stop() {
+        if (engine != null) {
+            engine.stop(voiceID);
+        }
+        voiceID = 0;
+    }
+
+    @Override
+    public void release() {
+        stop();
+    }
+}
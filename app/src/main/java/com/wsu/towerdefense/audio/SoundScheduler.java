@@ -0,0 +1,298 @@
+package com.wsu.towerdefense.audio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which sound effects actually play. Requests made during a tick (between {@link
+ * #beginTick()} and {@link #endTick()}) are collected, and requests for the same sound are merged
+ * into a single voice that is a bit louder than one request. Requests made outside a tick are
+ * played right away.
+ * <p>
+ * The number of voices playing at once is capped per sound and in total. When a cap is reached,
+ * the lowest priority voice (the oldest one among equal priorities) is stopped to make room, as
+ * long as its priority isn't higher than the new sound's. Otherwise the new sound is dropped.
+ * <p>
+ * Every request is counted as exactly one of started, coalesced or dropped.
+ */
+public class SoundScheduler {
+
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_NORMAL = 1;
+    public static final int PRIORITY_HIGH = 2;
+
+    /**
+     * Extra gain for each doubling of the number of merged requests
+     */
+    static final float COALESCE_GAIN = 0.25f;
+    /**
+     * How long a voice is assumed to play when the length of its sound is unknown
+     */
+    static final long DEFAULT_DURATION_NANOS = 1_000_000_000L;
+
+    /**
+     * Plays the voices picked by the scheduler
+     */
+    public interface Output {
+
+        /**
+         * @param volume gain, from 0 to 1
+         * @return ID of the new voice, or 0 if it couldn't be started
+         */
+        int start(int soundID, float volume);
+
+        void stop(int voiceID);
+
+        /**
+         * @return length of the sound, in nanoseconds, or 0 if unknown
+         */
+        long getDurationNanos(int soundID);
+    }
+
+    private static class Request {
+
+        int soundID;
+        float volume;
+        int priority;
+        int count;
+    }
+
+    private static class Voice {
+
+        int voiceID;
+        int soundID;
+        int priority;
+        long startNanos;
+        long endNanos;
+    }
+
+    private final Output output;
+    private final int maxVoicesPerSound;
+    private final int maxVoices;
+    private final LongSupplier clock;
+
+    /**
+     * Requests of the current tick, the first {@link #pendingCount} entries are in use. Entries
+     * are reused between ticks.
+     */
+    private final List<Request> pending = new ArrayList<>();
+    private int pendingCount = 0;
+    private final List<Voice> voices = new ArrayList<>();
+    private final List<Voice> freeVoices = new ArrayList<>();
+    private boolean inTick = false;
+
+    private int requested = 0;
+    private int started = 0;
+    private int coalesced = 0;
+    private int dropped = 0;
+
+    public SoundScheduler(Output output, int maxVoicesPerSound, int maxVoices) {
+        this(output, maxVoicesPerSound, maxVoices, System::nanoTime);
+    }
+
+    /**
+     * @param clock source of the current time, in nanoseconds
+     */
+    public SoundScheduler(Output output, int maxVoicesPerSound, int maxVoices,
+        LongSupplier clock) {
+        if (maxVoicesPerSound <= 0 || maxVoices < maxVoicesPerSound) {
+            throw new IllegalArgumentException("Invalid voice limits");
+        }
+        this.output = output;
+        this.maxVoicesPerSound = maxVoicesPerSound;
+        this.maxVoices = maxVoices;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts collecting requests
+     */
+    public synchronized void beginTick() {
+        inTick = true;
+    }
+
+    /**
+     * Plays the requests collected since {@link #beginTick()}, highest priority first
+     */
+    public synchronized void endTick() {
+        inTick = false;
+        if (pendingCount == 0) {
+            return;
+        }
+
+        long now = clock.getAsLong();
+        expireVoices(now);
+        for (int priority = PRIORITY_HIGH; priority >= PRIORITY_LOW; priority--) {
+            for (int i = 0; i < pendingCount; i++) {
+                Request request = pending.get(i);
+                if (request.priority == priority) {
+                    startVoice(request, now);
+                }
+            }
+        }
+        pendingCount = 0;
+    }
+
+    /**
+     * Asks for a sound to be played
+     *
+     * @param volume   gain, from 0 to 1
+     * @param priority one of the <code>PRIORITY_</code> constants
+     */
+    public synchronized void request(int soundID, float volume, int priority) {
+        requested++;
+        priority = Math.max(PRIORITY_LOW, Math.min(PRIORITY_HIGH, priority));
+
+        for (int i = 0; i < pendingCount; i++) {
+            Request request = pending.get(i);
+            if (request.soundID == soundID) {
+                request.volume = Math.max(request.volume, volume);
+                request.priority = Math.max(request.priority, priority);
+                request.count++;
+                coalesced++;
+                return;
+            }
+        }
+
+        if (pendingCount == pending.size()) {
+            pending.add(new Request());
+        }
+        Request request = pending.get(pendingCount++);
+        request.soundID = soundID;
+        request.volume = volume;
+        request.priority = priority;
+        request.count = 1;
+
+        if (!inTick) {
+            endTick();
+        }
+    }
+
+    private void startVoice(Request request, long now) {
+        if (!makeRoom(request.soundID, request.priority)) {
+            dropped++;
+            return;
+        }
+
+        int voiceID = output.start(request.soundID, coalescedVolume(request.volume, request.count));
+        if (voiceID == 0) {
+            dropped++;
+            return;
+        }
+        started++;
+
+        long duration = output.getDurationNanos(request.soundID);
+        Voice voice = freeVoices.isEmpty() ? new Voice() : freeVoices.remove(freeVoices.size() - 1);
+        voice.voiceID = voiceID;
+        voice.soundID = request.soundID;
+        voice.priority = request.priority;
+        voice.startNanos = now;
+        voice.endNanos = now + (duration > 0 ? duration : DEFAULT_DURATION_NANOS);
+        voices.add(voice);
+    }
+
+    /**
+     * Stops a voice if a cap has been reached
+     *
+     * @return whether a voice of <code>soundID</code> with <code>priority</code> can be started
+     */
+    private boolean makeRoom(int soundID, int priority) {
+        int sameSound = 0;
+        for (int i = 0; i < voices.size(); i++) {
+            if (voices.get(i).soundID == soundID) {
+                sameSound++;
+            }
+        }
+
+        int victim;
+        if (sameSound >= maxVoicesPerSound) {
+            victim = findVictim(soundID);
+        } else if (voices.size() >= maxVoices) {
+            victim = findVictim(-1);
+        } else {
+            return true;
+        }
+
+        if (victim < 0 || voices.get(victim).priority > priority) {
+            return false;
+        }
+        Voice voice = voices.remove(victim);
+        output.stop(voice.voiceID);
+        freeVoices.add(voice);
+        return true;
+    }
+
+    /**
+     * @param soundID sound to pick a voice of, or -1 for any sound
+     * @return index of the lowest priority, oldest voice, or -1 if there is none
+     */
+    private int findVictim(int soundID) {
+        int victim = -1;
+        for (int i = 0; i < voices.size(); i++) {
+            Voice voice = voices.get(i);
+            if (soundID != -1 && voice.soundID != soundID) {
+                continue;
+            }
+            if (victim == -1) {
+                victim = i;
+                continue;
+            }
+            Voice best = voices.get(victim);
+            if (voice.priority < best.priority
+                || (voice.priority == best.priority && voice.startNanos < best.startNanos)) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    private void expireVoices(long now) {
+        for (int i = voices.size() - 1; i >= 0; i--) {
+            if (voices.get(i).endNanos <= now) {
+                freeVoices.add(voices.remove(i));
+            }
+        }
+    }
+
+    /**
+     * @param volume loudest volume of the merged requests
+     * @param count  number of merged requests
+     * @return volume of the voice playing all of them
+     */
+    static float coalescedVolume(float volume, int count) {
+        double boost = 1 + COALESCE_GAIN * Math.log(count) / Math.log(2);
+        return (float) Math.min(1, volume * boost);
+    }
+
+    /**
+     * @return number of voices that are assumed to still be playing
+     */
+    public synchronized int getVoiceCount() {
+        expireVoices(clock.getAsLong());
+        return voices.size();
+    }
+
+    public synchronized int getRequestedCount() {
+        return requested;
+    }
+
+    public synchronized int getStartedCount() {
+        return started;
+    }
+
+    /**
+     * @return number of requests merged into another request for the same sound
+     */
+    public synchronized int getCoalescedCount() {
+        return coalesced;
+    }
+
+    /**
+     * @return number of requests that didn't play because of the voice caps, or because the voice
+     * couldn't be started
+     */
+    public synchronized int getDroppedCount() {
+        return dropped;
+    }
+}
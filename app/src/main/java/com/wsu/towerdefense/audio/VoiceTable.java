@@ -0,0 +1,85 @@
+package com.wsu.towerdefense.audio;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the voice IDs handed out by {@link SfxEngine} to the stream IDs of the SoundPool, on the
+ * audio thread.
+ * <p>
+ * Looping voices play until they are stopped, so they are kept until {@link #remove(int)} is
+ * called. One-shot voices are never removed: only the most recent ones are kept, in a fixed number
+ * of slots, as older ones have ended or been stopped by the SoundPool to start newer ones.
+ */
+public class VoiceTable {
+
+    private final int slots;
+    private final int[] slotVoices;
+    private final int[] slotStreams;
+    private final Map<Integer, Integer> loops = new HashMap<>();
+
+    /**
+     * @param slots number of recent one-shot voices to remember
+     */
+    public VoiceTable(int slots) {
+        if (slots <= 0) {
+            throw new IllegalArgumentException("Slots must be positive");
+        }
+        this.slots = slots;
+        this.slotVoices = new int[slots];
+        this.slotStreams = new int[slots];
+    }
+
+    /**
+     * Records the stream a voice was started on
+     */
+    public void put(int voiceID, int streamID, boolean loop) {
+        if (streamID == 0) {
+            return;
+        }
+        if (loop) {
+            loops.put(voiceID, streamID);
+        } else {
+            int slot = voiceID % slots;
+            slotVoices[slot] = voiceID;
+            slotStreams[slot] = streamID;
+        }
+    }
+
+    /**
+     * @return stream ID of the voice, or 0 if it is unknown or a one-shot voice that is too old
+     */
+    public int get(int voiceID) {
+        Integer stream = loops.get(voiceID);
+        if (stream != null) {
+            return stream;
+        }
+        int slot = voiceID % slots;
+        return slotVoices[slot] == voiceID ? slotStreams[slot] : 0;
+    }
+
+    /**
+     * Forgets a voice, e.g. when it is stopped
+     *
+     * @return stream ID of the voice, see {@link #get(int)}
+     */
+    public int remove(int voiceID) {
+        Integer stream = loops.remove(voiceID);
+        if (stream != null) {
+            return stream;
+        }
+        int slot = voiceID % slots;
+        if (slotVoices[slot] != voiceID) {
+            return 0;
+        }
+        slotVoices[slot] = 0;
+        return slotStreams[slot];
+    }
+
+    /**
+     * @return number of looping voices that haven't been removed
+     */
+    public int getLoopCount() {
+        return loops.size();
+    }
+}
@@ -0,0 +1,286 @@
+package com.wsu.towerdefense.graphics;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Rect;
+import com.wsu.towerdefense.StartupTrace;
+import com.wsu.towerdefense.Util;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Loads the sprite atlases packed at build time by the <code>packSpriteAtlases</code> Gradle task,
+ * and resolves mipmap resource IDs to their place in an atlas.
+ * <p>
+ * Index file format (<code>assets/atlas/index.json</code>):
+ * <ul>
+ *     <li><code>density</code> : integer - density of the packed images, in dpi</li>
+ *     <li><code>pages</code> : array - list of objects <code>{file:string, sprites:object}</code>,
+ *     where <code>file</code> is the path of the page in the assets and <code>sprites</code> maps
+ *     the name of each mipmap resource on the page to <code>[x, y, width, height]</code></li>
+ * </ul>
+ * Each page is decoded once, scaled to the screen density like a mipmap resource would be, and
+ * kept until {@link #evictAll()} is called. A page is dropped earlier once every sprite on it has
+ * been copied by {@link #getSprite(Context, int)}, unless a {@link Region} of it was handed out to
+ * be drawn from.
+ */
+public class AtlasLoader {
+
+    private static final String INDEX_FILE = "atlas/index.json";
+    private static final String RESOURCE_TYPE = "mipmap";
+
+    /**
+     * Part of a decoded atlas page holding a single sprite
+     */
+    public static class Region {
+
+        public final Bitmap page;
+        public final Rect rect;
+
+        private Region(Bitmap page, Rect rect) {
+            this.page = page;
+            this.rect = rect;
+        }
+    }
+
+    private static class Page {
+
+        final String file;
+        final List<Entry> entries = new ArrayList<>();
+        Bitmap image;
+        int imageDensity;
+        /**
+         * Number of entries copied out of <code>image</code>
+         */
+        int copied;
+        /**
+         * Whether a region of <code>image</code> was handed out, so it is drawn from directly
+         */
+        boolean shared;
+
+        Page(String file) {
+            this.file = file;
+        }
+    }
+
+    private static class Entry {
+
+        final Page page;
+        final int x, y, width, height;
+        /**
+         * Whether the sprite was copied out of the current image of its page
+         */
+        boolean copied;
+
+        Entry(Page page, int x, int y, int width, int height) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private static final Map<String, Entry> entries = new HashMap<>();
+    private static final List<Page> pages = new ArrayList<>();
+    private static int density = 0;
+    private static int decodeCount = 0;
+
+    private AtlasLoader() {
+    }
+
+    /**
+     * Reads the atlas index. Pages are decoded when one of their sprites is first needed.
+     *
+     * @throws IOException   when the index can't be read
+     * @throws JSONException when the index can't be parsed
+     */
+    public static synchronized void init(Context context) throws IOException, JSONException {
+        long start = StartupTrace.begin();
+        String data = Util.readFile(context, INDEX_FILE);
+        StartupTrace.end(INDEX_FILE, StartupTrace.Phase.READ, start);
+
+        start = StartupTrace.begin();
+        JSONObject json = new JSONObject(data);
+
+        entries.clear();
+        pages.clear();
+        density = json.getInt("density");
+
+        JSONArray pageArray = json.getJSONArray("pages");
+        for (int i = 0; i < pageArray.length(); i++) {
+            JSONObject pageJson = pageArray.getJSONObject(i);
+            Page page = new Page(pageJson.getString("file"));
+            pages.add(page);
+
+            JSONObject sprites = pageJson.getJSONObject("sprites");
+            for (Iterator<String> it = sprites.keys(); it.hasNext(); ) {
+                String name = it.next();
+                JSONArray rect = sprites.getJSONArray(name);
+                Entry entry = new Entry(page,
+                    rect.getInt(0), rect.getInt(1), rect.getInt(2), rect.getInt(3));
+                entries.put(name, entry);
+                page.entries.add(entry);
+            }
+        }
+        StartupTrace.end(INDEX_FILE, StartupTrace.Phase.PARSE, start);
+    }
+
+    /**
+     * Returns where the sprite with the given resource ID is in its atlas page, decoding the page
+     * if needed. The page is then kept until {@link #evictAll()}, so that it can be drawn from.
+     *
+     * @param context    context used to access resources and assets
+     * @param resourceID ID of the mipmap resource
+     * @return the region, or null if the sprite isn't in an atlas or the page can't be decoded
+     */
+    public static synchronized Region getRegion(Context context, int resourceID) {
+        Entry entry = entries.get(nameOf(context.getResources(), resourceID));
+        if (entry == null) {
+            return null;
+        }
+
+        Region region = region(context, entry);
+        if (region != null) {
+            entry.page.shared = true;
+        }
+        return region;
+    }
+
+    private static Region region(Context context, Entry entry) {
+        int targetDensity = context.getResources().getDisplayMetrics().densityDpi;
+        Bitmap image = decode(context, entry.page, targetDensity);
+        if (image == null) {
+            return null;
+        }
+
+        // scale the same way as BitmapFactory does for a single sprite, so sizes match
+        float scale = (float) targetDensity / density;
+        int left = Math.min((int) (entry.x * scale + 0.5f), image.getWidth());
+        int top = Math.min((int) (entry.y * scale + 0.5f), image.getHeight());
+        int right = Math.min(left + (int) (entry.width * scale + 0.5f), image.getWidth());
+        int bottom = Math.min(top + (int) (entry.height * scale + 0.5f), image.getHeight());
+        if (right <= left || bottom <= top) {
+            return null;
+        }
+        return new Region(image, new Rect(left, top, right, bottom));
+    }
+
+    /**
+     * Copies the sprite with the given resource ID out of its atlas page. Used by
+     * {@link SpriteCache} instead of decoding the resource.
+     *
+     * @return the sprite, or null if it isn't in an atlas
+     */
+    public static Bitmap getSprite(Context context, int resourceID) {
+        Region region;
+        synchronized (AtlasLoader.class) {
+            Entry entry = entries.get(nameOf(context.getResources(), resourceID));
+            if (entry == null) {
+                return null;
+            }
+
+            region = region(context, entry);
+            if (region == null) {
+                return null;
+            }
+
+            Page page = entry.page;
+            if (!entry.copied) {
+                entry.copied = true;
+                page.copied++;
+            }
+            // every sprite will have its own copy, so the page is only needed if it is drawn from
+            if (page.copied == page.entries.size() && !page.shared) {
+                page.image = null;
+            }
+        }
+        // copy outside the lock, the region keeps the page alive until then
+        return Bitmap.createBitmap(region.page, region.rect.left, region.rect.top,
+            region.rect.width(), region.rect.height());
+    }
+
+    private static String nameOf(Resources resources, int resourceID) {
+        try {
+            if (!RESOURCE_TYPE.equals(resources.getResourceTypeName(resourceID))) {
+                return null;
+            }
+            return resources.getResourceEntryName(resourceID);
+        } catch (Resources.NotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Bitmap decode(Context context, Page page, int targetDensity) {
+        if (page.image != null && page.imageDensity == targetDensity) {
+            return page.image;
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inDensity = density;
+        options.inTargetDensity = targetDensity;
+        options.inScaled = true;
+        long start = StartupTrace.begin();
+        try (InputStream stream = context.getAssets().open(page.file)) {
+            page.image = BitmapFactory.decodeStream(stream, null, options);
+        } catch (IOException e) {
+            page.image = null;
+        }
+        page.imageDensity = targetDensity;
+        // copies and regions of the previous image don't refer to this one
+        page.copied = 0;
+        page.shared = false;
+        for (Entry entry : page.entries) {
+            entry.copied = false;
+        }
+        decodeCount++;
+        StartupTrace.end(page.file, StartupTrace.Phase.DECODE, start);
+        return page.image;
+    }
+
+    /**
+     * Drops all decoded pages, e.g. when a game ends. Pages are decoded again when needed.
+     */
+    public static synchronized void evictAll() {
+        for (Page page : pages) {
+            page.image = null;
+        }
+    }
+
+    /**
+     * @return number of sprites in all atlases
+     */
+    public static synchronized int getSpriteCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of pages that are currently decoded
+     */
+    public static synchronized int getDecodedPageCount() {
+        int count = 0;
+        for (Page page : pages) {
+            if (page.image != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of times a page was decoded
+     */
+    public static synchronized int getDecodeCount() {
+        return decodeCount;
+    }
+}
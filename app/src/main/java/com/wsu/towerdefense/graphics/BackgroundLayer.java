@@ -0,0 +1,92 @@
+package com.wsu.towerdefense.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import com.wsu.towerdefense.Model.tower.Tower;
+import com.wsu.towerdefense.map.Map;
+import java.util.List;
+
+/**
+ * Offscreen layer holding everything that stays still between tower placements: the map image,
+ * scaled to the size of the surface, and the base of every tower. Each frame starts by drawing the
+ * layer with a single blit, and the layer is only redrawn after {@link #invalidate()}.
+ * <p>
+ * {@link #invalidate()} and {@link #setSize(int, int)} may be called from any thread, the layer is
+ * redrawn on the next call to {@link #render(Canvas, Map, List)}.
+ */
+public class BackgroundLayer {
+
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Rect dst = new Rect();
+
+    private Bitmap layer;
+    private Canvas layerCanvas;
+
+    private volatile int width;
+    private volatile int height;
+    private volatile boolean valid = false;
+    private int rebuilds = 0;
+
+    /**
+     * Marks the layer as outdated, e.g. when a tower is placed, removed or upgraded
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Sets the size of the surface the layer is drawn on, and invalidates the layer
+     */
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        invalidate();
+    }
+
+    /**
+     * Draws the layer to <code>canvas</code>, redrawing it first if it was invalidated
+     *
+     * @param canvas canvas to draw on
+     * @param map    map whose image is drawn
+     * @param towers towers whose bases are drawn
+     */
+    public void render(Canvas canvas, Map map, List<Tower> towers) {
+        if (!valid) {
+            rebuild(map, towers);
+        }
+        if (layer != null) {
+            canvas.drawBitmap(layer, 0, 0, null);
+        }
+    }
+
+    private void rebuild(Map map, List<Tower> towers) {
+        // clear the flag first so that an invalidation during the rebuild isn't lost
+        valid = true;
+
+        int w = width;
+        int h = height;
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (layer == null || layer.getWidth() != w || layer.getHeight() != h) {
+            layer = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+            layerCanvas = new Canvas(layer);
+        }
+
+        dst.set(0, 0, w, h);
+        layerCanvas.drawBitmap(map.getImage(), null, dst, paint);
+        for (int i = 0; i < towers.size(); i++) {
+            towers.get(i).renderBase(layerCanvas);
+        }
+        rebuilds++;
+    }
+
+    /**
+     * @return number of times the layer was redrawn
+     */
+    public int getRebuildCount() {
+        return rebuilds;
+    }
+}
@@ -0,0 +1,177 @@
+package com.wsu.towerdefense.graphics;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.util.TypedValue;
+import com.wsu.towerdefense.Application;
+import com.wsu.towerdefense.R;
+
+/**
+ * Decodes bitmap resources no larger than they are drawn. A resource is normally decoded at its
+ * size scaled to the screen density; when a target size is given and it is smaller, the resource
+ * is subsampled while decoding ({@link BitmapFactory.Options#inSampleSize}) and then scaled down
+ * to just cover the target size. Opaque images are decoded as {@link Bitmap.Config#RGB_565},
+ * which uses half the memory of {@link Bitmap.Config#ARGB_8888}.
+ * <p>
+ * The memory saved compared to a default decode is recorded per {@link AssetClass}.
+ */
+public class BitmapDecoder {
+
+    /**
+     * Kinds of images, for reporting memory use
+     */
+    public enum AssetClass {
+        MAP,
+        SPRITE,
+    }
+
+    private static final int ARGB_8888_BYTES = 4;
+
+    private static final long[] bytesDecoded = new long[AssetClass.values().length];
+    private static final long[] bytesSaved = new long[AssetClass.values().length];
+
+    private BitmapDecoder() {
+    }
+
+    /**
+     * Decodes a bitmap resource
+     *
+     * @param context    context used to access resources
+     * @param resourceID ID of the drawable or mipmap resource
+     * @param width      width the image is drawn at, or 0 to decode at the screen density
+     * @param height     height the image is drawn at, or 0 to decode at the screen density
+     * @param opaque     whether the image has no transparent pixels
+     * @param assetClass kind of image, for reporting
+     * @return the bitmap, or null if it can't be decoded
+     */
+    public static Bitmap decode(Context context, int resourceID, int width, int height,
+        boolean opaque, AssetClass assetClass) {
+        Resources resources = context.getResources();
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, resourceID, options);
+        int sourceWidth = options.outWidth;
+        int sourceHeight = options.outHeight;
+        if (sourceWidth <= 0 || sourceHeight <= 0) {
+            return null;
+        }
+
+        // scale of a default decode
+        TypedValue value = new TypedValue();
+        resources.getValue(resourceID, value, true);
+        int screenDensity = resources.getDisplayMetrics().densityDpi;
+        float densityScale = 1;
+        if (value.density == TypedValue.DENSITY_DEFAULT) {
+            densityScale = (float) screenDensity / DisplayMetrics.DENSITY_DEFAULT;
+        } else if (value.density != TypedValue.DENSITY_NONE) {
+            densityScale = (float) screenDensity / value.density;
+        }
+
+        float scale = targetScale(sourceWidth, sourceHeight, width, height, densityScale);
+        int sampleSize = sampleSize(scale);
+
+        options = new BitmapFactory.Options();
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+        boolean customScale = sampleSize != 1 || scale != densityScale;
+        if (customScale) {
+            // scale the subsampled image to the final width
+            options.inDensity = sourceWidth / sampleSize;
+            options.inTargetDensity = scaled(sourceWidth, scale);
+            options.inScaled = options.inDensity != options.inTargetDensity;
+        }
+
+        Bitmap bitmap = BitmapFactory.decodeResource(resources, resourceID, options);
+        if (bitmap == null) {
+            return null;
+        }
+        if (customScale) {
+            // otherwise canvases would rescale the bitmap by its made up density when drawing it
+            bitmap.setDensity(screenDensity);
+        }
+        if (opaque && bitmap.getConfig() != Bitmap.Config.RGB_565) {
+            // decoders ignore the preferred config for images that are encoded with alpha
+            Bitmap copy = bitmap.copy(Bitmap.Config.RGB_565, false);
+            if (copy != null) {
+                bitmap.recycle();
+                bitmap = copy;
+            }
+        }
+
+        long defaultBytes = (long) scaled(sourceWidth, densityScale)
+            * scaled(sourceHeight, densityScale) * ARGB_8888_BYTES;
+        long bytes = bitmap.getAllocationByteCount();
+        record(assetClass, bytes, defaultBytes - bytes);
+
+        if (Application.DEBUG) {
+            Log.i(context.getString(R.string.logcatKey), "Decoded " +
+                resources.getResourceEntryName(resourceID) + " at " +
+                bitmap.getWidth() + "x" + bitmap.getHeight() + " " + bitmap.getConfig() +
+                ", saved " + (defaultBytes - bytes) / 1024 + " KB");
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param sourceWidth  width of the encoded image
+     * @param sourceHeight height of the encoded image
+     * @param width        width the image is drawn at, or 0 if unknown
+     * @param height       height the image is drawn at, or 0 if unknown
+     * @param densityScale scale of a default decode
+     * @return scale to decode at: the default scale, lowered so that the image just covers the
+     * target size
+     */
+    public static float targetScale(int sourceWidth, int sourceHeight, int width, int height,
+        float densityScale) {
+        if (width <= 0 || height <= 0) {
+            return densityScale;
+        }
+        float cover = Math.max((float) width / sourceWidth, (float) height / sourceHeight);
+        return Math.min(densityScale, cover);
+    }
+
+    /**
+     * @return largest power of two to subsample by, so that the subsampled image is still at
+     * least as large as the image scaled by <code>scale</code>
+     */
+    public static int sampleSize(float scale) {
+        int sampleSize = 1;
+        while (scale * sampleSize * 2 <= 1) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * Scales a dimension the same way as {@link BitmapFactory}
+     */
+    static int scaled(int size, float scale) {
+        return Math.max(1, (int) (size * scale + 0.5f));
+    }
+
+    private static synchronized void record(AssetClass assetClass, long bytes, long saved) {
+        bytesDecoded[assetClass.ordinal()] += bytes;
+        bytesSaved[assetClass.ordinal()] += Math.max(0, saved);
+    }
+
+    /**
+     * @return number of bytes of bitmap memory allocated for images of <code>assetClass</code>
+     */
+    public static synchronized long getBytesDecoded(AssetClass assetClass) {
+        return bytesDecoded[assetClass.ordinal()];
+    }
+
+    /**
+     * @return number of bytes saved for images of <code>assetClass</code>, compared to decoding
+     * them at the screen density as ARGB_8888
+     */
+    public static synchronized long getBytesSaved(AssetClass assetClass) {
+        return bytesSaved[assetClass.ordinal()];
+    }
+}
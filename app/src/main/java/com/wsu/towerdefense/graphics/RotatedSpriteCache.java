@@ -0,0 +1,200 @@
+package com.wsu.towerdefense.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import java.util.IdentityHashMap;
+
+/**
+ * Process-wide cache of pre-rotated copies of sprites, used to draw rotating sprites such as turrets
+ * and projectiles with a plain bitmap blit instead of a filtered matrix transform. Angles are
+ * quantized to {@link #STEPS} steps, and each step of a sprite is rendered the first time it is
+ * drawn.
+ * <p>
+ * Sprites are identified by their bitmap, so they should come from {@link SpriteCache}. Each
+ * rotated copy is a square large enough to hold the sprite at any angle. Once the copies would use
+ * more than {@link #MAX_BYTES} bytes, {@link #draw(Canvas, Bitmap, float, float, float)} stops
+ * rendering new ones and callers fall back to drawing with a matrix.
+ */
+public class RotatedSpriteCache {
+
+    /**
+     * Number of rotations cached for each sprite
+     */
+    public static final int STEPS = 64;
+    private static final float DEGREES_PER_STEP = 360f / STEPS;
+
+    /**
+     * Fraction of the maximum heap size that rotated copies may use
+     */
+    private static final int HEAP_FRACTION = 16;
+    private static final long MAX_BYTES = Runtime.getRuntime().maxMemory() / HEAP_FRACTION;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final IdentityHashMap<Bitmap, Bitmap[]> cache = new IdentityHashMap<>();
+    private static final Matrix matrix = new Matrix();
+    /**
+     * Used by {@link #drawRotated(Canvas, Bitmap, float, float, float)}, only from the thread that
+     * renders the game
+     */
+    private static final Matrix drawMatrix = new Matrix();
+    private static final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    private static boolean enabled = true;
+    private static long bytes = 0;
+    private static int hits = 0;
+    private static int misses = 0;
+    private static int fallbacks = 0;
+
+    private RotatedSpriteCache() {
+    }
+
+    /**
+     * Draws <code>sprite</code> rotated clockwise by <code>degrees</code> around its center,
+     * with its center at (<code>centerX</code>, <code>centerY</code>)
+     *
+     * @param canvas  canvas to draw on
+     * @param sprite  shared, immutable sprite to draw
+     * @param degrees rotation in degrees, rounded to the nearest step
+     * @param centerX x coordinate of the center of the sprite on the canvas
+     * @param centerY y coordinate of the center of the sprite on the canvas
+     * @return false if nothing was drawn because the cache is disabled or full, in which case the
+     * caller should draw the sprite itself
+     */
+    public static synchronized boolean draw(Canvas canvas, Bitmap sprite, float degrees,
+        float centerX, float centerY) {
+        if (!enabled) {
+            return false;
+        }
+
+        Bitmap[] rotations = cache.get(sprite);
+        if (rotations == null) {
+            rotations = new Bitmap[STEPS];
+            cache.put(sprite, rotations);
+        }
+
+        int step = stepOf(degrees);
+        Bitmap rotated = rotations[step];
+        if (rotated == null) {
+            rotated = rotate(sprite, step);
+            if (rotated == null) {
+                fallbacks++;
+                return false;
+            }
+            rotations[step] = rotated;
+            misses++;
+        } else {
+            hits++;
+        }
+
+        canvas.drawBitmap(
+            rotated,
+            centerX - rotated.getWidth() / 2f,
+            centerY - rotated.getHeight() / 2f,
+            null
+        );
+        return true;
+    }
+
+    /**
+     * Draws <code>sprite</code> like {@link #draw(Canvas, Bitmap, float, float, float)}, falling back
+     * to a matrix transform of the original sprite if the cache can't be used
+     */
+    public static void drawRotated(Canvas canvas, Bitmap sprite, float degrees, float centerX,
+        float centerY) {
+        if (!draw(canvas, sprite, degrees, centerX, centerY)) {
+            drawMatrix.setRotate(degrees, sprite.getWidth() / 2f, sprite.getHeight() / 2f);
+            drawMatrix.postTranslate(
+                centerX - sprite.getWidth() / 2f,
+                centerY - sprite.getHeight() / 2f
+            );
+            canvas.drawBitmap(sprite, drawMatrix, null);
+        }
+    }
+
+    /**
+     * @param degrees any angle in degrees
+     * @return index of the step closest to <code>degrees</code>, in [0, {@link #STEPS})
+     */
+    public static int stepOf(float degrees) {
+        int step = Math.round(degrees / DEGREES_PER_STEP) % STEPS;
+        return step < 0 ? step + STEPS : step;
+    }
+
+    /**
+     * @return half the size of a square that holds <code>sprite</code> at any rotation, with a
+     * pixel to spare for filtering
+     */
+    public static float getHalfSize(Bitmap sprite) {
+        return (float) Math.ceil(Math.hypot(sprite.getWidth(), sprite.getHeight())) / 2f + 1;
+    }
+
+    /**
+     * Renders a copy of <code>sprite</code> rotated to <code>step</code>, or returns null if it
+     * would exceed the memory budget
+     */
+    private static Bitmap rotate(Bitmap sprite, int step) {
+        int w = sprite.getWidth();
+        int h = sprite.getHeight();
+        int size = (int) Math.ceil(Math.sqrt(w * w + h * h));
+
+        long sizeBytes = (long) size * size * BYTES_PER_PIXEL;
+        if (bytes + sizeBytes > MAX_BYTES) {
+            return null;
+        }
+
+        Bitmap rotated = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        matrix.setRotate(step * DEGREES_PER_STEP, w / 2f, h / 2f);
+        matrix.postTranslate((size - w) / 2f, (size - h) / 2f);
+        new Canvas(rotated).drawBitmap(sprite, matrix, paint);
+
+        bytes += rotated.getAllocationByteCount();
+        return rotated;
+    }
+
+    /**
+     * Drops all rotated copies, e.g. when a game ends
+     */
+    public static synchronized void evictAll() {
+        cache.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Turns the cache on or off. While disabled, {@link #draw(Canvas, Bitmap, float, float,
+     * float)} always returns false.
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        RotatedSpriteCache.enabled = enabled;
+    }
+
+    public static synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    public static synchronized int getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return number of rotated copies rendered
+     */
+    public static synchronized int getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return number of draws that were refused because the cache was full
+     */
+    public static synchronized int getFallbackCount() {
+        return fallbacks;
+    }
+
+    /**
+     * @return number of bytes used by rotated copies
+     */
+    public static synchronized long getSize() {
+        return bytes;
+    }
+}
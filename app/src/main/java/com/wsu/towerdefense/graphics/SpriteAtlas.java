@@ -0,0 +1,143 @@
+package com.wsu.towerdefense.graphics;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A single bitmap holding several sprites, so that they can all be drawn by {@link SpriteBatch} in
+ * one call. Sprites are packed in rows (shelves) sorted by height, with transparent padding around
+ * each sprite so that filtering doesn't pick up pixels of its neighbours.
+ * <p>
+ * Sprites are identified by their bitmap, so they should come from {@link SpriteCache}. Sprites
+ * that don't fit within {@link #MAX_SIZE} are left out and have to be drawn on their own. An atlas
+ * can also be made from a page packed at build time, which avoids packing at runtime.
+ */
+public class SpriteAtlas {
+
+    public static final int MAX_SIZE = 2048;
+    private static final int PADDING = 2;
+
+    private final Bitmap image;
+    private final IdentityHashMap<Bitmap, Rect> regions;
+
+    private SpriteAtlas(Bitmap image, IdentityHashMap<Bitmap, Rect> regions) {
+        this.image = image;
+        this.regions = regions;
+    }
+
+    /**
+     * Packs <code>sprites</code> into a new atlas. Duplicates and null sprites are ignored.
+     *
+     * @param sprites sprites to pack
+     * @return the atlas, or null if none of the sprites fit
+     */
+    public static SpriteAtlas build(List<Bitmap> sprites) {
+        List<Bitmap> sorted = new ArrayList<>();
+        for (Bitmap sprite : sprites) {
+            if (sprite != null && !containsSame(sorted, sprite)) {
+                sorted.add(sprite);
+            }
+        }
+        Collections.sort(sorted, (a, b) -> Integer.compare(b.getHeight(), a.getHeight()));
+
+        // place sprites left to right in shelves, starting a new shelf when a row is full
+        IdentityHashMap<Bitmap, Rect> regions = new IdentityHashMap<>();
+        int x = 0;
+        int y = 0;
+        int shelfHeight = 0;
+        int width = 0;
+        for (Bitmap sprite : sorted) {
+            int w = sprite.getWidth() + PADDING * 2;
+            int h = sprite.getHeight() + PADDING * 2;
+            if (x + w > MAX_SIZE) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            if (w > MAX_SIZE || y + h > MAX_SIZE) {
+                continue;
+            }
+
+            regions.put(sprite, new Rect(x + PADDING, y + PADDING,
+                x + PADDING + sprite.getWidth(), y + PADDING + sprite.getHeight()));
+            x += w;
+            shelfHeight = Math.max(shelfHeight, h);
+            width = Math.max(width, x);
+        }
+        int height = y + shelfHeight;
+
+        if (regions.isEmpty()) {
+            return null;
+        }
+
+        Bitmap image = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(image);
+        for (Bitmap sprite : sorted) {
+            Rect region = regions.get(sprite);
+            if (region != null) {
+                canvas.drawBitmap(sprite, region.left, region.top, null);
+            }
+        }
+        return new SpriteAtlas(image, regions);
+    }
+
+    /**
+     * Uses a page packed at build time as the atlas image, see {@link AtlasLoader}. Regions are
+     * looked up for the sprites returned by {@link SpriteCache}.
+     *
+     * @param resourceIDs IDs of the mipmap resources to put in the atlas
+     * @return the atlas, or null if the sprites aren't all on the same page
+     */
+    public static SpriteAtlas load(Context context, List<Integer> resourceIDs) {
+        Bitmap image = null;
+        IdentityHashMap<Bitmap, Rect> regions = new IdentityHashMap<>();
+        for (int resourceID : resourceIDs) {
+            AtlasLoader.Region region = AtlasLoader.getRegion(context, resourceID);
+            if (region == null || (image != null && region.page != image)) {
+                return null;
+            }
+            image = region.page;
+
+            Bitmap sprite = SpriteCache.get(context, resourceID);
+            if (sprite == null || sprite.getWidth() != region.rect.width()
+                || sprite.getHeight() != region.rect.height()) {
+                return null;
+            }
+            regions.put(sprite, region.rect);
+        }
+        return image != null ? new SpriteAtlas(image, regions) : null;
+    }
+
+    private static boolean containsSame(List<Bitmap> list, Bitmap sprite) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == sprite) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return where <code>sprite</code> is in the atlas image, or null if it isn't in the atlas
+     */
+    public Rect getRegion(Bitmap sprite) {
+        return regions.get(sprite);
+    }
+
+    public Bitmap getImage() {
+        return image;
+    }
+
+    /**
+     * @return number of sprites in the atlas
+     */
+    public int getSpriteCount() {
+        return regions.size();
+    }
+}
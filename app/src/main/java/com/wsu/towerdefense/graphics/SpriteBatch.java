@@ -0,0 +1,289 @@
+package com.wsu.towerdefense.graphics;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Shader;
+
+/**
+ * Collects sprite and rectangle draws for a frame and draws them with as few canvas calls as
+ * possible. Sprites found in a {@link SpriteAtlas} become textured quads in a vertex buffer, which
+ * is drawn with a single {@link Canvas#drawVertices} call. Filled rectangles (e.g. health bars) go
+ * into a separate buffer of colored quads, drawn after all sprites.
+ * <p>
+ * Sprites that aren't in the atlas are drawn directly, after drawing the sprites collected so far
+ * so that the drawing order is kept. Buffers grow as needed and are reused between frames, so a
+ * frame that draws no more than the previous ones doesn't allocate.
+ * <p>
+ * Not thread safe, a batch should only be used from the thread that renders the game.
+ */
+public class SpriteBatch {
+
+    private static final int INITIAL_QUADS = 64;
+    /**
+     * Quads drawn per call at most, so that vertex indices fit in 16 bits
+     */
+    private static final int MAX_QUADS = 0x10000 / 4;
+
+    private final SpriteAtlas atlas;
+    private final Paint atlasPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint rectPaint = new Paint();
+
+    private final QuadBuffer sprites = new QuadBuffer(true);
+    private final QuadBuffer rects = new QuadBuffer(false);
+
+    private Canvas canvas;
+
+    // statistics of the latest frame
+    private int draws = 0;
+    private int drawCalls = 0;
+    private int frameDraws = 0;
+    private int frameDrawCalls = 0;
+
+    /**
+     * @param atlas atlas holding the sprites to batch, or null to draw every sprite on its own
+     */
+    public SpriteBatch(SpriteAtlas atlas) {
+        this.atlas = atlas;
+        if (atlas != null) {
+            atlasPaint.setShader(new BitmapShader(atlas.getImage(), Shader.TileMode.CLAMP,
+                Shader.TileMode.CLAMP));
+        }
+    }
+
+    /**
+     * Starts collecting draws for <code>canvas</code>
+     */
+    public void begin(Canvas canvas) {
+        this.canvas = canvas;
+        draws = 0;
+        drawCalls = 0;
+    }
+
+    /**
+     * Draws everything collected since {@link #begin(Canvas)}, sprites first
+     */
+    public void end() {
+        flush();
+        flushRects();
+        canvas = null;
+
+        frameDraws = draws;
+        frameDrawCalls = drawCalls;
+    }
+
+    /**
+     * Draws <code>sprite</code> with its top left corner at (<code>left</code>,
+     * <code>top</code>), like {@link Canvas#drawBitmap(Bitmap, float, float, Paint)}
+     */
+    public void draw(Bitmap sprite, float left, float top) {
+        draws++;
+        Rect region = atlas != null ? atlas.getRegion(sprite) : null;
+        if (region == null) {
+            flush();
+            canvas.drawBitmap(sprite, left, top, null);
+            drawCalls++;
+            return;
+        }
+
+        float right = left + sprite.getWidth();
+        float bottom = top + sprite.getHeight();
+        if (sprites.isFull()) {
+            flush();
+        }
+        sprites.add(
+            left, top, right, top, right, bottom, left, bottom,
+            region, 0
+        );
+    }
+
+    /**
+     * Draws <code>sprite</code> rotated clockwise by <code>degrees</code> around its center, with
+     * its center at (<code>centerX</code>, <code>centerY</code>)
+     */
+    public void drawRotated(Bitmap sprite, float degrees, float centerX, float centerY) {
+        draws++;
+        Rect region = atlas != null ? atlas.getRegion(sprite) : null;
+        if (region == null) {
+            flush();
+            RotatedSpriteCache.drawRotated(canvas, sprite, degrees, centerX, centerY);
+            drawCalls++;
+            return;
+        }
+
+        double radians = Math.toRadians(degrees);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float hw = sprite.getWidth() / 2f;
+        float hh = sprite.getHeight() / 2f;
+
+        // corners relative to the center, rotated: (x cos - y sin, x sin + y cos)
+        float ax = hw * cos;
+        float ay = hw * sin;
+        float bx = -hh * sin;
+        float by = hh * cos;
+        if (sprites.isFull()) {
+            flush();
+        }
+        sprites.add(
+            centerX - ax - bx, centerY - ay - by,
+            centerX + ax - bx, centerY + ay - by,
+            centerX + ax + bx, centerY + ay + by,
+            centerX - ax + bx, centerY - ay + by,
+            region, 0
+        );
+    }
+
+    /**
+     * Fills a rectangle with <code>color</code>. Rectangles are drawn after all sprites of the
+     * frame.
+     */
+    public void fillRect(float left, float top, float right, float bottom, int color) {
+        draws++;
+        if (rects.isFull()) {
+            flushRects();
+        }
+        rects.add(left, top, right, top, right, bottom, left, bottom, null, color);
+    }
+
+    /**
+     * Draws the sprites collected so far
+     */
+    public void flush() {
+        if (!sprites.isEmpty()) {
+            sprites.draw(canvas, atlasPaint);
+            drawCalls++;
+        }
+    }
+
+    private void flushRects() {
+        if (!rects.isEmpty()) {
+            rects.draw(canvas, rectPaint);
+            drawCalls++;
+        }
+    }
+
+    /**
+     * @return number of sprites and rectangles drawn in the latest frame, which is the number of
+     * canvas calls needed to draw them without batching
+     */
+    public int getDraws() {
+        return frameDraws;
+    }
+
+    /**
+     * @return number of canvas calls used to draw the latest frame
+     */
+    public int getDrawCalls() {
+        return frameDrawCalls;
+    }
+
+    /**
+     * Growable buffer of quads, each made of 4 vertices and 2 triangles
+     */
+    private static class QuadBuffer {
+
+        private final boolean textured;
+        private float[] verts;
+        private float[] texs;
+        private int[] colors;
+        private short[] indices;
+        private int quads = 0;
+
+        QuadBuffer(boolean textured) {
+            this.textured = textured;
+            allocate(INITIAL_QUADS);
+        }
+
+        private void allocate(int capacity) {
+            float[] newVerts = new float[capacity * 8];
+            short[] newIndices = new short[capacity * 6];
+            if (verts != null) {
+                System.arraycopy(verts, 0, newVerts, 0, quads * 8);
+            }
+            for (int i = 0; i < capacity; i++) {
+                int v = i * 4;
+                newIndices[i * 6] = (short) v;
+                newIndices[i * 6 + 1] = (short) (v + 1);
+                newIndices[i * 6 + 2] = (short) (v + 2);
+                newIndices[i * 6 + 3] = (short) v;
+                newIndices[i * 6 + 4] = (short) (v + 2);
+                newIndices[i * 6 + 5] = (short) (v + 3);
+            }
+            verts = newVerts;
+            indices = newIndices;
+
+            if (textured) {
+                float[] newTexs = new float[capacity * 8];
+                if (texs != null) {
+                    System.arraycopy(texs, 0, newTexs, 0, quads * 8);
+                }
+                texs = newTexs;
+            } else {
+                int[] newColors = new int[capacity * 4];
+                if (colors != null) {
+                    System.arraycopy(colors, 0, newColors, 0, quads * 4);
+                }
+                colors = newColors;
+            }
+        }
+
+        boolean isEmpty() {
+            return quads == 0;
+        }
+
+        boolean isFull() {
+            return quads == MAX_QUADS;
+        }
+
+        /**
+         * Adds a quad with corners in clockwise order, starting at the top left corner of the
+         * sprite
+         *
+         * @param region area of the atlas mapped onto the quad, for textured buffers
+         * @param color  color of the quad, for untextured buffers
+         */
+        void add(float x0, float y0, float x1, float y1, float x2, float y2, float x3, float y3,
+            Rect region, int color) {
+            if (quads * 6 == indices.length) {
+                allocate(Math.min(quads * 2, MAX_QUADS));
+            }
+
+            int v = quads * 8;
+            verts[v] = x0;
+            verts[v + 1] = y0;
+            verts[v + 2] = x1;
+            verts[v + 3] = y1;
+            verts[v + 4] = x2;
+            verts[v + 5] = y2;
+            verts[v + 6] = x3;
+            verts[v + 7] = y3;
+
+            if (textured) {
+                texs[v] = region.left;
+                texs[v + 1] = region.top;
+                texs[v + 2] = region.right;
+                texs[v + 3] = region.top;
+                texs[v + 4] = region.right;
+                texs[v + 5] = region.bottom;
+                texs[v + 6] = region.left;
+                texs[v + 7] = region.bottom;
+            } else {
+                int c = quads * 4;
+                colors[c] = color;
+                colors[c + 1] = color;
+                colors[c + 2] = color;
+                colors[c + 3] = color;
+            }
+            quads++;
+        }
+
+        void draw(Canvas canvas, Paint paint) {
+            canvas.drawVertices(Canvas.VertexMode.TRIANGLES, quads * 8, verts, 0,
+                texs, 0, colors, 0, indices, 0, quads * 6, paint);
+            quads = 0;
+        }
+    }
+}
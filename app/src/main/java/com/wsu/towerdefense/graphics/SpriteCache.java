@@ -0,0 +1,93 @@
+package com.wsu.towerdefense.graphics;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+/**
+ * Process-wide cache of decoded sprites, keyed by resource ID and screen density. Bitmaps handed out
+ * by the cache are shared between every object using the same sprite, and must not be modified or
+ * recycled. Sprites packed into an atlas at build time are copied out of their {@link AtlasLoader}
+ * page instead of being decoded on their own.
+ * <p>
+ * The cache is limited to {@link #MAX_BYTES} bytes of bitmap memory. Evicting a bitmap only drops
+ * the cache's reference, objects that are still using it keep it alive.
+ */
+public class SpriteCache {
+
+    /**
+     * Fraction of the maximum heap size that cached bitmaps may use
+     */
+    private static final int HEAP_FRACTION = 8;
+    private static final int MAX_BYTES = (int) Math.min(
+        Runtime.getRuntime().maxMemory() / HEAP_FRACTION,
+        Integer.MAX_VALUE
+    );
+
+    private static final LruCache<Long, Bitmap> cache = new LruCache<Long, Bitmap>(MAX_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Bitmap bitmap) {
+            return bitmap.getAllocationByteCount();
+        }
+    };
+
+    private SpriteCache() {
+    }
+
+    /**
+     * Returns the sprite with the given resource ID, decoding it if it is not cached
+     *
+     * @param context    context used to access resources
+     * @param resourceID ID of the drawable or mipmap resource
+     * @return the shared, immutable bitmap
+     */
+    public static Bitmap get(Context context, int resourceID) {
+        Resources resources = context.getResources();
+        long key = key(resources.getDisplayMetrics().densityDpi, resourceID);
+
+        Bitmap bitmap = cache.get(key);
+        if (bitmap == null) {
+            // may decode the same sprite twice if two threads miss at once, either result is fine
+            bitmap = AtlasLoader.getSprite(context, resourceID);
+            if (bitmap == null) {
+                bitmap = BitmapDecoder.decode(context, resourceID, 0, 0, false,
+                    BitmapDecoder.AssetClass.SPRITE);
+            }
+            if (bitmap != null) {
+                cache.put(key, bitmap);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Drops all cached sprites, e.g. when a game ends
+     */
+    public static void evictAll() {
+        cache.evictAll();
+    }
+
+    private static long key(int density, int resourceID) {
+        return ((long) density << 32) | (resourceID & 0xFFFFFFFFL);
+    }
+
+    public static int getHitCount() {
+        return cache.hitCount();
+    }
+
+    public static int getMissCount() {
+        return cache.missCount();
+    }
+
+    /**
+     * @return number of bytes used by cached bitmaps
+     */
+    public static int getSize() {
+        return cache.size();
+    }
+
+    public static int getMaxSize() {
+        return cache.maxSize();
+    }
+}
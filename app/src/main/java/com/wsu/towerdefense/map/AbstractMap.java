@@ -2,36 +2,44 @@ package com.wsu.towerdefense.map;
 
 import android.content.Context;
 import android.graphics.Bitmap;
-import android.graphics.PointF;
+import android.graphics.Point;
 import com.wsu.towerdefense.Util;
-import java.util.Collections;
-import java.util.List;
+import com.wsu.towerdefense.graphics.BitmapDecoder;
 
 /**
  * A map that has not been adjusted for screen size
+ * <p>
+ * The map image is only decoded when it is first needed, i.e. when a game on this map starts, and
+ * can be released again with {@link #releaseImage()}. Previews should use {@link ThumbnailCache}
+ * instead.
  */
 public class AbstractMap {
 
+    protected final Context context;
     protected final String name;
     protected final String displayName;
     protected final int imageID;
-    protected final Bitmap image;
-    protected final List<PointF> path;
-    protected final float pathRadius;
+    protected final MapPath path;
 
-    public AbstractMap(Context context, String name, String displayName, int imageID,
-        List<PointF> path, float pathRadius) {
-        this(name, displayName, imageID, Util.getBitmapByID(context, imageID), path, pathRadius);
-    }
+    private Bitmap image = null;
 
-    public AbstractMap(String name, String displayName, int imageID, Bitmap image,
-        List<PointF> path, float pathRadius) {
+    public AbstractMap(Context context, String name, String displayName, int imageID,
+        MapPath path) {
+        this.context = context.getApplicationContext();
         this.name = name;
         this.displayName = displayName;
         this.imageID = imageID;
-        this.image = image;
         this.path = path;
-        this.pathRadius = pathRadius;
+    }
+
+    /**
+     * Decodes the map image no larger than the screen, since maps are drawn stretched over the
+     * whole game
+     */
+    private static Bitmap decodeImage(Context context, int imageID) {
+        Point screen = Util.getScreenSize(context);
+        return BitmapDecoder.decode(context, imageID, screen.x, screen.y, true,
+            BitmapDecoder.AssetClass.MAP);
     }
 
     public String getName() {
@@ -46,7 +54,31 @@ public class AbstractMap {
         return imageID;
     }
 
-    public List<PointF> getPath() {
-        return Collections.unmodifiableList(path);
+    /**
+     * @return the map image, decoding it if needed
+     */
+    public synchronized Bitmap getImage() {
+        if (image == null) {
+            image = decodeImage(context, imageID);
+        }
+        return image;
+    }
+
+    /**
+     * @return whether the map image is currently decoded
+     */
+    public synchronized boolean isImageLoaded() {
+        return image != null;
+    }
+
+    /**
+     * Drops the decoded map image, e.g. when a game ends. It is decoded again when needed.
+     */
+    public synchronized void releaseImage() {
+        image = null;
+    }
+
+    public MapPath getPath() {
+        return path;
     }
 }
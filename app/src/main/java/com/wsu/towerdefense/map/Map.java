@@ -1,10 +1,11 @@
 package com.wsu.towerdefense.map;
 
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Paint.Align;
-import android.graphics.PointF;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import com.wsu.towerdefense.Application;
 import java.util.ArrayList;
@@ -24,86 +25,78 @@ public class Map extends AbstractMap {
     };
 
     /**
-     * Rectangles representing the path hitbox
+     * Rectangles representing the path hitbox, drawn in debug mode
      */
     private final List<RectF> bounds;
-
-    public Map(AbstractMap baseMap, int gameWidth, int gameHeight) {
-        super(baseMap.name, baseMap.displayName, baseMap.imageID, baseMap.image,
-            adjustPath(baseMap.path, gameWidth, gameHeight), baseMap.pathRadius);
-
-        // generate bounds rectangles based on adjusted path
-        this.bounds = generateBounds();
-    }
+    /**
+     * Area the map image is stretched over
+     */
+    private final Rect imageBounds;
+    private final Paint imagePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
 
     /**
-     * Adjust path (scale up) to fit dimensions of the game
+     * Map this map was adjusted from, which holds the shared map image
      */
-    private static List<PointF> adjustPath(List<PointF> path, int gameWidth, int gameHeight) {
-        List<PointF> adjustedPath = new ArrayList<>();
-        for (PointF point : path) {
-            adjustedPath.add(new PointF(
-                point.x * gameWidth, point.y * gameHeight
-            ));
+    private final AbstractMap baseMap;
+
+    public Map(AbstractMap baseMap, int gameWidth, int gameHeight) {
+        super(baseMap.context, baseMap.name, baseMap.displayName, baseMap.imageID,
+            baseMap.path.scale(gameWidth, gameHeight));
+        this.baseMap = baseMap;
+
+        this.bounds = new ArrayList<>();
+        for (int i = 0; i < path.getBoundsCount(); i++) {
+            float[] rect = path.getBounds(i);
+            bounds.add(new RectF(rect[0], rect[1], rect[2], rect[3]));
         }
-        return adjustedPath;
+        this.imageBounds = new Rect(0, 0, gameWidth, gameHeight);
     }
 
     public void render(Canvas canvas, Paint paint) {
-        canvas.drawBitmap(this.image, 0, 0, null);
+        canvas.drawBitmap(getImage(), null, imageBounds, imagePaint);
 
         if (Application.DEBUG) {
-            for (int i = 0; i < bounds.size(); i++) {
-                paint.reset();
-                paint.setColor(PATH_COLORS[i % PATH_COLORS.length]);
-                paint.setAlpha(100);
-                canvas.drawRect(bounds.get(i), paint);
-            }
-            for (int i = 0; i < path.size(); i++) {
-                PointF point = path.get(i);
-                paint.reset();
-                paint.setTextSize(75);
-                paint.setColor(Color.WHITE);
-                paint.setTextAlign(Align.CENTER);
-                canvas.drawText(
-                    "" + i,
-                    point.x,
-                    point.y - ((paint.descent() + paint.ascent()) / 2f),
-                    paint
-                );
-            }
+            renderDebug(canvas, paint);
         }
     }
 
     /**
-     * Generate bounds rectangles from path
+     * Draws the path hitbox and the index of each path point
      */
-    private List<RectF> generateBounds() {
-        List<RectF> tiles = new ArrayList<>();
+    public void renderDebug(Canvas canvas, Paint paint) {
+        for (int i = 0; i < bounds.size(); i++) {
+            paint.reset();
+            paint.setColor(PATH_COLORS[i % PATH_COLORS.length]);
+            paint.setAlpha(100);
+            canvas.drawRect(bounds.get(i), paint);
+        }
+        for (int i = 0; i < path.getPointCount(); i++) {
+            paint.reset();
+            paint.setTextSize(75);
+            paint.setColor(Color.WHITE);
+            paint.setTextAlign(Align.CENTER);
+            canvas.drawText(
+                "" + i,
+                path.getPointX(i),
+                path.getPointY(i) - ((paint.descent() + paint.ascent()) / 2f),
+                paint
+            );
+        }
+    }
 
-        for (int i = 1; i < path.size(); i++) {
-            PointF p1 = path.get(i - 1);
-            PointF p2 = path.get(i);
+    @Override
+    public Bitmap getImage() {
+        return baseMap.getImage();
+    }
 
-            // assume straight path
-            if (p1.x == p2.x) {
-                tiles.add(new RectF(
-                    p1.x - pathRadius,
-                    Math.min(p1.y, p2.y) - pathRadius,
-                    p1.x + pathRadius,
-                    Math.max(p1.y, p2.y) + pathRadius
-                ));
-            } else if (p1.y == p2.y) {
-                tiles.add(new RectF(
-                    Math.min(p1.x, p2.x) - pathRadius,
-                    p1.y - pathRadius,
-                    Math.max(p1.x, p2.x) + pathRadius,
-                    p1.y + pathRadius
-                ));
-            }
-        }
+    @Override
+    public boolean isImageLoaded() {
+        return baseMap.isImageLoaded();
+    }
 
-        return tiles;
+    @Override
+    public void releaseImage() {
+        baseMap.releaseImage();
     }
 
     public List<RectF> getBounds() {
@@ -0,0 +1,145 @@
+package com.wsu.towerdefense.map;
+
+/**
+ * The path enemies follow on a map, and the rectangles around it that towers can't be placed on.
+ * Coordinates are normalized from 0 to 1 when read from a map file, and in pixels once the path has
+ * been adjusted for a game with {@link #scale(int, int)}.
+ * <p>
+ * Only uses plain Java types, so that a {@link com.wsu.towerdefense.Model.Simulation} can be
+ * created from it without a Context.
+ */
+public class MapPath {
+
+    private final float[] xs;
+    private final float[] ys;
+    /**
+     * Half the width of the path
+     */
+    private final float radius;
+    /**
+     * Left, top, right and bottom of the rectangle around each straight segment
+     */
+    private final float[][] bounds;
+    private final PathMetrics metrics;
+
+    /**
+     * @param xs     x coordinates of the points of the path, in order. Must contain at least two
+     *               points.
+     * @param ys     y coordinates of the points of the path, same length as <code>xs</code>
+     * @param radius half the width of the path
+     */
+    public MapPath(float[] xs, float[] ys, float radius) {
+        if (xs.length < 2) {
+            throw new IllegalArgumentException("Map path must have at least two points");
+        }
+        this.metrics = new PathMetrics(xs, ys);
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        this.radius = radius;
+        this.bounds = generateBounds();
+    }
+
+    /**
+     * Adjusts a normalized path (scale up) to fit the dimensions of a game
+     *
+     * @return the path in pixels
+     */
+    public MapPath scale(int gameWidth, int gameHeight) {
+        float[] scaledX = new float[xs.length];
+        float[] scaledY = new float[ys.length];
+        for (int i = 0; i < xs.length; i++) {
+            scaledX[i] = xs[i] * gameWidth;
+            scaledY[i] = ys[i] * gameHeight;
+        }
+        return new MapPath(scaledX, scaledY, radius);
+    }
+
+    /**
+     * Generate bounds rectangles from path
+     */
+    private float[][] generateBounds() {
+        float[][] tiles = new float[xs.length - 1][];
+        int count = 0;
+
+        for (int i = 1; i < xs.length; i++) {
+            float x1 = xs[i - 1];
+            float y1 = ys[i - 1];
+            float x2 = xs[i];
+            float y2 = ys[i];
+
+            // assume straight path
+            if (x1 == x2) {
+                tiles[count++] = new float[]{
+                    x1 - radius,
+                    Math.min(y1, y2) - radius,
+                    x1 + radius,
+                    Math.max(y1, y2) + radius
+                };
+            } else if (y1 == y2) {
+                tiles[count++] = new float[]{
+                    Math.min(x1, x2) - radius,
+                    y1 - radius,
+                    Math.max(x1, x2) + radius,
+                    y1 + radius
+                };
+            }
+        }
+
+        float[][] result = new float[count][];
+        System.arraycopy(tiles, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * @param x          x coordinate of the center of the hitbox
+     * @param y          y coordinate of the center of the hitbox
+     * @param halfWidth  half the width of the hitbox
+     * @param halfHeight half the height of the hitbox
+     * @return true if the given hitbox touches a bounds rectangle of the path
+     */
+    public boolean overlaps(float x, float y, float halfWidth, float halfHeight) {
+        for (float[] rect : bounds) {
+            if (rect[0] - halfWidth <= x &&
+                x - halfWidth <= rect[2] &&
+                rect[1] - halfHeight <= y &&
+                y - halfHeight <= rect[3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPointCount() {
+        return xs.length;
+    }
+
+    public float getPointX(int i) {
+        return xs[i];
+    }
+
+    public float getPointY(int i) {
+        return ys[i];
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public int getBoundsCount() {
+        return bounds.length;
+    }
+
+    /**
+     * @return left, top, right and bottom of a bounds rectangle, must not be modified
+     */
+    public float[] getBounds(int i) {
+        return bounds[i];
+    }
+
+    /**
+     * @return the path parameterized by distance, shared by all enemies
+     */
+    public PathMetrics getMetrics() {
+        return metrics;
+    }
+}
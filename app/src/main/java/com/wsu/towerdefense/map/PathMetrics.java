@@ -0,0 +1,135 @@
+package com.wsu.towerdefense.map;
+
+import com.wsu.towerdefense.Position;
+
+/**
+ * A path parameterized by distance travelled along it (arc length). Computed once per map, so that
+ * objects following the path only need to keep track of a single distance.
+ */
+public class PathMetrics {
+
+    private final float[] xs;
+    private final float[] ys;
+    /**
+     * Distance along the path at each point, starting at 0
+     */
+    private final float[] cumulative;
+    /**
+     * Unit direction of each segment, from point <code>i</code> to point <code>i + 1</code>
+     */
+    private final float[] dirX;
+    private final float[] dirY;
+    private final float length;
+
+    /**
+     * @param xs x coordinates of the points of the path, in order. Must contain at least one point.
+     * @param ys y coordinates of the points of the path, same length as <code>xs</code>
+     */
+    public PathMetrics(float[] xs, float[] ys) {
+        if (xs.length == 0) {
+            throw new IllegalArgumentException("Path must contain at least one point");
+        }
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Path must have as many x as y coordinates");
+        }
+
+        int n = xs.length;
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+        cumulative = new float[n];
+        dirX = new float[Math.max(n - 1, 0)];
+        dirY = new float[Math.max(n - 1, 0)];
+
+        for (int i = 0; i < n - 1; i++) {
+            float dx = xs[i + 1] - xs[i];
+            float dy = ys[i + 1] - ys[i];
+            double segment = Math.hypot(dx, dy);
+
+            cumulative[i + 1] = (float) (cumulative[i] + segment);
+            if (segment > 0) {
+                dirX[i] = (float) (dx / segment);
+                dirY[i] = (float) (dy / segment);
+            }
+        }
+
+        length = cumulative[n - 1];
+    }
+
+    /**
+     * Finds the segment that contains <code>distance</code>. Searches forward from
+     * <code>hint</code>, so finding the segment of an object moving forward is usually
+     * constant time.
+     *
+     * @param distance distance along the path, between 0 and {@link #getLength()}
+     * @param hint     segment returned by the previous call for the same object, or 0
+     * @return index of the segment, between 0 and {@link #getSegmentCount()} - 1, or 0 if the path
+     * has a single point
+     */
+    public int segmentAt(float distance, int hint) {
+        int last = dirX.length - 1;
+        if (last < 0) {
+            return 0;
+        }
+
+        int i = Math.max(0, Math.min(hint, last));
+        // hint is ahead of distance, e.g. the object was moved back
+        while (i > 0 && cumulative[i] > distance) {
+            i--;
+        }
+        while (i < last && cumulative[i + 1] <= distance) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Writes the location at <code>distance</code> along the path to <code>out</code>
+     *
+     * @param distance distance along the path, between 0 and {@link #getLength()}
+     * @param segment  segment containing distance, from {@link #segmentAt(float, int)}
+     * @param out      point to write the location to
+     */
+    public void getLocation(float distance, int segment, Position out) {
+        if (dirX.length == 0) {
+            out.set(xs[0], ys[0]);
+            return;
+        }
+
+        float along = distance - cumulative[segment];
+        out.set(
+            xs[segment] + dirX[segment] * along,
+            ys[segment] + dirY[segment] * along
+        );
+    }
+
+    public float getDirectionX(int segment) {
+        return dirX.length == 0 ? 0 : dirX[segment];
+    }
+
+    public float getDirectionY(int segment) {
+        return dirY.length == 0 ? 0 : dirY[segment];
+    }
+
+    public float getPointX(int i) {
+        return xs[i];
+    }
+
+    public float getPointY(int i) {
+        return ys[i];
+    }
+
+    public int getPointCount() {
+        return xs.length;
+    }
+
+    public int getSegmentCount() {
+        return dirX.length;
+    }
+
+    /**
+     * @return total length of the path, in pixels
+     */
+    public float getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,182 @@
+package com.wsu.towerdefense.map;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseArray;
+import com.wsu.towerdefense.R;
+import com.wsu.towerdefense.graphics.BitmapDecoder;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Small previews of map images, for screens that list maps. Thumbnails are generated on a
+ * background thread and stored in the app's cache directory, keyed by a hash of the map image and
+ * the thumbnail size, so that they are only generated again when the image changes. Each image is
+ * only hashed once per process, as resources can't change while the app is running.
+ * <p>
+ * The cache keeps at most {@link #MAX_FILES} thumbnails, removing the least recently used ones.
+ */
+public class ThumbnailCache {
+
+    private static final String CACHE_DIR = "thumbnails";
+    private static final int MAX_FILES = 16;
+    private static final int QUALITY = 90;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * Hashes of map images by resource ID, guarded by the class lock
+     */
+    private static final SparseArray<String> hashes = new SparseArray<>();
+
+    private static int generated = 0;
+
+    private ThumbnailCache() {
+    }
+
+    /**
+     * Gets the thumbnail of <code>map</code> on a background thread
+     *
+     * @param width    width the thumbnail is shown at
+     * @param height   height the thumbnail is shown at
+     * @param callback called on the main thread with the thumbnail, or null if it can't be made
+     */
+    public static void load(Context context, AbstractMap map, int width, int height,
+        Consumer<Bitmap> callback) {
+        Context appContext = context.getApplicationContext();
+        executor.execute(() -> {
+            Bitmap thumbnail = get(appContext, map, width, height);
+            mainHandler.post(() -> callback.accept(thumbnail));
+        });
+    }
+
+    /**
+     * Gets the thumbnail of <code>map</code> from the cache, or generates and caches it. Blocks
+     * while reading or generating the thumbnail.
+     *
+     * @param width  width the thumbnail is shown at
+     * @param height height the thumbnail is shown at
+     * @return the thumbnail, or null if it can't be made
+     */
+    public static Bitmap get(Context context, AbstractMap map, int width, int height) {
+        File file;
+        try {
+            file = getFile(context, map, width, height);
+        } catch (IOException e) {
+            Log.e(context.getString(R.string.logcatKey),
+                "Error while hashing image of map '" + map.getName() + "'", e);
+            return BitmapDecoder.decode(context, map.getImageID(), width, height, true,
+                BitmapDecoder.AssetClass.MAP);
+        }
+
+        if (file.exists()) {
+            Bitmap thumbnail = BitmapFactory.decodeFile(file.getPath());
+            if (thumbnail != null) {
+                // mark as recently used
+                file.setLastModified(System.currentTimeMillis());
+                return thumbnail;
+            }
+        }
+
+        Bitmap thumbnail = BitmapDecoder.decode(context, map.getImageID(), width, height, true,
+            BitmapDecoder.AssetClass.MAP);
+        if (thumbnail == null) {
+            return null;
+        }
+        synchronized (ThumbnailCache.class) {
+            generated++;
+        }
+
+        try (OutputStream stream = new FileOutputStream(file)) {
+            thumbnail.compress(Bitmap.CompressFormat.JPEG, QUALITY, stream);
+        } catch (IOException e) {
+            Log.e(context.getString(R.string.logcatKey),
+                "Error while caching thumbnail of map '" + map.getName() + "'", e);
+            file.delete();
+        }
+        trim(file.getParentFile());
+        return thumbnail;
+    }
+
+    private static File getFile(Context context, AbstractMap map, int width, int height)
+        throws IOException {
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create thumbnail directory");
+        }
+        return new File(dir, hash(context, map.getImageID()) + "_" + width + "x" + height + ".jpg");
+    }
+
+    /**
+     * @return hex string of the SHA-1 hash of the raw resource
+     */
+    private static String hash(Context context, int resourceID) throws IOException {
+        synchronized (ThumbnailCache.class) {
+            String hash = hashes.get(resourceID);
+            if (hash != null) {
+                return hash;
+            }
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        try (InputStream stream = context.getResources().openRawResource(resourceID)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        String hash = hex.toString();
+        synchronized (ThumbnailCache.class) {
+            hashes.put(resourceID, hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Deletes the least recently used thumbnails until at most {@link #MAX_FILES} are left
+     */
+    private static synchronized void trim(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null || files.length <= MAX_FILES) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_FILES; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * @return number of thumbnails generated instead of read from the cache
+     */
+    public static synchronized int getGeneratedCount() {
+        return generated;
+    }
+}
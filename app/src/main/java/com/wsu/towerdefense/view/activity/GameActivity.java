@@ -26,10 +26,11 @@ import android.widget.ScrollView;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.constraintlayout.widget.ConstraintLayout;
+import com.wsu.towerdefense.AbstractGame;
+import com.wsu.towerdefense.Application;
 import com.wsu.towerdefense.audio.AdvancedSoundPlayer;
 import com.wsu.towerdefense.Model.tower.Tower;
 import com.wsu.towerdefense.Model.tower.TowerUpgradeData;
-import com.wsu.towerdefense.Model.tower.Upgrade;
 import com.wsu.towerdefense.Model.Game;
 import com.wsu.towerdefense.Model.Game.Difficulty;
 import com.wsu.towerdefense.Model.save.SaveState;
@@ -37,6 +38,10 @@ import com.wsu.towerdefense.R;
 import com.wsu.towerdefense.Settings;
 import com.wsu.towerdefense.Util;
 import com.wsu.towerdefense.audio.Music;
+import com.wsu.towerdefense.audio.SfxEngine;
+import com.wsu.towerdefense.graphics.AtlasLoader;
+import com.wsu.towerdefense.graphics.RotatedSpriteCache;
+import com.wsu.towerdefense.graphics.SpriteCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -65,6 +70,7 @@ public class GameActivity extends AppCompatActivity {
     private TextView txt_towerName;
     private TextView txt_towerPurchasePrice;
     private Button btn_sellTower;
+    private Button btn_targetMode;
 
     private ImageButton btn_upgrade_info;
     private ProgressBar[] progBar;
@@ -108,6 +114,7 @@ public class GameActivity extends AppCompatActivity {
         txt_towerName = findViewById(R.id.txt_towerName);
         txt_towerPurchasePrice = findViewById(R.id.txt_towerPurchasePrice);
         btn_sellTower = findViewById(R.id.btn_sell);
+        btn_targetMode = findViewById(R.id.btn_targetMode);
         btn_upgrade_info = findViewById(R.id.btn_upgrade_info);
         progBar = new ProgressBar[]{
             findViewById(R.id.progBar_1),
@@ -152,7 +159,8 @@ public class GameActivity extends AppCompatActivity {
         Display display = getWindowManager().getDefaultDisplay();
         Point displaySize = new Point();
         display.getSize(displaySize);
-        cl_gameLayout.post(() -> {
+        // create the game once assets are loaded and the layout has its size
+        Application.assetsReady().thenRun(() -> cl_gameLayout.post(() -> {
             // save state
             SaveState saveState = (SaveState) getIntent().getSerializableExtra("saveState");
 
@@ -173,6 +181,8 @@ public class GameActivity extends AppCompatActivity {
                 Log.e(getString(R.string.logcatKey), Log.getStackTraceString(e));
             }
 
+            // draw once per display refresh instead of after every update
+            game.setRenderMode(AbstractGame.RenderMode.VSYNC);
             cl_gameLayout.addView(game);
 
             btn_fast_fwd.setVisibility(View.GONE);
@@ -200,8 +210,7 @@ public class GameActivity extends AppCompatActivity {
                     btn_fast_fwd.setVisibility(View.VISIBLE);
                     btn_fast_fwd.setEnabled(true);
                     game.save();
-                    game.getWaves().nextWave();
-                    game.setWaveRunning(true);
+                    game.startNextWave();
                 }
             });
 
@@ -279,7 +288,7 @@ public class GameActivity extends AppCompatActivity {
             });
 
             updateTowerSelection();
-        });
+        }));
     }
 
     private void addTowerViews() {
@@ -313,6 +322,10 @@ public class GameActivity extends AppCompatActivity {
 
             final int _i = i;
             image.setOnLongClickListener(v -> {
+                if (game == null) {
+                    // still loading
+                    return false;
+                }
                 ClipData.Item item = new ClipData.Item((CharSequence) v.getTag());
                 String[] mimeTypes = {ClipDescription.MIMETYPE_TEXT_PLAIN};
                 ClipData data = new ClipData(v.getTag().toString(), mimeTypes, item);
@@ -519,15 +532,27 @@ public class GameActivity extends AppCompatActivity {
 
         progBar[pathNumber].setProgress(progBar[pathNumber].getProgress() + 33);
 
-        Tower tower = game.getSelectedTower();
-        Upgrade upgrade = tower.getStats().upgrade(pathNumber);
-        game.removeMoney(upgrade.cost);
+        game.upgradeSelectedTower(pathNumber);
 
         updateUpgradeUI();
 
         audioButtonPress.play(view.getContext(), Settings.getSFXVolume(view.getContext()));
     }
 
+    /**
+     * Called when the targeting mode button is clicked, switches the selected tower to the next
+     * targeting mode
+     */
+    public void btn_targetMode_Clicked(View view) {
+        Tower tower = game.getSelectedTower();
+        if (tower != null) {
+            tower.setTargetMode(tower.getTargetMode().next());
+            updateUpgradeUI();
+        }
+
+        audioButtonPress.play(view.getContext(), Settings.getSFXVolume(view.getContext()));
+    }
+
     /**
      * Sets the kill count label respective to the selected tower
      *
@@ -586,6 +611,10 @@ public class GameActivity extends AppCompatActivity {
                 getString(R.string.sell_for),
                 tower.getStats().getSellPrice()
             ));
+            btn_targetMode.setText(String.format(
+                getString(R.string.target_mode),
+                tower.getTargetMode().displayName
+            ));
         }
     }
 
@@ -603,6 +632,13 @@ public class GameActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
         audioButtonPress.release();
+        SpriteCache.evictAll();
+        RotatedSpriteCache.evictAll();
+        AtlasLoader.evictAll();
+        SfxEngine.getInstance(this).stopLoops();
+        if (game != null) {
+            game.getMap().releaseImage();
+        }
     }
 
     @Override
@@ -77,12 +77,15 @@ public class GameSelectionActivity extends AppCompatActivity {
         if (error) {
             txt_saveInfo.setText(R.string.load_error);
         } else if (has) {
-            txt_saveInfo.setText(String.format(
-                getString(R.string.save_info),
-                format.format(saveState.date),
-                MapReader.get(saveState.mapName).getDisplayName(),
-                saveState.waves.getCurWave() + 1,
-                saveState.difficulty.toString()
+            // maps are still being read when the app was just launched
+            MapReader.ready().whenComplete((result, e) -> runOnUiThread(() ->
+                txt_saveInfo.setText(String.format(
+                    getString(R.string.save_info),
+                    format.format(saveState.date),
+                    MapReader.get(saveState.mapName).getDisplayName(),
+                    saveState.waves.getCurWave() + 1,
+                    saveState.difficulty.toString()
+                ))
             ));
         } else {
             txt_saveInfo.setText(R.string.no_saved_game);
@@ -12,6 +12,7 @@ import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
 import com.wsu.towerdefense.audio.AdvancedSoundPlayer;
 import com.wsu.towerdefense.map.AbstractMap;
+import com.wsu.towerdefense.map.ThumbnailCache;
 import com.wsu.towerdefense.Model.Game;
 import com.wsu.towerdefense.Model.Game.Difficulty;
 import com.wsu.towerdefense.MapReader;
@@ -52,7 +53,8 @@ public class MapSelectionActivity extends AppCompatActivity {
         btn_medium = findViewById(R.id.btn_mediumMapSelection);
         btn_hard = findViewById(R.id.btn_hardMapSelection);
 
-        addImageViews();
+        // maps are still being read when the app was just launched
+        MapReader.ready().whenComplete((result, e) -> runOnUiThread(this::addImageViews));
 
         btn_play.setEnabled(false);
         selected_difficulty = btn_easy;
@@ -72,7 +74,7 @@ public class MapSelectionActivity extends AppCompatActivity {
 
         for (AbstractMap map : MapReader.getMaps()) {
             ImageView image = new ImageView(this);
-            image.setImageResource(map.getImageID());
+            ThumbnailCache.load(this, map, imageWidth, imageHeight, image::setImageBitmap);
             image.setOnClickListener(this::mapSelected);
             image.setTag(map.getName());
 
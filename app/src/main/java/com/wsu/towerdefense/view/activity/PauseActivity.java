@@ -16,8 +16,6 @@ public class PauseActivity extends Activity {
 
     private AdvancedSoundPlayer audioButtonPress;
 
-    public static boolean rerender = false;
-
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -51,12 +49,6 @@ public class PauseActivity extends Activity {
         Log.i(getString(R.string.logcatKey), "Exiting game");
     }
 
-    @Override
-    public void onResume() {
-        super.onResume();
-        rerender = true;
-    }
-
     @Override
     protected void onDestroy() {
         super.onDestroy();
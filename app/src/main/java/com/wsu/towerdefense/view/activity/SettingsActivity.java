@@ -3,14 +3,18 @@ package com.wsu.towerdefense.view.activity;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.SeekBar;
 import android.widget.SeekBar.OnSeekBarChangeListener;
 import android.widget.TextView;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import com.wsu.towerdefense.BuildConfig;
 import com.wsu.towerdefense.audio.AdvancedSoundPlayer;
 import com.wsu.towerdefense.R;
 import com.wsu.towerdefense.Settings;
+import com.wsu.towerdefense.StartupTrace;
 import com.wsu.towerdefense.Util;
 import com.wsu.towerdefense.audio.Music;
 
@@ -32,6 +36,11 @@ public class SettingsActivity extends AppCompatActivity {
         sb_music = findViewById(R.id.sb_music);
         sb_soundFx = findViewById(R.id.sb_soundFx);
 
+        // debug menu
+        if (BuildConfig.DEBUG) {
+            findViewById(R.id.btn_startupTrace).setVisibility(View.VISIBLE);
+        }
+
         SharedPreferences pref = getSharedPreferences(getString(R.string.pref_file_key),
             Context.MODE_PRIVATE);
         SharedPreferences.Editor editor = pref.edit();
@@ -100,6 +109,24 @@ public class SettingsActivity extends AppCompatActivity {
         finish();
     }
 
+    /**
+     * Shows the spans recorded while loading assets, see {@link StartupTrace}. Only available in
+     * debug builds.
+     *
+     * @param view view
+     */
+    public void btnStartupTraceClicked(View view) {
+        audioButtonPress.play(view.getContext(), Settings.getSFXVolume(view.getContext()));
+
+        String trace = StartupTrace.dump();
+        Log.i(getString(R.string.logcatKey), "Startup trace:\n" + trace);
+        new AlertDialog.Builder(this)
+            .setTitle(R.string.startup_trace)
+            .setMessage(trace.isEmpty() ? getString(R.string.startup_trace_empty) : trace)
+            .setPositiveButton(android.R.string.ok, null)
+            .show();
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
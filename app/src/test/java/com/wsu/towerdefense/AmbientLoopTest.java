@@ -0,0 +1,125 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.audio.AmbientLoop;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AmbientLoopTest extends TestCase {
+
+    private static final int SOUND = 7;
+
+    /**
+     * Records voice changes instead of playing them
+     */
+    private static class FakeVoices implements AmbientLoop.Voices {
+
+        int started = 0;
+        final List<Integer> stopped = new ArrayList<>();
+        float volume = 0;
+        boolean fail = false;
+
+        @Override
+        public int start(int soundID, float volume) {
+            if (fail) {
+                return 0;
+            }
+            started++;
+            this.volume = volume;
+            return started;
+        }
+
+        @Override
+        public void setVolume(int voiceID, float volume) {
+            this.volume = volume;
+        }
+
+        @Override
+        public void stop(int voiceID) {
+            stopped.add(voiceID);
+        }
+    }
+
+    private FakeVoices voices;
+    private AmbientLoop loop;
+
+    @Before
+    public void reset() {
+        voices = new FakeVoices();
+        loop = new AmbientLoop(voices, SOUND);
+    }
+
+    @Test
+    public void oneVoiceServesAllEmitters() {
+        for (int i = 0; i < 10; i++) {
+            loop.addEmitter(0.5f);
+        }
+
+        assertEquals(1, voices.started);
+        assertEquals(10, loop.getEmitterCount());
+        assertTrue(loop.isPlaying());
+    }
+
+    @Test
+    public void voiceStopsWithLastEmitter() {
+        loop.addEmitter(0.5f);
+        loop.addEmitter(0.5f);
+        loop.removeEmitter();
+        assertTrue(voices.stopped.isEmpty());
+        loop.removeEmitter();
+
+        assertEquals(1, voices.stopped.size());
+        assertFalse(loop.isPlaying());
+
+        loop.addEmitter(0.5f);
+        assertEquals(2, voices.started);
+    }
+
+    @Test
+    public void volumeTracksEmitters() {
+        loop.addEmitter(0.5f);
+        assertEquals(0.5f, voices.volume, 0.0001f);
+        loop.addEmitter(0.5f);
+        float two = voices.volume;
+        assertTrue(two > 0.5f);
+        loop.addEmitter(0.5f);
+        loop.addEmitter(0.5f);
+        assertTrue(voices.volume > two);
+
+        loop.removeEmitter();
+        loop.removeEmitter();
+        loop.removeEmitter();
+        assertEquals(0.5f, voices.volume, 0.0001f);
+    }
+
+    @Test
+    public void failedStartIsRetried() {
+        voices.fail = true;
+        loop.addEmitter(0.5f);
+        assertFalse(loop.isPlaying());
+
+        voices.fail = false;
+        loop.addEmitter(0.5f);
+        assertTrue(loop.isPlaying());
+        assertEquals(2, loop.getEmitterCount());
+    }
+
+    @Test
+    public void stopForgetsEmitters() {
+        loop.addEmitter(0.5f);
+        loop.addEmitter(0.5f);
+        loop.stop();
+
+        assertFalse(loop.isPlaying());
+        assertEquals(0, loop.getEmitterCount());
+        // late removals don't go below zero
+        loop.removeEmitter();
+        assertEquals(0, loop.getEmitterCount());
+        assertEquals(1, voices.stopped.size());
+    }
+}
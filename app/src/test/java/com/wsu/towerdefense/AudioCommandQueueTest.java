@@ -0,0 +1,123 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.audio.AudioCommandQueue;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AudioCommandQueueTest extends TestCase {
+
+    private long now;
+    private AudioCommandQueue.Command command;
+
+    @Before
+    public void reset() {
+        now = 0;
+        command = new AudioCommandQueue.Command();
+    }
+
+    @Test
+    public void commandsComeOutInOrder() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(4, 0, () -> now);
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(queue.offer(AudioCommandQueue.PLAY, i, 100 + i, i / 10f, i % 2 == 0));
+            queue.take(command);
+            assertEquals(AudioCommandQueue.PLAY, command.type);
+            assertEquals(i, command.voiceID);
+            assertEquals(100 + i, command.soundID);
+            assertEquals(i / 10f, command.volume, 0.0001f);
+            assertEquals(i % 2 == 0, command.loop);
+        }
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void fullQueueDropsPlays() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(3, 1, () -> now);
+        assertTrue(queue.offer(AudioCommandQueue.PLAY, 1, 1, 1, false));
+        assertTrue(queue.offer(AudioCommandQueue.PLAY, 2, 1, 1, false));
+        assertFalse(queue.offer(AudioCommandQueue.PLAY, 3, 1, 1, false));
+        assertFalse(queue.offer(AudioCommandQueue.SET_VOLUME, 1, 0, 0.5f, false));
+
+        assertEquals(2, queue.getDepth());
+        assertEquals(2, queue.getMaxDepth());
+        assertEquals(2, queue.getDroppedCount());
+        queue.take(command);
+        assertEquals(1, command.voiceID);
+    }
+
+    @Test
+    public void stopsUseReservedSlots() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(2, 1, () -> now);
+        assertTrue(queue.offer(AudioCommandQueue.PLAY, 1, 1, 1, true));
+        assertTrue(queue.offer(AudioCommandQueue.STOP, 1, 0, 0, false));
+
+        assertEquals(0, queue.getDroppedCount());
+        assertEquals(0, queue.getGrownCount());
+        queue.take(command);
+        queue.take(command);
+        assertEquals(AudioCommandQueue.STOP, command.type);
+    }
+
+    @Test
+    public void fullQueueGrowsForStops() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(2, 1, () -> now);
+        // wrap around the end of the arrays, so growing has to keep the order
+        queue.offer(AudioCommandQueue.PAUSE_ALL, 0, 0, 0, false);
+        queue.take(command);
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(queue.offer(AudioCommandQueue.STOP, i, 0, 0, false));
+        }
+
+        assertEquals(5, queue.getDepth());
+        assertEquals(2, queue.getGrownCount());
+        assertEquals(0, queue.getDroppedCount());
+        for (int i = 1; i <= 5; i++) {
+            queue.take(command);
+            assertEquals(AudioCommandQueue.STOP, command.type);
+            assertEquals(i, command.voiceID);
+        }
+        assertEquals(0, queue.getDepth());
+    }
+
+    @Test
+    public void latencyIsMaximum() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(4, 0, () -> now);
+        queue.offer(AudioCommandQueue.PLAY, 1, 1, 1, false);
+        queue.offer(AudioCommandQueue.PLAY, 2, 1, 1, false);
+
+        now = 3_000_000;
+        queue.take(command);
+        queue.recordPlayed(command);
+        now = 5_000_000;
+        queue.take(command);
+        queue.recordPlayed(command);
+        queue.offer(AudioCommandQueue.PLAY, 3, 1, 1, false);
+        now = 6_000_000;
+        queue.take(command);
+        queue.recordPlayed(command);
+
+        assertEquals(5_000_000, queue.getMaxLatencyNanos());
+    }
+
+    @Test
+    public void takeWaitsForCommand() throws InterruptedException {
+        AudioCommandQueue queue = new AudioCommandQueue(4, 0);
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.offer(AudioCommandQueue.PAUSE_ALL, 0, 0, 0, false);
+        });
+        producer.start();
+
+        queue.take(command);
+        assertEquals(AudioCommandQueue.PAUSE_ALL, command.type);
+        producer.join();
+    }
+}
@@ -0,0 +1,51 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.graphics.BitmapDecoder;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BitmapDecoderTest extends TestCase {
+
+    private static final int MAP_WIDTH = 2560;
+    private static final int MAP_HEIGHT = 1664;
+
+    @Test
+    public void noTargetKeepsDensityScale() {
+        assertEquals(0.75f, BitmapDecoder.targetScale(MAP_WIDTH, MAP_HEIGHT, 0, 0, 0.75f), 0);
+    }
+
+    @Test
+    public void smallTargetLowersScale() {
+        float scale = BitmapDecoder.targetScale(MAP_WIDTH, MAP_HEIGHT, 1280, 720, 1);
+
+        assertEquals(0.5f, scale, 1e-6);
+    }
+
+    @Test
+    public void scaledImageCoversTarget() {
+        // taller than the map, so the height decides the scale
+        float scale = BitmapDecoder.targetScale(MAP_WIDTH, MAP_HEIGHT, 1000, 1000, 1);
+
+        assertTrue(MAP_WIDTH * scale >= 1000);
+        assertEquals(1000, MAP_HEIGHT * scale, 1e-3);
+    }
+
+    @Test
+    public void largeTargetDoesNotUpscale() {
+        assertEquals(0.875f,
+            BitmapDecoder.targetScale(MAP_WIDTH, MAP_HEIGHT, 3200, 1800, 0.875f), 0);
+    }
+
+    @Test
+    public void sampleSizeIsLargestPowerOfTwo() {
+        assertEquals(1, BitmapDecoder.sampleSize(1));
+        assertEquals(1, BitmapDecoder.sampleSize(0.6f));
+        assertEquals(2, BitmapDecoder.sampleSize(0.5f));
+        assertEquals(2, BitmapDecoder.sampleSize(0.3f));
+        assertEquals(4, BitmapDecoder.sampleSize(0.25f));
+        assertEquals(8, BitmapDecoder.sampleSize(0.1f));
+    }
+}
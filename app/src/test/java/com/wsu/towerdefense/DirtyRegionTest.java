@@ -0,0 +1,134 @@
+package com.wsu.towerdefense;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DirtyRegionTest extends TestCase {
+
+    private static final int WIDTH = 1000;
+    private static final int HEIGHT = 500;
+
+    /**
+     * @return a region whose initial full redraw has been drawn
+     */
+    private DirtyRegion newRegion() {
+        DirtyRegion region = new DirtyRegion();
+        region.setSize(WIDTH, HEIGHT);
+        assertTrue(region.prepare());
+        region.finishFrame(true);
+        return region;
+    }
+
+    @Test
+    public void firstFrameIsFull() {
+        DirtyRegion region = new DirtyRegion();
+        region.setSize(WIDTH, HEIGHT);
+
+        assertTrue(region.prepare());
+        assertTrue(region.isFullRedraw());
+    }
+
+    @Test
+    public void emptyFrameIsSkipped() {
+        DirtyRegion region = newRegion();
+
+        assertFalse(region.prepare());
+    }
+
+    @Test
+    public void includesPreviousFrame() {
+        DirtyRegion region = newRegion();
+
+        region.add(10, 10, 20, 20);
+        assertTrue(region.prepare());
+        region.finishFrame(true);
+
+        region.add(30, 40, 50, 60);
+        assertTrue(region.prepare());
+        assertEquals(10, region.getLeft());
+        assertEquals(10, region.getTop());
+        assertEquals(50, region.getRight());
+        assertEquals(60, region.getBottom());
+        assertFalse(region.isFullRedraw());
+        region.finishFrame(true);
+
+        // the second bounds are erased once nothing is reported
+        assertTrue(region.prepare());
+        assertEquals(30, region.getLeft());
+        region.finishFrame(true);
+        assertFalse(region.prepare());
+    }
+
+    @Test
+    public void roundsOutward() {
+        DirtyRegion region = newRegion();
+
+        region.add(10.5f, 10.5f, 20.5f, 20.5f);
+        region.prepare();
+
+        assertEquals(10, region.getLeft());
+        assertEquals(21, region.getRight());
+    }
+
+    @Test
+    public void clippedToScreen() {
+        DirtyRegion region = newRegion();
+
+        region.add(-50, -50, 10, 10);
+        region.prepare();
+        assertEquals(0, region.getLeft());
+        assertEquals(0, region.getTop());
+        region.finishFrame(true);
+        assertTrue(region.prepare());
+        region.finishFrame(true);
+
+        region.add(WIDTH + 10, 0, WIDTH + 20, 10);
+        assertFalse(region.prepare());
+    }
+
+    @Test
+    public void largeAreaIsFullRedraw() {
+        DirtyRegion region = newRegion();
+
+        region.add(0, 0, WIDTH * 0.9f, HEIGHT * 0.9f);
+        region.prepare();
+
+        assertTrue(region.isFullRedraw());
+        assertEquals(1, region.getCoverage(), 1e-6);
+    }
+
+    @Test
+    public void smallAreaCoverage() {
+        DirtyRegion region = newRegion();
+
+        region.add(0, 0, WIDTH / 10f, HEIGHT / 10f);
+        region.prepare();
+
+        assertEquals(0.01, region.getCoverage(), 1e-6);
+    }
+
+    @Test
+    public void invalidateAll() {
+        DirtyRegion region = newRegion();
+
+        region.invalidateAll();
+
+        assertTrue(region.prepare());
+        assertTrue(region.isFullRedraw());
+    }
+
+    @Test
+    public void undrawnFrameInvalidates() {
+        DirtyRegion region = newRegion();
+
+        region.add(10, 10, 20, 20);
+        region.prepare();
+        region.finishFrame(false);
+
+        assertTrue(region.prepare());
+        assertTrue(region.isFullRedraw());
+    }
+}
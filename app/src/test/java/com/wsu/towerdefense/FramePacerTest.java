@@ -0,0 +1,74 @@
+package com.wsu.towerdefense;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class FramePacerTest extends TestCase {
+
+    private static final long STEP = 1000;
+
+    @Test
+    public void noStepsBeforeTimestep() {
+        FramePacer pacer = new FramePacer(STEP, 5);
+        pacer.reset(0);
+
+        assertEquals(0, pacer.advance(STEP - 1));
+        assertEquals(STEP, pacer.nextStepDeadline());
+    }
+
+    @Test
+    public void remainderCarriesOver() {
+        FramePacer pacer = new FramePacer(STEP, 5);
+        pacer.reset(0);
+
+        assertEquals(1, pacer.advance(1500));
+        assertEquals(0.5, pacer.alpha(), 1e-9);
+        assertEquals(1, pacer.advance(2000));
+        assertEquals(0.0, pacer.alpha(), 1e-9);
+        assertEquals(3000, pacer.nextStepDeadline());
+    }
+
+    @Test
+    public void stallIsCapped() {
+        FramePacer pacer = new FramePacer(STEP, 5);
+        pacer.reset(0);
+
+        assertEquals(5, pacer.advance(STEP * 100));
+        assertEquals(STEP * 95, pacer.getDroppedNanos());
+        assertEquals(STEP * 101, pacer.nextStepDeadline());
+    }
+
+    @Test
+    public void resetDiscardsAccumulatedTime() {
+        FramePacer pacer = new FramePacer(STEP, 5);
+        pacer.reset(0);
+        pacer.advance(500);
+
+        pacer.reset(10_000);
+        assertEquals(0, pacer.advance(10_900));
+        assertEquals(1, pacer.advance(11_000));
+    }
+
+    @Test
+    public void speedRunsMoreSteps() {
+        FramePacer pacer = new FramePacer(STEP, 5);
+        pacer.setSpeed(4);
+        pacer.reset(0);
+
+        assertEquals(4, pacer.advance(STEP));
+        assertEquals(2, pacer.advance(STEP + STEP / 2));
+        assertEquals(STEP + STEP / 2 + STEP / 4, pacer.nextStepDeadline());
+    }
+
+    @Test
+    public void stallIsCappedRelativeToSpeed() {
+        FramePacer pacer = new FramePacer(STEP, 5);
+        pacer.setSpeed(2);
+        pacer.reset(0);
+
+        assertEquals(10, pacer.advance(STEP * 100));
+    }
+}
@@ -0,0 +1,78 @@
+package com.wsu.towerdefense;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ObjectPoolTest extends TestCase {
+
+    @Test
+    public void emptyPoolMisses() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new);
+
+        pool.acquire();
+        pool.acquire();
+
+        assertEquals(2, pool.getMisses());
+        assertEquals(2, pool.getCreated());
+        assertEquals(2, pool.getInUse());
+    }
+
+    @Test
+    public void releasedObjectIsReused() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new);
+
+        Object obj = pool.acquire();
+        pool.release(obj);
+
+        assertSame(obj, pool.acquire());
+        assertEquals(1, pool.getMisses());
+    }
+
+    @Test
+    public void prewarmedPoolDoesNotMiss() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new);
+        pool.prewarm(3);
+
+        pool.acquire();
+        pool.acquire();
+        pool.acquire();
+
+        assertEquals(0, pool.getMisses());
+        assertEquals(3, pool.getCreated());
+    }
+
+    @Test
+    public void prewarmCountsObjectsInUse() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new);
+        pool.acquire();
+        pool.acquire();
+
+        pool.prewarm(3);
+
+        assertEquals(1, pool.getFree());
+        assertEquals(3, pool.getCreated());
+    }
+
+    @Test
+    public void peakInUse() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new);
+
+        Object a = pool.acquire();
+        Object b = pool.acquire();
+        pool.release(a);
+        pool.release(b);
+        pool.acquire();
+
+        assertEquals(2, pool.getPeakInUse());
+        assertEquals(1, pool.getInUse());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void releaseWithoutAcquire() {
+        ObjectPool<Object> pool = new ObjectPool<>(Object::new);
+        pool.release(new Object());
+    }
+}
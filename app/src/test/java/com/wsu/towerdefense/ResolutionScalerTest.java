@@ -0,0 +1,100 @@
+package com.wsu.towerdefense;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ResolutionScalerTest extends TestCase {
+
+    private static final long BUDGET = 1000;
+    private static final float MIN_SCALE = 0.5f;
+    private static final float STEP = 0.25f;
+
+    /**
+     * Records frames until the scale changes
+     *
+     * @return number of frames recorded, or -1 if the scale didn't change within
+     * <code>maxFrames</code>
+     */
+    private int runUntilChange(ResolutionScaler scaler, long frameNanos, int maxFrames) {
+        for (int i = 1; i <= maxFrames; i++) {
+            if (scaler.onFrame(frameNanos)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void fastFramesKeepFullResolution() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+
+        assertEquals(-1, runUntilChange(scaler, BUDGET / 2, 200));
+        assertEquals(1, scaler.getScale(), 0);
+    }
+
+    @Test
+    public void slowFramesLowerScale() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+
+        assertTrue(runUntilChange(scaler, BUDGET * 3, 200) > 0);
+        assertEquals(1 - STEP, scaler.getScale(), 1e-6);
+    }
+
+    @Test
+    public void singleSlowFrameIsSmoothed() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+        for (int i = 0; i < 100; i++) {
+            scaler.onFrame(BUDGET / 2);
+        }
+
+        assertFalse(scaler.onFrame(BUDGET * 3));
+        assertEquals(1, scaler.getScale(), 0);
+    }
+
+    @Test
+    public void scaleStopsAtMinimum() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+
+        runUntilChange(scaler, BUDGET * 3, 200);
+        runUntilChange(scaler, BUDGET * 3, 200);
+        assertEquals(-1, runUntilChange(scaler, BUDGET * 3, 200));
+
+        assertEquals(MIN_SCALE, scaler.getScale(), 1e-6);
+    }
+
+    @Test
+    public void headroomRaisesScale() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+        runUntilChange(scaler, BUDGET * 3, 200);
+
+        assertTrue(runUntilChange(scaler, 0, 200) > 0);
+        assertEquals(1, scaler.getScale(), 1e-6);
+    }
+
+    @Test
+    public void frameTimeWithinBudgetKeepsScale() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+        runUntilChange(scaler, BUDGET * 3, 200);
+
+        // between the headroom and the budget
+        assertEquals(-1, runUntilChange(scaler, BUDGET * 8 / 10, 500));
+        assertEquals(1 - STEP, scaler.getScale(), 1e-6);
+    }
+
+    @Test
+    public void cooldownAfterChange() {
+        ResolutionScaler scaler = new ResolutionScaler(BUDGET, MIN_SCALE, STEP);
+        runUntilChange(scaler, BUDGET * 3, 200);
+
+        // still over budget, but the next step waits for the cooldown
+        assertTrue(runUntilChange(scaler, BUDGET * 3, 200) > 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMinimumScale() {
+        new ResolutionScaler(BUDGET, 1.5f, STEP);
+    }
+}
@@ -0,0 +1,82 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.Model.Game.Difficulty;
+import com.wsu.towerdefense.Model.Simulation;
+import com.wsu.towerdefense.Model.Waves;
+import com.wsu.towerdefense.Model.tower.Tower;
+import com.wsu.towerdefense.map.MapPath;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.stream.Collectors;
+import junit.framework.TestCase;
+import org.json.JSONException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SimulationTest extends TestCase {
+
+    private static final int WIDTH = 2560;
+    private static final int HEIGHT = 1440;
+    private static final String MAP = "maps/map1.json";
+    private static final String WAVES = "waves/standard.json";
+    private static final int MAX_TICKS = 60 * 60 * 10;
+
+    /**
+     * Opens a file from the app's assets, which are resources of the unit tests
+     */
+    private InputStream openAsset(String fileName) {
+        InputStream stream = getClass().getClassLoader().getResourceAsStream(fileName);
+        assertNotNull("Missing asset " + fileName, stream);
+        return stream;
+    }
+
+    private Simulation newSimulation() throws IOException, JSONException {
+        MapPath path;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(openAsset(MAP)))) {
+            path = MapReader.parsePath(reader.lines().collect(Collectors.joining("\n")));
+        }
+        Waves waves;
+        try (InputStream stream = openAsset(WAVES)) {
+            waves = new Waves(stream, Difficulty.EASY);
+        }
+        Simulation simulation = Simulation.headless(WIDTH, HEIGHT, path, waves, Difficulty.EASY);
+
+        // place a tower at the first valid location
+        for (float y = Tower.BASE_SIZE; y < HEIGHT; y += Tower.BASE_SIZE) {
+            for (float x = Tower.BASE_SIZE; x < WIDTH; x += Tower.BASE_SIZE) {
+                if (simulation.placeTower(x, y, Tower.Type.BASIC_LINEAR)) {
+                    return simulation;
+                }
+            }
+        }
+        fail("No valid tower location");
+        return simulation;
+    }
+
+    @Test
+    public void waveEnds() throws Exception {
+        Simulation simulation = newSimulation();
+
+        int ticks = simulation.runUntilWaveEnd(MAX_TICKS);
+
+        assertTrue(ticks < MAX_TICKS);
+        assertFalse(simulation.isWaveRunning());
+        assertTrue(simulation.getEnemies().isEmpty());
+        assertEquals(1, simulation.getTowers().size());
+    }
+
+    @Test
+    public void deterministic() throws Exception {
+        Simulation a = newSimulation();
+        Simulation b = newSimulation();
+
+        assertEquals(a.runUntilWaveEnd(MAX_TICKS), b.runUntilWaveEnd(MAX_TICKS));
+        assertEquals(a.getLives(), b.getLives());
+        assertEquals(a.getMoney(), b.getMoney());
+        assertEquals(a.getScore(), b.getScore());
+    }
+}
@@ -0,0 +1,178 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.audio.SoundScheduler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SoundSchedulerTest extends TestCase {
+
+    private static final long DURATION = 500_000_000L;
+
+    /**
+     * Records started and stopped voices instead of playing them
+     */
+    private static class FakeOutput implements SoundScheduler.Output {
+
+        final List<Integer> sounds = new ArrayList<>();
+        final List<Float> volumes = new ArrayList<>();
+        final List<Integer> stopped = new ArrayList<>();
+
+        @Override
+        public int start(int soundID, float volume) {
+            sounds.add(soundID);
+            volumes.add(volume);
+            return sounds.size();
+        }
+
+        @Override
+        public void stop(int voiceID) {
+            stopped.add(voiceID);
+        }
+
+        @Override
+        public long getDurationNanos(int soundID) {
+            return DURATION;
+        }
+    }
+
+    private FakeOutput output;
+    private long now;
+
+    @Before
+    public void reset() {
+        output = new FakeOutput();
+        now = 0;
+    }
+
+    private SoundScheduler newScheduler(int maxVoicesPerSound, int maxVoices) {
+        return new SoundScheduler(output, maxVoicesPerSound, maxVoices, () -> now);
+    }
+
+    @Test
+    public void requestsOutsideTickPlayImmediately() {
+        SoundScheduler scheduler = newScheduler(4, 8);
+        scheduler.request(1, 0.5f, SoundScheduler.PRIORITY_NORMAL);
+
+        assertEquals(1, output.sounds.size());
+        assertEquals(0.5f, output.volumes.get(0), 0.0001f);
+        assertEquals(1, scheduler.getStartedCount());
+    }
+
+    @Test
+    public void duplicatesInTickAreMerged() {
+        SoundScheduler scheduler = newScheduler(4, 8);
+        scheduler.beginTick();
+        for (int i = 0; i < 4; i++) {
+            scheduler.request(1, 0.5f, SoundScheduler.PRIORITY_LOW);
+        }
+        scheduler.request(2, 0.5f, SoundScheduler.PRIORITY_LOW);
+        assertTrue(output.sounds.isEmpty());
+        scheduler.endTick();
+
+        assertEquals(2, output.sounds.size());
+        // 4 requests are 2 doublings louder
+        assertEquals(0.75f, output.volumes.get(output.sounds.indexOf(1)), 0.0001f);
+        assertEquals(0.5f, output.volumes.get(output.sounds.indexOf(2)), 0.0001f);
+        assertEquals(5, scheduler.getRequestedCount());
+        assertEquals(3, scheduler.getCoalescedCount());
+        assertEquals(2, scheduler.getStartedCount());
+    }
+
+    @Test
+    public void mergedVolumeIsCapped() {
+        SoundScheduler scheduler = newScheduler(4, 8);
+        scheduler.beginTick();
+        for (int i = 0; i < 64; i++) {
+            scheduler.request(1, 0.9f, SoundScheduler.PRIORITY_LOW);
+        }
+        scheduler.endTick();
+
+        assertEquals(1f, output.volumes.get(0), 0.0001f);
+    }
+
+    @Test
+    public void higherPriorityStartsFirst() {
+        SoundScheduler scheduler = newScheduler(4, 8);
+        scheduler.beginTick();
+        scheduler.request(1, 1, SoundScheduler.PRIORITY_LOW);
+        scheduler.request(2, 1, SoundScheduler.PRIORITY_HIGH);
+        scheduler.request(3, 1, SoundScheduler.PRIORITY_NORMAL);
+        scheduler.endTick();
+
+        assertEquals(Arrays.asList(2, 3, 1), output.sounds);
+    }
+
+    @Test
+    public void perSoundCapStealsOldestVoice() {
+        SoundScheduler scheduler = newScheduler(2, 8);
+        for (int i = 0; i < 3; i++) {
+            now += 1000;
+            scheduler.request(1, 1, SoundScheduler.PRIORITY_NORMAL);
+        }
+
+        assertEquals(3, output.sounds.size());
+        assertEquals(Arrays.asList(1), output.stopped);
+        assertEquals(2, scheduler.getVoiceCount());
+        assertEquals(0, scheduler.getDroppedCount());
+    }
+
+    @Test
+    public void globalCapDropsLowerPriority() {
+        SoundScheduler scheduler = newScheduler(2, 2);
+        scheduler.request(1, 1, SoundScheduler.PRIORITY_HIGH);
+        scheduler.request(2, 1, SoundScheduler.PRIORITY_HIGH);
+        scheduler.request(3, 1, SoundScheduler.PRIORITY_LOW);
+
+        assertEquals(2, output.sounds.size());
+        assertTrue(output.stopped.isEmpty());
+        assertEquals(1, scheduler.getDroppedCount());
+    }
+
+    @Test
+    public void globalCapStealsLowestPriority() {
+        SoundScheduler scheduler = newScheduler(2, 2);
+        scheduler.request(1, 1, SoundScheduler.PRIORITY_HIGH);
+        scheduler.request(2, 1, SoundScheduler.PRIORITY_LOW);
+        scheduler.request(3, 1, SoundScheduler.PRIORITY_NORMAL);
+
+        assertEquals(Arrays.asList(2), output.stopped);
+        assertEquals(2, scheduler.getVoiceCount());
+    }
+
+    @Test
+    public void finishedVoicesFreeTheirSlot() {
+        SoundScheduler scheduler = newScheduler(1, 1);
+        scheduler.request(1, 1, SoundScheduler.PRIORITY_HIGH);
+        now += DURATION;
+        scheduler.request(2, 1, SoundScheduler.PRIORITY_LOW);
+
+        assertEquals(2, output.sounds.size());
+        assertTrue(output.stopped.isEmpty());
+        assertEquals(0, scheduler.getDroppedCount());
+    }
+
+    @Test
+    public void everyRequestIsCounted() {
+        SoundScheduler scheduler = newScheduler(2, 3);
+        for (int tick = 0; tick < 10; tick++) {
+            now += DURATION / 4;
+            scheduler.beginTick();
+            for (int i = 0; i < 20; i++) {
+                scheduler.request(i % 5, 1, i % 3);
+            }
+            scheduler.endTick();
+        }
+
+        assertEquals(200, scheduler.getRequestedCount());
+        assertEquals(scheduler.getRequestedCount(), scheduler.getStartedCount()
+            + scheduler.getCoalescedCount() + scheduler.getDroppedCount());
+        assertTrue(scheduler.getVoiceCount() <= 3);
+    }
+}
@@ -0,0 +1,64 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.Model.Enemy;
+import com.wsu.towerdefense.Model.Projectile;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks that the sizes of enemy and projectile types, which collisions use instead of their
+ * images, still match the sprite files
+ */
+@RunWith(JUnit4.class)
+public class SpriteSizeTest extends TestCase {
+
+    /**
+     * Same as SPRITE_DIR in build.gradle. Local unit tests run in the module directory.
+     */
+    private static final File SPRITE_DIR = new File("src/main/res/mipmap-xxxhdpi");
+
+    private final Map<Integer, String> mipmapNames = new HashMap<>();
+
+    @Before
+    public void readMipmapNames() throws IllegalAccessException {
+        for (Field field : R.mipmap.class.getFields()) {
+            mipmapNames.put(field.getInt(null), field.getName());
+        }
+    }
+
+    private void assertSize(String type, int resource, float width, float height)
+        throws IOException {
+        String name = mipmapNames.get(resource);
+        assertNotNull("no mipmap for " + type, name);
+        BufferedImage image = ImageIO.read(new File(SPRITE_DIR, name + ".png"));
+        assertNotNull("can't read " + name, image);
+
+        assertEquals(type + " width", image.getWidth() * AbstractMapObject.SPRITE_SCALE, width, 0);
+        assertEquals(type + " height", image.getHeight() * AbstractMapObject.SPRITE_SCALE, height,
+            0);
+    }
+
+    @Test
+    public void enemySizesMatchSprites() throws IOException {
+        for (Enemy.Type type : Enemy.Type.values()) {
+            assertSize(type.name(), type.getResource(), type.getWidth(), type.getHeight());
+        }
+    }
+
+    @Test
+    public void projectileSizesMatchSprites() throws IOException {
+        for (Projectile.Type type : Projectile.Type.values()) {
+            assertSize(type.name(), type.imageID, type.width, type.height);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.wsu.towerdefense;
+
+import java.util.List;
+import junit.framework.TestCase;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StartupTraceTest extends TestCase {
+
+    @Before
+    public void reset() {
+        StartupTrace.reset();
+    }
+
+    @Test
+    public void spansAreSortedByStart() {
+        long first = StartupTrace.begin();
+        long second = StartupTrace.begin();
+        StartupTrace.end("b.json", StartupTrace.Phase.PARSE, second);
+        StartupTrace.end("a.json", StartupTrace.Phase.READ, first);
+
+        List<StartupTrace.Span> spans = StartupTrace.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("a.json", spans.get(0).file);
+        assertEquals(StartupTrace.Phase.READ, spans.get(0).phase);
+        assertEquals("b.json", spans.get(1).file);
+        assertTrue(spans.get(0).durationNanos >= spans.get(1).durationNanos);
+    }
+
+    @Test
+    public void spansFromOtherThreadsAreRecorded() throws InterruptedException {
+        Thread thread = new Thread(() -> StartupTrace.end("map1.json",
+            StartupTrace.Phase.READ, StartupTrace.begin()), "loader");
+        thread.start();
+        thread.join();
+
+        List<StartupTrace.Span> spans = StartupTrace.getSpans();
+        assertEquals(1, spans.size());
+        assertEquals("loader", spans.get(0).thread);
+    }
+
+    @Test
+    public void dumpHasOneLinePerSpan() {
+        StartupTrace.end("map1.json", StartupTrace.Phase.READ, StartupTrace.begin());
+        StartupTrace.end("tower_ice_1", StartupTrace.Phase.DECODE, StartupTrace.begin());
+
+        String[] lines = StartupTrace.dump().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("READ") && lines[0].contains("map1.json"));
+        assertTrue(lines[1].contains("DECODE") && lines[1].contains("tower_ice_1"));
+    }
+
+    @Test
+    public void spansAreCapped() {
+        for (int i = 0; i < StartupTrace.MAX_SPANS + 10; i++) {
+            StartupTrace.end("file", StartupTrace.Phase.READ, StartupTrace.begin());
+        }
+
+        assertEquals(StartupTrace.MAX_SPANS, StartupTrace.getSpans().size());
+    }
+}
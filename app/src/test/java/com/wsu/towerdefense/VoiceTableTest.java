@@ -0,0 +1,49 @@
+package com.wsu.towerdefense;
+
+import com.wsu.towerdefense.audio.VoiceTable;
+import junit.framework.TestCase;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class VoiceTableTest extends TestCase {
+
+    private static final int SLOTS = 64;
+
+    @Test
+    public void loopOutlivesOneShots() {
+        VoiceTable table = new VoiceTable(SLOTS);
+        table.put(1, 1001, true);
+        for (int voiceID = 2; voiceID < 2 + 3 * SLOTS; voiceID++) {
+            table.put(voiceID, 1000 + voiceID, false);
+        }
+
+        assertEquals(1001, table.get(1));
+        assertEquals(1001, table.remove(1));
+        assertEquals(0, table.get(1));
+        assertEquals(0, table.getLoopCount());
+    }
+
+    @Test
+    public void recentOneShotsAreKept() {
+        VoiceTable table = new VoiceTable(SLOTS);
+        for (int voiceID = 1; voiceID <= 2 * SLOTS; voiceID++) {
+            table.put(voiceID, 1000 + voiceID, false);
+        }
+
+        assertEquals(0, table.get(SLOTS));
+        assertEquals(1000 + 2 * SLOTS, table.get(2 * SLOTS));
+        assertEquals(1000 + 2 * SLOTS, table.remove(2 * SLOTS));
+        assertEquals(0, table.remove(2 * SLOTS));
+    }
+
+    @Test
+    public void failedStartsAreIgnored() {
+        VoiceTable table = new VoiceTable(SLOTS);
+        table.put(1, 0, true);
+
+        assertEquals(0, table.get(1));
+        assertEquals(0, table.getLoopCount());
+    }
+}